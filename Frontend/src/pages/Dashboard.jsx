@@ -1,5 +1,5 @@
 
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
 import axios from "axios";
 import { useNavigate } from "react-router-dom";
 import {
@@ -26,14 +26,19 @@ import {
   Tooltip,
   Legend,
 } from "chart.js";
+import { listenToComplaintEvents } from "../utils/complaintEvents";
 
 ChartJS.register(BarElement, CategoryScale, LinearScale, Tooltip, Legend);
 
 const Dashboard = () => {
   const [complaintsData, setComplaintsData] = useState([]);
+  const [stats, setStats] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [statusFilter, setStatusFilter] = useState("All");
   const [categoryFilter, setCategoryFilter] = useState("All");
   const [searchTerm, setSearchTerm] = useState("");
+  const [searchQuery, setSearchQuery] = useState(""); // searchTerm once typing pauses
   const [loading, setLoading] = useState(true);
   const [deleting, setDeleting] = useState(null);
   const [user, setUser] = useState(null);
@@ -65,9 +70,8 @@ const Dashboard = () => {
         setUser(userResponse.data);
         setUserLoading(false);
 
-        // Then fetch complaints
-        const complaintsResponse = await axios.get("http://localhost:8080/api/complaints", config);
-        setComplaintsData(complaintsResponse.data || []);
+        // Summary cards come from server-side counters, not from the complaint list
+        await fetchStats();
         
       } catch (err) {
         console.error("Error fetching data:", err);
@@ -83,6 +87,93 @@ const Dashboard = () => {
     fetchUserAndComplaints();
   }, [navigate]);
 
+  useEffect(() => {
+    const timer = setTimeout(() => setSearchQuery(searchTerm.trim()), 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
+  // Table rows are loaded a page at a time; search and status/category filters are applied by the server
+  useEffect(() => {
+    if (!user) return;
+    fetchComplaintPage(null);
+  }, [user, statusFilter, categoryFilter, searchQuery]);
+
+  const fetchStats = async () => {
+    try {
+      const token = localStorage.getItem("token");
+      const response = await axios.get("http://localhost:8080/api/complaints/stats", {
+        headers: { Authorization: `Bearer ${token}` },
+      });
+      setStats(response.data);
+    } catch (error) {
+      console.error("Error fetching complaint stats:", error);
+    }
+  };
+
+  // cursor === null loads the first page and replaces the rows; otherwise appends the next page.
+  // With a search query the rows come ranked by relevance from /search instead of newest first.
+  const fetchComplaintPage = async (cursor) => {
+    try {
+      if (cursor) setLoadingMore(true);
+      const token = localStorage.getItem("token");
+      const params = { size: 50 };
+      if (statusFilter === "NEW" || statusFilter === "IN_PROGRESS") params.status = statusFilter;
+      if (categoryFilter !== "All") params.category = categoryFilter;
+      if (cursor) params.cursor = cursor;
+      if (searchQuery) params.q = searchQuery;
+
+      const endpoint = searchQuery ? "search" : "page";
+      const response = await axios.get(`http://localhost:8080/api/complaints/${endpoint}`, {
+        headers: { Authorization: `Bearer ${token}` },
+        params,
+      });
+      const items = response.data?.items || [];
+      setComplaintsData((prev) => (cursor ? [...prev, ...items] : items));
+      setNextCursor(response.data?.hasMore ? response.data.nextCursor : null);
+    } catch (error) {
+      console.error("Error fetching complaints:", error);
+      if (!cursor) setComplaintsData([]);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  // Live updates from /api/complaints/events: rows are patched in place instead of re-fetched.
+  // The handler is read through a ref so the long-lived stream always sees the current filters.
+  const handleComplaintEvent = (name, data) => {
+    if (name === "complaint") {
+      const update = JSON.parse(data);
+      setComplaintsData((prev) =>
+        prev.map((c) =>
+          c.id === update.complaintId
+            ? {
+                ...c,
+                status: update.status ?? c.status,
+                priority: update.priority ?? c.priority,
+                updatedAt: update.at,
+              }
+            : c
+        )
+      );
+      if (update.kind === "STATUS") fetchStats();
+      if (selectedComplaint?.id === update.complaintId) fetchStatusHistory(update.complaintId);
+    } else if (name === "resync" || name === "reconnected") {
+      // Events were missed (client too slow, or the stream was down): reload
+      fetchComplaintPage(null);
+      fetchStats();
+    }
+  };
+  const complaintEventHandler = useRef(handleComplaintEvent);
+  complaintEventHandler.current = handleComplaintEvent;
+
+  useEffect(() => {
+    if (!user) return;
+    const controller = new AbortController();
+
+    listenToComplaintEvents((name, data) => complaintEventHandler.current(name, data), controller.signal);
+    return () => controller.abort();
+  }, [user]);
+
   // Delete complaint function
   const handleDeleteComplaint = async (complaintId) => {
     if (!window.confirm("Are you sure you want to delete this complaint?")) {
@@ -106,6 +197,7 @@ const Dashboard = () => {
       
       // Remove complaint from local state
       setComplaintsData(prev => prev.filter(complaint => complaint.id !== complaintId));
+      fetchStats();
       alert("Complaint deleted successfully!");
     } catch (error) {
       console.error("Full delete error:", error);
@@ -124,18 +216,42 @@ const Dashboard = () => {
     }
   };
 
+  // List rows are summaries (description preview only) - load the full complaint when editing or viewing
+  const fetchComplaintDetail = async (complaintId) => {
+    const token = localStorage.getItem("token");
+    const response = await axios.get(
+      `http://localhost:8080/api/complaints/${complaintId}`,
+      {
+        headers: { Authorization: `Bearer ${token}` }
+      }
+    );
+    return response.data;
+  };
+
   // Edit complaint function
-  const handleEditComplaint = (complaint) => {
-    // Store complaint data in localStorage for pre-filling the form
-    localStorage.setItem("editComplaint", JSON.stringify(complaint));
-    navigate("/submit-complaint?edit=true");
+  const handleEditComplaint = async (complaint) => {
+    try {
+      const detail = await fetchComplaintDetail(complaint.id);
+      // Store complaint data in localStorage for pre-filling the form
+      localStorage.setItem("editComplaint", JSON.stringify(detail));
+      navigate("/submit-complaint?edit=true");
+    } catch (error) {
+      console.error("Error loading complaint:", error);
+      alert("Failed to load complaint details. Please try again.");
+    }
   };
 
   // Add this new function for status update
-  const handleUpdateStatus = (complaint) => {
-    // Store complaint data for status update
-    localStorage.setItem("updateStatusComplaint", JSON.stringify(complaint));
-    navigate("/update-status");
+  const handleUpdateStatus = async (complaint) => {
+    try {
+      const detail = await fetchComplaintDetail(complaint.id);
+      // Store complaint data for status update
+      localStorage.setItem("updateStatusComplaint", JSON.stringify(detail));
+      navigate("/update-status");
+    } catch (error) {
+      console.error("Error loading complaint:", error);
+      alert("Failed to load complaint details. Please try again.");
+    }
   };
 
   // Fetch status history for a complaint
@@ -162,7 +278,19 @@ const Dashboard = () => {
   const handleViewProgress = async (complaint) => {
     setSelectedComplaint(complaint);
     setShowProgressModal(true);
-    await fetchStatusHistory(complaint.id);
+    const [detail] = await Promise.all([
+      fetchComplaintDetail(complaint.id).catch((error) => {
+        console.error("Error loading complaint:", error);
+        return null;
+      }),
+      fetchStatusHistory(complaint.id),
+    ]);
+    if (detail) {
+      // Unless the modal was closed or switched to another complaint meanwhile
+      setSelectedComplaint((current) =>
+        current?.id === complaint.id ? { ...current, description: detail.description } : current
+      );
+    }
   };
 
   // Close progress modal
@@ -199,25 +327,16 @@ const Dashboard = () => {
     return (
       c.status !== "RESOLVED" && // Hide resolved complaints from main table
       (statusFilter === "All" || c.status === statusFilter) &&
-      (categoryFilter === "All" || c.category === categoryFilter) &&
-      (searchTerm === "" ||
-        c.description?.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        c.user?.username?.toLowerCase().includes(searchTerm.toLowerCase()))
+      (categoryFilter === "All" || c.category === categoryFilter)
     );
   });
 
-  // Summary
+  // Summary (server-side counters for the user's whole scope)
   const summary = {
-    total: complaintsData.length,
-    pending: complaintsData.filter(
-      (c) => c.status === "NEW" || c.status === "Pending"
-    ).length,
-    progress: complaintsData.filter(
-      (c) => c.status === "IN_PROGRESS" || c.status === "In Progress"
-    ).length,
-    resolved: complaintsData.filter(
-      (c) => c.status === "RESOLVED" || c.status === "Resolved"
-    ).length,
+    total: stats?.total ?? 0,
+    pending: stats?.byStatus?.NEW ?? 0,
+    progress: stats?.byStatus?.IN_PROGRESS ?? 0,
+    resolved: stats?.byStatus?.RESOLVED ?? 0,
     escalated: complaintsData.filter((c) => c.status === "Escalated").length,
   };
 
@@ -314,7 +433,7 @@ const Dashboard = () => {
               <Search className="absolute left-3 top-1/2 -translate-y-1/2 text-gray-400 w-4 h-4" />
               <input
                 type="text"
-                placeholder="Search complaints or users..."
+                placeholder="Search title, description, location..."
                 value={searchTerm}
                 onChange={(e) => setSearchTerm(e.target.value)}
                 className="w-full pl-10 pr-4 py-2 border rounded-lg focus:ring-2 focus:ring-indigo-500 focus:outline-none"
@@ -383,8 +502,8 @@ const Dashboard = () => {
                             {c.status}
                           </span>
                         </td>
-                        <td className="p-3 max-w-xs truncate">{c.description}</td>
-                        <td className="p-3">{c.user?.email || c.user?.username || "N/A"}</td>
+                        <td className="p-3 max-w-xs truncate">{c.descriptionPreview}</td>
+                        <td className="p-3">{c.user?.email || "N/A"}</td>
                         <td className="p-3">
                           <div className="flex space-x-2">
                             {/* Show different buttons based on role */}
@@ -466,6 +585,17 @@ const Dashboard = () => {
             ) : (
               <p className="text-gray-500 text-center">No complaints found.</p>
             )}
+            {nextCursor && (
+              <div className="mt-4 flex justify-center">
+                <button
+                  onClick={() => fetchComplaintPage(nextCursor)}
+                  disabled={loadingMore}
+                  className="px-6 py-2 bg-indigo-600 text-white rounded-lg hover:bg-indigo-700 transition-colors disabled:opacity-50"
+                >
+                  {loadingMore ? "Loading..." : "Load more"}
+                </button>
+              </div>
+            )}
           </div>
 
           {/* Chart */}
@@ -516,7 +646,7 @@ const Dashboard = () => {
                   </div>
                   <div className="col-span-2">
                     <span className="text-gray-600">Description:</span>
-                    <p className="ml-2 mt-1">{selectedComplaint.description}</p>
+                    <p className="ml-2 mt-1">{selectedComplaint.description ?? "Loading..."}</p>
                   </div>
                 </div>
               </div>
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
 import axios from "axios";
 import { useNavigate } from "react-router-dom";
 import {
@@ -11,6 +11,7 @@ import {
   FileText,
   X
 } from "lucide-react";
+import { listenToComplaintEvents } from "../utils/complaintEvents";
 
 const MyComplaints = () => {
   const [complaintsData, setComplaintsData] = useState([]);
@@ -30,6 +31,8 @@ const MyComplaints = () => {
     wouldRecommend: null // true/false
   });
   const [submittingFeedback, setSubmittingFeedback] = useState(false);
+  // Bumped to reload the list (see the event stream below)
+  const [reloadKey, setReloadKey] = useState(0);
   
   const navigate = useNavigate();
 
@@ -66,24 +69,25 @@ const MyComplaints = () => {
         console.log("Resolved complaints fetched for user role", user.role, ":", resolvedComplaints);
         console.log("User details:", user);
         
-        // Check feedback status for each complaint (using fallback method)
-        const complaintsWithFeedbackStatus = await Promise.all(
-          resolvedComplaints.map(async (complaint) => {
-            try {
-              console.log(`Checking feedback status for complaint ${complaint.id}`);
-              
-              // Use the status endpoint to check feedback
-              const feedbackResponse = await axios.get(`http://localhost:8080/api/feedback/complaint/${complaint.id}/status`, config);
-              const feedbackProvided = feedbackResponse.data?.feedbackProvided || false;
-              console.log(`Feedback status response for complaint ${complaint.id}:`, feedbackResponse.data);
-              
-              return { ...complaint, feedbackProvided };
-            } catch (err) {
-              console.log(`Error checking feedback status for complaint ${complaint.id}:`, err);
-              return { ...complaint, feedbackProvided: false };
-            }
-          })
-        );
+        // Check feedback status in bulk (one request per 500 complaints instead of one per complaint)
+        let feedbackStatus = {};
+        const ids = resolvedComplaints.map((complaint) => complaint.id);
+        for (let i = 0; i < ids.length; i += 500) {
+          try {
+            const feedbackResponse = await axios.get("http://localhost:8080/api/feedback/status", {
+              ...config,
+              params: { complaintIds: ids.slice(i, i + 500).join(",") },
+            });
+            feedbackStatus = { ...feedbackStatus, ...(feedbackResponse.data || {}) };
+          } catch (err) {
+            console.log("Error checking feedback status:", err);
+          }
+        }
+
+        const complaintsWithFeedbackStatus = resolvedComplaints.map((complaint) => ({
+          ...complaint,
+          feedbackProvided: feedbackStatus[complaint.id] || false,
+        }));
         
         console.log("Complaints with feedback status:", complaintsWithFeedbackStatus);
         setComplaintsData(complaintsWithFeedbackStatus);
@@ -100,13 +104,41 @@ const MyComplaints = () => {
       }
     };
     fetchUserAndComplaints();
-  }, [navigate]);
+  }, [navigate, reloadKey]);
+
+  // Live updates from /api/complaints/events (the student's own complaints): a complaint that was just
+  // resolved or reopened changes which rows this page lists, so the list is reloaded; priority changes
+  // are patched in place. Read through a ref so the long-lived stream always sees the current rows.
+  const handleComplaintEvent = (name, data) => {
+    if (name === "complaint") {
+      const update = JSON.parse(data);
+      if (update.kind === "PRIORITY") {
+        setComplaintsData((prev) =>
+          prev.map((c) => (c.id === update.complaintId ? { ...c, priority: update.priority } : c))
+        );
+      } else if (update.status === "RESOLVED" || complaintsData.some((c) => c.id === update.complaintId)) {
+        setReloadKey((key) => key + 1);
+      }
+    } else if (name === "resync" || name === "reconnected") {
+      // Events were missed (client too slow, or the stream was down): reload
+      setReloadKey((key) => key + 1);
+    }
+  };
+  const complaintEventHandler = useRef(handleComplaintEvent);
+  complaintEventHandler.current = handleComplaintEvent;
+
+  useEffect(() => {
+    if (!localStorage.getItem("token")) return;
+    const controller = new AbortController();
+    listenToComplaintEvents((name, data) => complaintEventHandler.current(name, data), controller.signal);
+    return () => controller.abort();
+  }, []);
 
   // Filter complaints by search term only (all are already RESOLVED)
   const filteredComplaints = complaintsData.filter((complaint) => {
     const matchesSearch = 
       complaint.title?.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      complaint.description?.toLowerCase().includes(searchTerm.toLowerCase()) ||
+      complaint.descriptionPreview?.toLowerCase().includes(searchTerm.toLowerCase()) ||
       complaint.category?.toLowerCase().includes(searchTerm.toLowerCase());
     
     return matchesSearch;
@@ -114,8 +146,20 @@ const MyComplaints = () => {
 
   // Removed delete and edit functions since resolved complaints cannot be modified
 
+  // List rows are summaries (description preview only) - load the full complaint for the modals
+  const fetchComplaintDetail = async (complaintId) => {
+    const token = localStorage.getItem("token");
+    const response = await axios.get(
+      `http://localhost:8080/api/complaints/${complaintId}`,
+      {
+        headers: { Authorization: `Bearer ${token}` }
+      }
+    );
+    return response.data;
+  };
+
   // Open feedback modal
-  const handleProvideFeedback = (complaint) => {
+  const handleProvideFeedback = async (complaint) => {
     setSelectedComplaint(complaint);
     setShowFeedbackModal(true);
     setFeedbackData({
@@ -124,6 +168,15 @@ const MyComplaints = () => {
       feedback: "",
       wouldRecommend: null
     });
+    try {
+      const detail = await fetchComplaintDetail(complaint.id);
+      // Unless the modal was closed or switched to another complaint meanwhile
+      setSelectedComplaint((current) =>
+        current?.id === complaint.id ? { ...current, description: detail.description } : current
+      );
+    } catch (err) {
+      console.error("Error loading complaint:", err);
+    }
   };
 
   // Close feedback modal
@@ -327,7 +380,7 @@ const MyComplaints = () => {
                         <div>
                           <p className="font-medium text-gray-900">{complaint.title}</p>
                           <p className="text-sm text-gray-600 truncate max-w-xs">
-                            {complaint.description}
+                            {complaint.descriptionPreview}
                           </p>
                         </div>
                       </td>
@@ -424,7 +477,7 @@ const MyComplaints = () => {
                   <strong>Title:</strong> {selectedComplaint.title}
                 </p>
                 <p className="text-sm text-gray-600 mb-2">
-                  <strong>Description:</strong> {selectedComplaint.description}
+                  <strong>Description:</strong> {selectedComplaint.description ?? "Loading..."}
                 </p>
                 <p className="text-sm text-gray-600">
                   <strong>Category:</strong> {selectedComplaint.category}
@@ -121,7 +121,11 @@ const SubmitComplaint = () => {
         console.log("Creating new complaint:", payload);
         response = await axios.post("http://localhost:8080/api/complaints", payload, config);
         console.log("Create response:", response.data);
-        alert("Complaint submitted successfully!");
+        if (response.data?.duplicateOfId) {
+          alert(`Complaint submitted successfully! It matches complaint #${response.data.duplicateOfId}, which was already reported, and has been linked to it.`);
+        } else {
+          alert("Complaint submitted successfully!");
+        }
       }
 
       navigate("/");
@@ -86,8 +86,10 @@ const UpdateStatus = () => {
       // Clear localStorage
       localStorage.removeItem("updateStatusComplaint");
       
-      // Navigate back to dashboard with success message
-      alert("Complaint status updated successfully!");
+      // Navigate back to dashboard with success message (202: accepted, applied shortly)
+      alert(response.status === 202
+        ? "Complaint status change accepted, it will show up shortly."
+        : "Complaint status updated successfully!");
       navigate("/dashboard");
       
     } catch (error) {
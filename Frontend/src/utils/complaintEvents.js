@@ -0,0 +1,52 @@
+// Reads the server-sent events of /api/complaints/events until `signal` aborts, reconnecting with backoff.
+// Calls onEvent(name, data) for "complaint" and "resync" events, and onEvent("reconnected") when the stream
+// came back after a drop (events may have been missed meanwhile).
+// Uses fetch instead of EventSource, which cannot send the Authorization header.
+export const listenToComplaintEvents = async (onEvent, signal) => {
+  let retryDelay = 1000;
+  let connectedBefore = false;
+  while (!signal.aborted) {
+    try {
+      const response = await fetch("http://localhost:8080/api/complaints/events", {
+        headers: {
+          Authorization: `Bearer ${localStorage.getItem("token")}`,
+          Accept: "text/event-stream",
+        },
+        signal,
+      });
+      if (!response.ok) throw new Error(`Server error: ${response.status}`);
+      retryDelay = 1000;
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = "";
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value;
+        let end;
+        while ((end = buffer.indexOf("\n\n")) >= 0) {
+          const block = buffer.slice(0, end);
+          buffer = buffer.slice(end + 2);
+          let name = "message";
+          const data = [];
+          for (const line of block.split("\n")) {
+            if (line.startsWith("event:")) name = line.slice(6).trim();
+            else if (line.startsWith("data:")) data.push(line.slice(5));
+          }
+          if (name === "connected") {
+            if (connectedBefore) onEvent("reconnected");
+            connectedBefore = true;
+          } else if (data.length > 0) {
+            onEvent(name, data.join("\n"));
+          }
+        }
+      }
+    } catch (error) {
+      if (signal.aborted) return;
+      console.error("Complaint event stream error:", error);
+    }
+    // The stream ended (timeout, server restart, network): reconnect with backoff
+    await new Promise((resolve) => setTimeout(resolve, retryDelay));
+    retryDelay = Math.min(retryDelay * 2, 30000);
+  }
+};
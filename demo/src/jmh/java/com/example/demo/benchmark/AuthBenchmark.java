@@ -0,0 +1,60 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.service.AuthService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthService.register / login with the BCryptPasswordEncoder from SecurityConfig
+ * (default strength 10). The repository is a stub, so the numbers are hashing + JWT cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AuthBenchmark {
+
+    private static final String PASSWORD = "s3cret-password";
+
+    private AuthService authService;
+    private User registered;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        registered = BenchmarkData.user(1, User.Role.STUDENT);
+        registered.setPassword(passwordEncoder.encode(PASSWORD));
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.existsByEmail(Mockito.anyString())).thenReturn(false);
+        Mockito.when(userRepository.save(Mockito.any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        Mockito.when(userRepository.findByEmail(registered.getEmail())).thenReturn(Optional.of(registered));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(email -> registered);
+        provider.setPasswordEncoder(passwordEncoder);
+
+        authService = new AuthService(userRepository, passwordEncoder, new JwtUtil(), new ProviderManager(provider),
+                BenchmarkData.revocationList(registered));
+    }
+
+    @Benchmark
+    public User register() {
+        User user = BenchmarkData.user(2, User.Role.STUDENT);
+        user.setPassword(PASSWORD);
+        return authService.register(user);
+    }
+
+    @Benchmark
+    public String login() {
+        return authService.login(registered.getEmail(), PASSWORD);
+    }
+}
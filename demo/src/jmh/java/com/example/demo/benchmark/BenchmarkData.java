@@ -0,0 +1,124 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.ComplaintSummary;
+import com.example.demo.model.Category;
+import com.example.demo.model.CategoryRoute;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.Subcategory;
+import com.example.demo.model.User;
+import com.example.demo.repository.CategoryRouteRepository;
+import com.example.demo.security.TokenRevocationList;
+import com.example.demo.service.CategoryRoutingService;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic complaint fixtures shared by the benchmarks (no database involved).
+ */
+final class BenchmarkData {
+
+    static final String[] CATEGORY_NAMES = {"Hostel", "Mess", "Maintenance", "Transport", "Security", "Academic"};
+
+    // Categories with ids 1..6, each with a "General" subcategory
+    static final Category[] CATEGORIES = new Category[CATEGORY_NAMES.length];
+    static final Subcategory[] SUBCATEGORIES = new Subcategory[CATEGORY_NAMES.length];
+
+    static {
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            CATEGORIES[i] = new Category((short) (i + 1), CATEGORY_NAMES[i]);
+            SUBCATEGORIES[i] = new Subcategory(i + 1, (short) (i + 1), "General");
+        }
+    }
+
+    private static final String DESCRIPTION = ("The water supply on the second floor has been interrupted since "
+            + "yesterday evening and the issue was reported to the caretaker twice without any response. ").repeat(4);
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id, User.Role role) {
+        return User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@example.com")
+                .password("$2a$10$abcdefghijklmnopqrstuu5rAvKkN3V4o2nD9bO0xq7oQyFzGq3m2")
+                .role(role)
+                .build();
+    }
+
+    static List<Complaint> complaints(int rows) {
+        Complaint.Status[] statuses = Complaint.Status.values();
+        Complaint.Priority[] priorities = Complaint.Priority.values();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<User> users = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            users.add(user(i, User.Role.STUDENT));
+        }
+
+        List<Complaint> complaints = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Complaint complaint = Complaint.builder()
+                    .id((long) i + 1)
+                    .title("Complaint " + i)
+                    .description(DESCRIPTION)
+                    .category(CATEGORIES[i % CATEGORIES.length])
+                    .subcategory(SUBCATEGORIES[i % SUBCATEGORIES.length])
+                    .location("Block " + (i % 12))
+                    .contactNumber("98765" + String.format("%05d", i % 100000))
+                    .status(statuses[i % statuses.length])
+                    .priority(priorities[i % priorities.length])
+                    .createdAt(base.plusMinutes(i))
+                    .updatedAt(base.plusMinutes(i + 30))
+                    .user(users.get(i % users.size()))
+                    .statusUpdates(new ArrayList<>())
+                    .build();
+            complaints.add(complaint);
+        }
+        return complaints;
+    }
+
+    static List<ComplaintSummary> summaries(List<Complaint> complaints) {
+        List<ComplaintSummary> summaries = new ArrayList<>(complaints.size());
+        for (Complaint c : complaints) {
+            summaries.add(new ComplaintSummary(c.getId(), c.getTitle(),
+                    c.getDescription().substring(0, Math.min(c.getDescription().length(), ComplaintSummary.DESCRIPTION_PREVIEW_LENGTH)),
+                    c.getCategory().getName(), c.getSubcategory().getName(), c.getLocation(), c.getStatus(), c.getPriority(),
+                    c.getCreatedAt(), c.getUpdatedAt(),
+                    c.getUser().getId(), c.getUser().getName(), c.getUser().getEmail()));
+        }
+        return summaries;
+    }
+
+    // Routing over a fixed table (no database): wardens handle every category but the last (Academic)
+    static CategoryRoutingService routing() {
+        List<CategoryRoute> routes = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length - 1; i++) {
+            routes.add(CategoryRoute.builder().id((long) i + 1).role(User.Role.WARDEN).category(CATEGORIES[i]).build());
+        }
+        CategoryRouteRepository repository = (CategoryRouteRepository) Proxy.newProxyInstance(
+                CategoryRouteRepository.class.getClassLoader(), new Class<?>[]{CategoryRouteRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && method.getParameterCount() == 0) {
+                        return routes;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return new CategoryRoutingService(repository, null, event -> { }, 30);
+    }
+
+    // Token versions over a fixed users row (no database): every user is at token version 0
+    static TokenRevocationList revocationList(User user) {
+        JdbcTemplate jdbc = new JdbcTemplate() {
+            @Override
+            public List<Map<String, Object>> queryForList(String sql, Object... args) {
+                return List.of(Map.of("id", user.getId(), "token_version", 0L));
+            }
+        };
+        return new TokenRevocationList(jdbc, event -> { }, 30, 10_000);
+    }
+}
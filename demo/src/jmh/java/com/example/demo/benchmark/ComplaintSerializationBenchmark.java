@@ -0,0 +1,45 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.ComplaintSummary;
+import com.example.demo.model.Complaint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of complaint list responses: full Complaint entities (what the list
+ * endpoints used to return) against ComplaintSummary rows. ObjectMapper is configured like
+ * Spring Boot's (JavaTimeModule, dates as ISO strings).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ComplaintSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<Complaint> complaints;
+    private List<ComplaintSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        complaints = BenchmarkData.complaints(rows);
+        summaries = BenchmarkData.summaries(complaints);
+    }
+
+    @Benchmark
+    public byte[] entities() throws Exception {
+        return objectMapper.writeValueAsBytes(complaints);
+    }
+
+    @Benchmark
+    public byte[] summaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.VerifiedToken;
+import com.example.demo.security.VerifiedTokenCache;
+import com.example.demo.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil token generation and validation. legacyValidation repeats what JwtFilter did before
+ * the claims were parsed once: username, role and validateToken (username, then expiry) each built a
+ * new parser and parsed the token again, four times per request. cachedValidation is the current
+ * JwtFilter path once the token is in VerifiedTokenCache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    // Same secret as JwtUtil, for the legacy parser
+    private static final Key LEGACY_KEY = Keys.hmacShaKeyFor("AnkitAnkitAnkitAnkitAnkitAnkitAnkit12".getBytes());
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        tokenCache = new VerifiedTokenCache(jwtUtil, 10_000);
+        user = BenchmarkData.user(1, User.Role.STUDENT);
+        token = jwtUtil.generateToken(user, 0);
+        tokenCache.getOrVerify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user, 0);
+    }
+
+    @Benchmark
+    public Claims parseAndValidate() {
+        return jwtUtil.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public boolean legacyValidation() {
+        String email = legacyParseClaims(token).getSubject();
+        Object role = legacyParseClaims(token).get("role");
+        // validateToken: username, then expiry
+        String username = legacyParseClaims(token).getSubject();
+        boolean valid = username != null && username.equals(user.getUsername())
+                && !legacyParseClaims(token).getExpiration().before(new Date());
+        return email != null && role != null && valid;
+    }
+
+    @Benchmark
+    public VerifiedToken cachedValidation() {
+        return tokenCache.getOrVerify(token);
+    }
+
+    // The original JwtUtil.parseClaims: a new parser for every call
+    private static Claims legacyParseClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(LEGACY_KEY)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.User;
+import com.example.demo.security.JwtFilter;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtFilter end to end for an authenticated request: header parsing, verified-token cache
+ * lookup, revocation check (token version cached) and SecurityContext population.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private JwtFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        filter = new JwtFilter();
+        ReflectionTestUtils.setField(filter, "tokenCache", new VerifiedTokenCache(jwtUtil, 10_000));
+        User user = BenchmarkData.user(1, User.Role.STUDENT);
+        ReflectionTestUtils.setField(filter, "revocationList", BenchmarkData.revocationList(user));
+        authorization = "Bearer " + jwtUtil.generateToken(user, 0);
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/complaints");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Complaint;
+import com.example.demo.model.User;
+import com.example.demo.service.CategoryRoutingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory role scoping used by the per-complaint access checks. The legacy benchmarks are the old
+ * path: the warden's category names in a hard-coded List<String>, matched with List.contains against each
+ * complaint's category name (legacyResolvedFilter is the old getResolvedComplaints stream filter). The
+ * others go through CategoryRoutingService, as the controllers do now: a memoized scope per
+ * (role, department, staffId) and a bit test per category id.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RoleScopeBenchmark {
+
+    private static final List<String> WARDEN_CATEGORIES = List.of("Hostel", "Mess", "Maintenance", "Transport", "Security");
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private List<Complaint> complaints;
+    private CategoryRoutingService routing;
+    private User warden;
+
+    @Setup
+    public void setUp() {
+        complaints = BenchmarkData.complaints(rows);
+        routing = BenchmarkData.routing();
+        warden = BenchmarkData.user(1000, User.Role.WARDEN);
+    }
+
+    @Benchmark
+    public List<Complaint> legacyResolvedFilter() {
+        return complaints.stream()
+                .filter(c -> c.getStatus() == Complaint.Status.RESOLVED)
+                .filter(c -> WARDEN_CATEGORIES.contains(c.getCategory().getName()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Complaint> resolvedFilter() {
+        return complaints.stream()
+                .filter(c -> c.getStatus() == Complaint.Status.RESOLVED)
+                .filter(c -> routing.allows(warden, c.getCategory()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Complaint> legacyScopeFilter() {
+        List<Complaint> scoped = new ArrayList<>();
+        for (Complaint c : complaints) {
+            if (WARDEN_CATEGORIES.contains(c.getCategory().getName())) {
+                scoped.add(c);
+            }
+        }
+        return scoped;
+    }
+
+    @Benchmark
+    public List<Complaint> scopeFilter() {
+        List<Complaint> scoped = new ArrayList<>();
+        for (Complaint c : complaints) {
+            if (routing.allows(warden, c.getCategory())) {
+                scoped.add(c);
+            }
+        }
+        return scoped;
+    }
+
+    @Benchmark
+    public int legacyScopeCheck() {
+        int allowed = 0;
+        for (Complaint c : complaints) {
+            if (WARDEN_CATEGORIES.contains(c.getCategory().getName())) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    @Benchmark
+    public int categoryScopeCheck() {
+        int allowed = 0;
+        for (Complaint c : complaints) {
+            if (routing.allows(warden, c.getCategory())) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.service.ComplaintArchiver;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Archiving check on the seeded data: runs the application's ComplaintArchiver (archive-after-months) once
+ * and verifies that it moved complaints rather than losing or duplicating them:
+ *
+ *   - complaints shrank and complaints_archive grew by the number it reported
+ *   - complaints_all and the complaint_counters total did not change (counters keep counting moved rows)
+ *   - no archived complaint was updated after the cutoff (their status is enforced by a CHECK)
+ *   - no status history row sits in the default partition (the seeded months have partitions of their own)
+ *
+ * Both tables are ANALYZEd afterwards, so the plan check and the load run see planner statistics of the
+ * split data.
+ */
+final class ArchiveCheck {
+
+    private final LoadTestConfig config;
+    private final ConfigurableApplicationContext app;
+
+    ArchiveCheck(LoadTestConfig config, ConfigurableApplicationContext app) {
+        this.config = config;
+        this.app = app;
+    }
+
+    // Returns the report; throws IllegalStateException (with the report) when the move lost or duplicated rows
+    String run() throws Exception {
+        long[] before;
+        try (Connection c = DriverManager.getConnection(config.jdbcUrl, config.dbUser, config.dbPassword)) {
+            before = counts(c);
+        }
+
+        long started = System.nanoTime();
+        long moved = app.getBean(ComplaintArchiver.class).archive();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long[] after;
+        long tooRecent;
+        long historyInDefault;
+        long partitions;
+        try (Connection c = DriverManager.getConnection(config.jdbcUrl, config.dbUser, config.dbPassword)) {
+            after = counts(c);
+            tooRecent = queryLong(c, "SELECT COUNT(*) FROM complaints_archive "
+                    + "WHERE updated_at >= now() - make_interval(months => " + config.archiveAfterMonths + ")");
+            historyInDefault = queryLong(c, "SELECT COUNT(*) FROM complaint_status_updates_default");
+            partitions = queryLong(c, "SELECT COUNT(*) FROM pg_inherits "
+                    + "WHERE inhparent = 'complaint_status_updates'::regclass");
+            try (Statement st = c.createStatement()) {
+                st.execute("ANALYZE complaints");
+                st.execute("ANALYZE complaints_archive");
+            }
+        }
+
+        List<String> problems = new ArrayList<>();
+        if (before[0] - after[0] != moved) {
+            problems.add("complaints shrank by " + (before[0] - after[0]) + " for " + moved + " moved");
+        }
+        if (after[1] - before[1] != moved) {
+            problems.add("complaints_archive grew by " + (after[1] - before[1]) + " for " + moved + " moved");
+        }
+        if (after[2] != before[2]) {
+            problems.add("complaints_all went from " + before[2] + " to " + after[2]);
+        }
+        if (after[3] != before[3]) {
+            problems.add("complaint_counters total went from " + before[3] + " to " + after[3]);
+        }
+        if (tooRecent > 0) {
+            problems.add(tooRecent + " archived complaints were updated after the cutoff");
+        }
+        if (historyInDefault > 0) {
+            problems.add(historyInDefault + " status history rows in complaint_status_updates_default");
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Archiving of complaints closed more than %d months ago: %,d moved in %.1fs (%,.0f/s)%n",
+                config.archiveAfterMonths, moved, seconds, moved / Math.max(seconds, 1e-9)));
+        sb.append(String.format("  complaints %,d -> %,d, complaints_archive %,d -> %,d, complaints_all %,d, counters %,d%n",
+                before[0], after[0], before[1], after[1], after[2], after[3]));
+        sb.append(String.format("  status history: %d partitions, %,d rows in the default one%n",
+                partitions, historyInDefault));
+        sb.append(problems.isEmpty() ? "  every complaint accounted for\n" : "  ARCHIVING PROBLEMS:\n    "
+                + String.join("\n    ", problems) + "\n");
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException(sb.toString());
+        }
+        return sb.toString();
+    }
+
+    // complaints, complaints_archive, complaints_all, complaint_counters total
+    private static long[] counts(Connection c) throws SQLException {
+        return new long[]{
+                queryLong(c, "SELECT COUNT(*) FROM complaints"),
+                queryLong(c, "SELECT COUNT(*) FROM complaints_archive"),
+                queryLong(c, "SELECT COUNT(*) FROM complaints_all"),
+                queryLong(c, "SELECT COALESCE(SUM(complaint_count), 0) FROM complaint_counters")};
+    }
+
+    private static long queryLong(Connection c, String sql) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
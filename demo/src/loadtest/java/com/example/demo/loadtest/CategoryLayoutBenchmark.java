@@ -0,0 +1,241 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures what keying complaints by category_id / subcategory_id saves over the category /
+ * subcategory names they replaced. Builds two copies of complaints the same way (CREATE TABLE AS in id
+ * order, then the listing and scope indexes, then VACUUM ANALYZE), so that neither side is measured
+ * with indexes grown row by row during seeding: complaints_by_id as stored, and complaints_by_name
+ * with the two ids swapped for the names (same column order otherwise). Compares average row width,
+ * heap and index sizes, and the latency of role-scope queries run the way the application runs them
+ * on each layout (the id layout joins the names back for display). The copies are dropped afterwards.
+ */
+final class CategoryLayoutBenchmark {
+
+    private static final String IDS_TABLE = "complaints_by_id";
+    private static final String NAMES_TABLE = "complaints_by_name";
+    // Scopes of the seeded routing table (V10__category_routes.sql)
+    private static final List<String> WARDEN_SCOPE = List.of("Hostel", "Mess", "Maintenance", "Transport", "Security");
+    private static final List<String> FACULTY_SCOPE = List.of("Academic");
+
+    private static final long MAX_TRACKABLE_MICROS = 600_000_000L;
+
+    private final LoadTestConfig config;
+
+    CategoryLayoutBenchmark(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    String run() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(config.jdbcUrl, config.dbUser, config.dbPassword)) {
+            try {
+                createCopy(connection, IDS_TABLE, "c.category_id", "c.subcategory_id", "category_id");
+                createCopy(connection, NAMES_TABLE, "k.name AS category", "sc.name AS subcategory", "category");
+                return report(connection);
+            } finally {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("DROP TABLE IF EXISTS " + IDS_TABLE);
+                    st.execute("DROP TABLE IF EXISTS " + NAMES_TABLE);
+                }
+            }
+        }
+    }
+
+    // complaints with category_id / subcategory_id replaced in place by the given expressions, plus the
+    // counterparts of idx_complaints_created_at_id, idx_complaints_category_id_created_at_id and
+    // idx_complaints_status_category_id (the indexes the scope queries below can use)
+    private static void createCopy(Connection connection, String table, String category, String subcategory,
+                                   String key) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT column_name FROM information_schema.columns "
+                     + "WHERE table_schema = current_schema() AND table_name = 'complaints' ORDER BY ordinal_position")) {
+            while (rs.next()) {
+                String column = rs.getString(1);
+                columns.add(switch (column) {
+                    case "category_id" -> category;
+                    case "subcategory_id" -> subcategory;
+                    default -> "c." + column;
+                });
+            }
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS " + table);
+            st.execute("CREATE TABLE " + table + " AS SELECT " + String.join(", ", columns)
+                    + " FROM complaints c JOIN categories k ON k.id = c.category_id"
+                    + " LEFT JOIN subcategories sc ON sc.id = c.subcategory_id ORDER BY c.id");
+            st.execute("ALTER TABLE " + table + " ADD PRIMARY KEY (id)");
+            st.execute("CREATE INDEX " + table + "_created_at_id ON " + table + " (created_at, id)");
+            st.execute("CREATE INDEX " + table + "_category_created_at_id ON " + table + " (" + key + ", created_at, id)");
+            st.execute("CREATE INDEX " + table + "_status_category ON " + table + " (status, " + key + ")");
+            // Fresh statistics and visibility map (index-only scans)
+            st.execute("VACUUM ANALYZE " + table);
+        }
+    }
+
+    private String report(Connection connection) throws SQLException {
+        StringBuilder sb = new StringBuilder();
+        long rows = scalar(connection, "SELECT COUNT(*) FROM " + IDS_TABLE);
+        sb.append(String.format("Category layout benchmark: %,d complaints keyed by category_id / subcategory_id "
+                + "(ids) vs by category / subcategory names (names)%n", rows));
+
+        String sizeFormat = "%-36s %12s %12s %9s%n";
+        sb.append(String.format(sizeFormat, "", "ids", "names", "ids/names"));
+        size(sb, sizeFormat, "avg row bytes",
+                average(connection, "SELECT AVG(pg_column_size(t.*)) FROM " + IDS_TABLE + " t"),
+                average(connection, "SELECT AVG(pg_column_size(t.*)) FROM " + NAMES_TABLE + " t"), "%.1f");
+        size(sb, sizeFormat, "avg category+subcategory bytes",
+                average(connection, "SELECT AVG(pg_column_size(category_id) + COALESCE(pg_column_size(subcategory_id), 0)) "
+                        + "FROM " + IDS_TABLE),
+                average(connection, "SELECT AVG(pg_column_size(category) + COALESCE(pg_column_size(subcategory), 0)) "
+                        + "FROM " + NAMES_TABLE), "%.1f");
+        size(sb, sizeFormat, "heap MB",
+                megabytes(connection, IDS_TABLE), megabytes(connection, NAMES_TABLE), "%.1f");
+        size(sb, sizeFormat, "(category, created_at, id) index MB",
+                megabytes(connection, IDS_TABLE + "_category_created_at_id"),
+                megabytes(connection, NAMES_TABLE + "_category_created_at_id"), "%.1f");
+        size(sb, sizeFormat, "(status, category) index MB",
+                megabytes(connection, IDS_TABLE + "_status_category"),
+                megabytes(connection, NAMES_TABLE + "_status_category"), "%.1f");
+
+        List<Short> wardenIds = categoryIds(connection, WARDEN_SCOPE);
+        List<Short> facultyIds = categoryIds(connection, FACULTY_SCOPE);
+        sb.append(String.format("%nScope queries, %d runs each after %d warm-up runs%n",
+                config.layoutIterations, Math.min(3, config.layoutIterations)));
+        String rowFormat = "%-26s %9s %12s %12s %12s %12s%n";
+        sb.append(String.format(rowFormat, "query", "rows", "ids p50 ms", "ids p95 ms", "names p50 ms", "names p95 ms"));
+
+        // First page of the warden / faculty listing (ComplaintRepositoryCustomImpl.findPage)
+        String idsPage = "SELECT c.id, c.title, k.name, sc.name, c.status, c.created_at FROM " + IDS_TABLE + " c "
+                + "JOIN categories k ON k.id = c.category_id LEFT JOIN subcategories sc ON sc.id = c.subcategory_id "
+                + "WHERE c.category_id IN (%s) ORDER BY c.created_at DESC, c.id DESC LIMIT 21";
+        String namesPage = "SELECT c.id, c.title, c.category, c.subcategory, c.status, c.created_at FROM " + NAMES_TABLE
+                + " c WHERE c.category IN (%s) ORDER BY c.created_at DESC, c.id DESC LIMIT 21";
+        compare(connection, sb, rowFormat, "warden first page", idsPage, wardenIds, namesPage, WARDEN_SCOPE);
+        compare(connection, sb, rowFormat, "faculty first page", idsPage, facultyIds, namesPage, FACULTY_SCOPE);
+
+        // Resolved complaints in scope (/api/complaints/resolved), counted and listed
+        String idsResolvedCount = "SELECT COUNT(*) FROM " + IDS_TABLE + " WHERE status = 'RESOLVED' AND category_id IN (%s)";
+        String namesResolvedCount = "SELECT COUNT(*) FROM " + NAMES_TABLE + " WHERE status = 'RESOLVED' AND category IN (%s)";
+        compare(connection, sb, rowFormat, "warden resolved count", idsResolvedCount, wardenIds,
+                namesResolvedCount, WARDEN_SCOPE);
+        String idsResolvedList = "SELECT c.id, c.title, k.name, sc.name, c.created_at FROM " + IDS_TABLE + " c "
+                + "JOIN categories k ON k.id = c.category_id LEFT JOIN subcategories sc ON sc.id = c.subcategory_id "
+                + "WHERE c.status = 'RESOLVED' AND c.category_id IN (%s) ORDER BY c.created_at DESC, c.id DESC";
+        String namesResolvedList = "SELECT c.id, c.title, c.category, c.subcategory, c.created_at FROM " + NAMES_TABLE
+                + " c WHERE c.status = 'RESOLVED' AND c.category IN (%s) ORDER BY c.created_at DESC, c.id DESC";
+        compare(connection, sb, rowFormat, "faculty resolved list", idsResolvedList, facultyIds,
+                namesResolvedList, FACULTY_SCOPE);
+
+        // Status totals of a scope computed from the table (what complaint_counters saves the dashboard)
+        String idsByStatus = "SELECT status, COUNT(*) FROM " + IDS_TABLE + " WHERE category_id IN (%s) GROUP BY status";
+        String namesByStatus = "SELECT status, COUNT(*) FROM " + NAMES_TABLE + " WHERE category IN (%s) GROUP BY status";
+        compare(connection, sb, rowFormat, "warden totals by status", idsByStatus, wardenIds, namesByStatus, WARDEN_SCOPE);
+        return sb.toString();
+    }
+
+    private <I, N> void compare(Connection connection, StringBuilder sb, String rowFormat, String name,
+                                String idsSql, List<I> ids, String namesSql, List<N> names) throws SQLException {
+        try (PreparedStatement byIds = prepare(connection, idsSql, ids);
+             PreparedStatement byNames = prepare(connection, namesSql, names)) {
+            long rows = drain(byIds);
+            Histogram idsTimes = measure(() -> drain(byIds));
+            Histogram namesTimes = measure(() -> drain(byNames));
+            sb.append(String.format(rowFormat, name, rows,
+                    ms(idsTimes.getValueAtPercentile(50)), ms(idsTimes.getValueAtPercentile(95)),
+                    ms(namesTimes.getValueAtPercentile(50)), ms(namesTimes.getValueAtPercentile(95))));
+        }
+    }
+
+    // One placeholder per scope value, like the IN lists Hibernate renders
+    private static PreparedStatement prepare(Connection connection, String sql, List<?> values) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(
+                String.format(sql, String.join(", ", Collections.nCopies(values.size(), "?"))));
+        for (int i = 0; i < values.size(); i++) {
+            statement.setObject(i + 1, values.get(i));
+        }
+        return statement;
+    }
+
+    private Histogram measure(Run run) throws SQLException {
+        Histogram histogram = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        int warmup = Math.min(3, config.layoutIterations);
+        for (int i = 0; i < warmup + config.layoutIterations; i++) {
+            long start = System.nanoTime();
+            run.run();
+            if (i >= warmup) {
+                histogram.recordValue(Math.min((System.nanoTime() - start) / 1_000, MAX_TRACKABLE_MICROS));
+            }
+        }
+        return histogram;
+    }
+
+    private static List<Short> categoryIds(Connection connection, List<String> names) throws SQLException {
+        List<Short> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM categories WHERE name = ?")) {
+            for (String name : names) {
+                statement.setString(1, name);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        ids.add(rs.getShort(1));
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void size(StringBuilder sb, String format, String label, double ids, double names, String valueFormat) {
+        sb.append(String.format(format, label, String.format(valueFormat, ids), String.format(valueFormat, names),
+                String.format("%.2f", names == 0 ? 0 : ids / names)));
+    }
+
+    private static double megabytes(Connection connection, String relation) throws SQLException {
+        return scalar(connection, "SELECT pg_relation_size('" + relation + "')") / (1024.0 * 1024.0);
+    }
+
+    private static double average(Connection connection, String sql) throws SQLException {
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getDouble(1);
+        }
+    }
+
+    private static long scalar(Connection connection, String sql) throws SQLException {
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static long drain(PreparedStatement statement) throws SQLException {
+        long rows = 0;
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rs.getObject(1);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String ms(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    @FunctionalInterface
+    private interface Run {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lost-update check: `conflict-writers` threads (as an admin) change one complaint at the same time,
+ * half its status through update-status (status + history row), half its priority, conflict-updates
+ * times each. Every successful response carries the version its write committed, so afterwards:
+ *
+ *   - every successful write committed a version of its own, and the row's version grew by exactly
+ *     their number (no write was silently overwritten)
+ *   - the final status and priority are those of the status / priority write with the highest version
+ *     (a write based on an outdated read would have put back an old value of the other field)
+ *   - there is one new history row per successful status write
+ *
+ * Writes that ran out of retries get 409 and are reported, not counted as lost.
+ */
+final class ConcurrentUpdateCheck {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String[] STATUSES = {"NEW", "IN_PROGRESS", "RESOLVED", "REJECTED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    // meterRegistry of an in-process application (for the retry counts), or null
+    ConcurrentUpdateCheck(LoadTestConfig config, String baseUrl, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Returns the report; throws IllegalStateException (with the report) when an update was lost
+    String run() throws Exception {
+        String token = login();
+        long id;
+        long versionBefore;
+        long historyBefore;
+        try (Connection c = DriverManager.getConnection(config.jdbcUrl, config.dbUser, config.dbPassword)) {
+            id = queryLong(c, "SELECT MIN(id) FROM complaints");
+            versionBefore = queryLong(c, "SELECT version FROM complaints WHERE id = " + id);
+            historyBefore = queryLong(c, "SELECT COUNT(*) FROM complaint_status_updates WHERE complaint_id = " + id);
+        }
+        double retriedBefore = conflicts("retried");
+        double gaveUpBefore = conflicts("gave_up");
+
+        // version -> "status X" / "priority Y" of the write that committed it
+        Map<Long, String> writes = new TreeMap<>();
+        List<String> duplicates = new ArrayList<>();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(config.conflictWriters);
+        List<Future<?>> writers = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int w = 0; w < config.conflictWriters; w++) {
+            int writer = w;
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < config.conflictUpdates; i++) {
+                    boolean status = writer % 2 == 0;
+                    String value = status ? STATUSES[(writer + i) % STATUSES.length] : PRIORITIES[(writer + i) % PRIORITIES.length];
+                    HttpResponse<String> response = status
+                            ? put(token, "/api/complaints/" + id + "/update-status",
+                                    Map.of("status", value, "comments", "Concurrent update " + writer + "/" + i))
+                            : put(token, "/api/complaints/" + id + "/priority", Map.of("priority", value));
+                    if (response.statusCode() == 409) {
+                        rejected.incrementAndGet();
+                    } else if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    } else {
+                        long version = JSON.readTree(response.body()).path("version").asLong();
+                        String write = (status ? "status " : "priority ") + value;
+                        synchronized (writes) {
+                            if (writes.putIfAbsent(version, write) != null) {
+                                duplicates.add("version " + version + ": " + writes.get(version) + " and " + write);
+                            }
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        String finalStatus;
+        String finalPriority;
+        long versionAfter;
+        long historyAfter;
+        try (Connection c = DriverManager.getConnection(config.jdbcUrl, config.dbUser, config.dbPassword);
+             PreparedStatement ps = c.prepareStatement("SELECT status, priority, version FROM complaints WHERE id = ?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                finalStatus = rs.getString(1);
+                finalPriority = rs.getString(2);
+                versionAfter = rs.getLong(3);
+            }
+            historyAfter = queryLong(c, "SELECT COUNT(*) FROM complaint_status_updates WHERE complaint_id = " + id);
+        }
+
+        String lastStatus = null;
+        String lastPriority = null;
+        long statusWrites = 0;
+        for (String write : writes.values()) {
+            if (write.startsWith("status ")) {
+                lastStatus = write.substring(7);
+                statusWrites++;
+            } else {
+                lastPriority = write.substring(9);
+            }
+        }
+
+        List<String> problems = new ArrayList<>(duplicates);
+        if (versionAfter - versionBefore != writes.size()) {
+            problems.add("version grew by " + (versionAfter - versionBefore) + " for " + writes.size() + " successful writes");
+        }
+        if (lastStatus != null && !lastStatus.equals(finalStatus)) {
+            problems.add("final status " + finalStatus + ", last committed status write " + lastStatus);
+        }
+        if (lastPriority != null && !lastPriority.equals(finalPriority)) {
+            problems.add("final priority " + finalPriority + ", last committed priority write " + lastPriority);
+        }
+        if (historyAfter - historyBefore != statusWrites) {
+            problems.add((historyAfter - historyBefore) + " history rows for " + statusWrites + " successful status writes");
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Concurrent updates of complaint %d: %d writers x %d updates in %.1fs%n",
+                id, config.conflictWriters, config.conflictUpdates, seconds));
+        sb.append(String.format("  committed %d (%d status, %d priority), 409 after retries %d, other errors %d%n",
+                writes.size(), statusWrites, writes.size() - statusWrites, rejected.get(), errors.get()));
+        if (meterRegistry != null) {
+            sb.append(String.format("  conflicts retried %d, given up %d%n",
+                    (long) (conflicts("retried") - retriedBefore), (long) (conflicts("gave_up") - gaveUpBefore)));
+        }
+        sb.append(String.format("  final status %s, priority %s, version %d -> %d%n",
+                finalStatus, finalPriority, versionBefore, versionAfter));
+        sb.append(problems.isEmpty() ? "  no lost updates\n" : "  LOST UPDATES:\n    " + String.join("\n    ", problems) + "\n");
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException(sb.toString());
+        }
+        return sb.toString();
+    }
+
+    private double conflicts(String outcome) {
+        if (meterRegistry == null) {
+            return 0;
+        }
+        Counter counter = meterRegistry.find("complaints.update.conflicts").tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private HttpResponse<String> put(String token, String path, Map<String, String> body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .PUT(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String login() throws Exception {
+        String body = JSON.writeValueAsString(Map.of("email", DataSeeder.email("ADMIN", 1), "password", LoadTestConfig.PASSWORD));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Admin login failed: " + response.statusCode() + " " + response.body());
+        }
+        JsonNode json = JSON.readTree(response.body());
+        return json.path("token").asText();
+    }
+
+    private static long queryLong(Connection c, String sql) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.demo.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Reseeds users, complaints and complaint_status_updates with COPY (text format), streaming rows
+ * in ~1 MB chunks so millions of rows never sit in memory. The data is deterministic for a given
+ * random-seed. The tables must already exist (created by the application's migrations);
+ * complaints_archive is emptied, and the monthly history partitions for the seeded year are created
+ * before the copy so no row lands in the default partition.
+ * Categories are looked up by name in the categories reference table (each complaint gets the
+ * category's "General" subcategory, added if missing).
+ * complaint_counters triggers are disabled during the copy and the counters rebuilt afterwards (the
+ * full-text GIN index is likewise dropped and rebuilt; search_vector itself is still set per row by its
+ * trigger);
+ * feedback_rollups are rebuilt the same way (set-based, same keys as FeedbackAnalyticsService).
+ *
+ * Titles are a category-specific topic ("Water leak in bathroom"), repeated as the description's first
+ * sentence followed by generic filler, so search terms have realistic selectivity.
+ * Mix: category Hostel 30% / Mess 20% / Maintenance 20% / Academic 15% / Transport 8% / Security 7%,
+ * status NEW 25% / IN_PROGRESS 25% / RESOLVED 40% / REJECTED 10%; history rows follow the status
+ * (NEW none, IN_PROGRESS and REJECTED one, RESOLVED two) and half of the resolved ones carry feedback.
+ * Complaints are created evenly over the last year, each by a random student; history is written
+ * by a warden (or a faculty member for Academic complaints).
+ */
+final class DataSeeder {
+
+    private static final String[] CATEGORIES = {"Hostel", "Mess", "Maintenance", "Academic", "Transport", "Security"};
+    private static final int[] CATEGORY_WEIGHTS = {30, 20, 20, 15, 8, 7};
+    private static final String[] STATUSES = {"NEW", "IN_PROGRESS", "RESOLVED", "REJECTED"};
+    private static final int[] STATUS_WEIGHTS = {25, 25, 40, 10};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final int[] PRIORITY_WEIGHTS = {30, 50, 20};
+    // Filler for descriptions: generic words only, so topic words stay as selective as real complaint text
+    private static final String[] WORDS = ("please since again week reported still pending urgent response caretaker "
+            + "floor room issue problem fixed many times students facing daily kindly look into matter asap night "
+            + "morning evening everyone complained earlier nobody came yesterday today sir madam request help soon "
+            + "same situation worse every day").split(" ");
+    // Title / first sentence per category (same order as CATEGORIES)
+    private static final String[][] TOPICS = {
+            {"Water leak in bathroom", "Broken window in room", "Room fan not working", "Tube light flickering",
+                    "Door lock broken", "Bed bugs in mattress"},
+            {"Poor food quality", "Breakfast served late", "Unhygienic kitchen", "Water cooler not working",
+                    "Menu not followed"},
+            {"Leaking tap in washroom", "Power outage on floor", "Lift not working", "Wall seepage after rain",
+                    "Blocked drain"},
+            {"Projector not working", "Timetable clash", "Exam marks missing", "Library books unavailable",
+                    "Lab equipment broken"},
+            {"College bus late", "Bus overcrowded", "Bus route changed", "Driver rash driving"},
+            {"Gate unmanned at night", "Theft from room", "Guard absent", "CCTV camera not working"}};
+    // Search inputs used by LoadDriver and SearchBenchmark: selective topic terms first, broad ones last
+    static final String[] SEARCH_TERMS = {"projector", "lift", "cctv", "water leak", "bus late", "food quality",
+            "broken", "block c"};
+
+    // Weeks keyed by the ISO date of their Monday (date_trunc('week') starts on Monday)
+    private static final String FEEDBACK_ROLLUPS_INSERT = "INSERT INTO feedback_rollups (dimension, dimension_key, "
+            + "feedback_count, rating_count, rating_sum, fully_solved_answers, fully_solved_yes, recommend_answers, recommend_yes) "
+            + "SELECT dimension, dimension_key, COUNT(*), COUNT(satisfaction_rating), COALESCE(SUM(satisfaction_rating), 0), "
+            + "COUNT(is_fully_solved), COUNT(*) FILTER (WHERE is_fully_solved), "
+            + "COUNT(would_recommend), COUNT(*) FILTER (WHERE would_recommend) "
+            + "FROM (SELECT su.*, d.dimension, d.dimension_key "
+            + "      FROM complaint_status_updates su JOIN complaints_all c ON c.id = su.complaint_id "
+            + "      JOIN categories k ON k.id = c.category_id "
+            + "      CROSS JOIN LATERAL (VALUES ('CATEGORY', k.name), "
+            + "                                 ('RESOLVER', su.updated_by_user_id::text), "
+            + "                                 ('WEEK', to_char(date_trunc('week', su.feedback_submitted_at), 'YYYY-MM-DD'))) "
+            + "           AS d(dimension, dimension_key) "
+            + "      WHERE su.feedback_submitted_at IS NOT NULL) f "
+            + "GROUP BY dimension, dimension_key";
+
+    private static final String[] COUNTER_TRIGGERS = {
+            "complaints_counters_insert", "complaints_counters_update", "complaints_counters_delete"};
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int FLUSH_BYTES = 1 << 20;
+
+    private final LoadTestConfig config;
+
+    DataSeeder(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    void seed() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(config.jdbcUrl, config.dbUser, config.dbPassword)) {
+            try (Statement st = connection.createStatement()) {
+                st.execute("TRUNCATE complaint_status_updates, complaints, complaints_archive, users, complaint_counters, "
+                        + "feedback_rollups RESTART IDENTITY CASCADE");
+                st.execute("SELECT complaint_status_updates_add_partitions((current_date - 366)::date, "
+                        + "(current_date + interval '3 months')::date)");
+                // Counters are rebuilt in one statement below instead of one trigger call per copied row
+                for (String trigger : COUNTER_TRIGGERS) {
+                    st.execute("ALTER TABLE complaints DISABLE TRIGGER " + trigger);
+                }
+                // The GIN index is built once after the copy instead of being maintained per copied row
+                st.execute("DROP INDEX IF EXISTS idx_complaints_search_vector");
+            }
+            long start = System.nanoTime();
+            long users = seedUsers(connection);
+            long[] counts = seedComplaints(connection);
+            try (Statement st = connection.createStatement()) {
+                for (String trigger : COUNTER_TRIGGERS) {
+                    st.execute("ALTER TABLE complaints ENABLE TRIGGER " + trigger);
+                }
+                st.execute("CREATE INDEX idx_complaints_search_vector ON complaints USING GIN (search_vector)");
+                st.execute("INSERT INTO complaint_counters (category_id, status, priority, complaint_count) "
+                        + "SELECT category_id, status, priority, COUNT(*) FROM complaints "
+                        + "GROUP BY category_id, status, priority");
+                st.execute(FEEDBACK_ROLLUPS_INSERT);
+                st.execute("SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT MAX(id) FROM users))");
+                st.execute("SELECT setval(pg_get_serial_sequence('complaints', 'id'), (SELECT MAX(id) FROM complaints))");
+                st.execute("SELECT setval('complaint_status_updates_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM complaint_status_updates))");
+                st.execute("ANALYZE users");
+                st.execute("ANALYZE complaints");
+                st.execute("ANALYZE complaint_status_updates");
+            }
+            System.out.printf("Seeded %,d users, %,d complaints, %,d status updates in %.1fs%n",
+                    users, counts[0], counts[1], (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    // Ids: admins first, then wardens, faculty, students (LoadDriver relies on this layout)
+    private long seedUsers(Connection connection) throws SQLException {
+        String hash = new BCryptPasswordEncoder().encode(LoadTestConfig.PASSWORD);
+        CopyWriter out = new CopyWriter(connection,
+                "COPY users (id, name, email, password, role, staff_id, department) FROM STDIN");
+        long id = 0;
+        id = users(out, id, config.admins, "ADMIN", hash);
+        id = users(out, id, config.wardens, "WARDEN", hash);
+        id = users(out, id, config.faculty, "FACULTY", hash);
+        id = users(out, id, config.students, "STUDENT", hash);
+        out.finish();
+        return id;
+    }
+
+    private static long users(CopyWriter out, long id, int count, String role, String hash) throws SQLException {
+        String prefix = role.toLowerCase();
+        boolean staff = !"STUDENT".equals(role);
+        for (int i = 1; i <= count; i++) {
+            out.row(++id, prefix + " " + i, email(role, i), hash, role,
+                    staff ? "S" + id : null, "FACULTY".equals(role) ? "Computer Science" : null);
+        }
+        return id;
+    }
+
+    static String email(String role, int index) {
+        return role.toLowerCase() + index + "@loadtest.local";
+    }
+
+    // Ids of CATEGORIES (same order) and of their "General" subcategory, created if missing
+    private static short[] categoryIds(Connection connection, int[] subcategoryIds) throws SQLException {
+        short[] ids = new short[CATEGORIES.length];
+        try (PreparedStatement insertCategory = connection.prepareStatement(
+                     "INSERT INTO categories (name) VALUES (?) ON CONFLICT DO NOTHING");
+             PreparedStatement category = connection.prepareStatement(
+                     "SELECT id FROM categories WHERE lower(name) = lower(?)");
+             PreparedStatement insertSubcategory = connection.prepareStatement(
+                     "INSERT INTO subcategories (category_id, name) VALUES (?, 'General') ON CONFLICT DO NOTHING");
+             PreparedStatement subcategory = connection.prepareStatement(
+                     "SELECT id FROM subcategories WHERE category_id = ? AND lower(name) = 'general'")) {
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                insertCategory.setString(1, CATEGORIES[i]);
+                insertCategory.executeUpdate();
+                category.setString(1, CATEGORIES[i]);
+                ids[i] = (short) firstLong(category);
+                insertSubcategory.setShort(1, ids[i]);
+                insertSubcategory.executeUpdate();
+                subcategory.setShort(1, ids[i]);
+                subcategoryIds[i] = (int) firstLong(subcategory);
+            }
+        }
+        return ids;
+    }
+
+    private static long firstLong(PreparedStatement query) throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private long[] seedComplaints(Connection connection) throws SQLException {
+        int[] subcategoryIds = new int[CATEGORIES.length];
+        short[] categoryIds = categoryIds(connection, subcategoryIds);
+        SplittableRandom random = new SplittableRandom(config.randomSeed);
+        int n = config.complaints;
+        long firstWardenId = config.admins + 1L;
+        long firstFacultyId = (long) config.admins + config.wardens + 1;
+        long firstStudentId = firstFacultyId + config.faculty;
+        LocalDateTime begin = LocalDateTime.now().minusDays(365).withNano(0);
+        long secondsPerComplaint = Math.max(1, 365L * 24 * 3600 / Math.max(1, n));
+
+        // What the history pass needs per complaint, kept compact (about 20 bytes per complaint)
+        byte[] categories = new byte[n];
+        byte[] statuses = new byte[n];
+        int[] createdOffsets = new int[n];
+        short[] updatedHours = new short[n];
+
+        CopyWriter complaints = new CopyWriter(connection,
+                "COPY complaints (id, title, description, category_id, subcategory_id, location, contact_number, "
+                        + "status, priority, created_at, updated_at, user_id) FROM STDIN");
+        for (int i = 0; i < n; i++) {
+            long id = i + 1L;
+            categories[i] = (byte) pick(random, CATEGORY_WEIGHTS);
+            statuses[i] = (byte) pick(random, STATUS_WEIGHTS);
+            createdOffsets[i] = (int) (id * secondsPerComplaint + random.nextLong(secondsPerComplaint));
+            updatedHours[i] = (short) (statuses[i] == 0 ? 0 : 1 + random.nextInt(240));
+            LocalDateTime createdAt = begin.plusSeconds(createdOffsets[i]);
+            String topic = TOPICS[categories[i]][random.nextInt(TOPICS[categories[i]].length)];
+            complaints.row(id, topic, topic + ". " + words(random, 20 + random.nextInt(180)),
+                    categoryIds[categories[i]], subcategoryIds[categories[i]],
+                    "Block " + (char) ('A' + random.nextInt(8)) + "-" + (100 + random.nextInt(400)),
+                    "9" + (100_000_000L + random.nextInt(899_999_999)), STATUSES[statuses[i]],
+                    PRIORITIES[pick(random, PRIORITY_WEIGHTS)], TIMESTAMP.format(createdAt),
+                    TIMESTAMP.format(createdAt.plusHours(updatedHours[i])),
+                    firstStudentId + random.nextInt(config.students));
+        }
+        complaints.finish();
+
+        CopyWriter updates = new CopyWriter(connection,
+                "COPY complaint_status_updates (id, complaint_id, new_status, message, updated_by_user_id, updated_at, "
+                        + "work_progress, next_steps, expected_completion_date, student_feedback, satisfaction_rating, "
+                        + "is_fully_solved, would_recommend, feedback_submitted_at) FROM STDIN");
+        long historyId = 0;
+        for (int i = 0; i < n; i++) {
+            String status = STATUSES[statuses[i]];
+            if ("NEW".equals(status)) {
+                continue;
+            }
+            long id = i + 1L;
+            long authority = "Academic".equals(CATEGORIES[categories[i]])
+                    ? firstFacultyId + random.nextInt(config.faculty)
+                    : firstWardenId + random.nextInt(config.wardens);
+            LocalDateTime createdAt = begin.plusSeconds(createdOffsets[i]);
+            LocalDateTime updatedAt = createdAt.plusHours(updatedHours[i]);
+
+            if ("RESOLVED".equals(status)) {
+                updates.row(++historyId, id, "IN_PROGRESS", "Work started", authority,
+                        createdAt.toLocalDate().toString(), "Inspection done", "Repair scheduled",
+                        createdAt.toLocalDate().plusDays(7).toString(), null, null, null, null, null);
+                boolean feedback = random.nextBoolean();
+                updates.row(++historyId, id, "RESOLVED", "Issue resolved", authority,
+                        updatedAt.toLocalDate().toString(), "Repair completed", null, null,
+                        feedback ? "Resolved properly" : null, feedback ? 1 + random.nextInt(5) : null,
+                        feedback ? random.nextInt(10) < 8 : null, feedback ? random.nextBoolean() : null,
+                        feedback ? TIMESTAMP.format(updatedAt.plusDays(1)) : null);
+            } else {
+                updates.row(++historyId, id, status, "IN_PROGRESS".equals(status) ? "Work started" : "Not actionable",
+                        authority, updatedAt.toLocalDate().toString(), null, null, null, null, null, null, null, null);
+            }
+        }
+        updates.finish();
+        return new long[]{n, historyId};
+    }
+
+    // Index drawn according to the weights
+    private static int pick(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int w : weights) {
+            total += w;
+        }
+        int r = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder sb = new StringBuilder(count * 7);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Buffers COPY text-format rows and ships them to the server in ~1 MB chunks.
+     * Values never contain tabs, newlines or backslashes, so no escaping is needed; null is \N.
+     */
+    private static final class CopyWriter {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+
+        CopyWriter(Connection connection, String sql) throws SQLException {
+            this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                buffer.append(values[i] == null ? "\\N" : values[i].toString());
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        void finish() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.CategoryRoutingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Export check against the in-process application: downloads GET /api/complaints/export as an admin (CSV
+ * and NDJSON, each plain and gzip-compressed) and as a warden (CSV, the warden's routed categories),
+ * reading each response line by line as it arrives, checks the number of rows (every complaint in scope in
+ * complaints_all, plus the CSV header) and reports rows/s, MB on the wire and the old generation's peak during each download
+ * (sampled every 20 ms; this JVM runs both sides) next to its size before it. Short-lived garbage stays in
+ * the young generation, so the old generation only grows when rows are kept: for a streamed export it
+ * should stay flat whatever the number of rows.
+ */
+final class ExportCheck {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final ConfigurableApplicationContext app;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    ExportCheck(LoadTestConfig config, String baseUrl, ConfigurableApplicationContext app) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.app = app;
+    }
+
+    // Returns the report; throws IllegalStateException (with the report) when a row count is off
+    String run() throws Exception {
+        User wardenUser = app.getBean(UserRepository.class).findByEmail(DataSeeder.email("WARDEN", 1)).orElseThrow();
+        List<Short> categoryIds = app.getBean(CategoryRoutingService.class).categoryIdsFor(wardenUser);
+        long all;
+        long wardenScope;
+        try (Connection c = DriverManager.getConnection(config.jdbcUrl, config.dbUser, config.dbPassword)) {
+            all = queryLong(c, "SELECT COUNT(*) FROM complaints_all");
+            wardenScope = categoryIds.isEmpty() ? 0 : queryLong(c, "SELECT COUNT(*) FROM complaints_all WHERE category_id IN ("
+                    + categoryIds.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")");
+        }
+        String admin = login(DataSeeder.email("ADMIN", 1));
+        String warden = login(DataSeeder.email("WARDEN", 1));
+
+        List<String> problems = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Complaint export (%,d complaints in complaints_all)%n", all));
+        sb.append(String.format("  %-22s %12s %10s %10s %10s %12s %12s%n",
+                "download", "rows", "MB", "seconds", "rows/s", "old gen", "old gen peak"));
+        download(sb, problems, "admin csv", admin, "format=csv", false, all + 1);
+        download(sb, problems, "admin csv gzip", admin, "format=csv&gzip=true", true, all + 1);
+        download(sb, problems, "admin ndjson", admin, "format=ndjson", false, all);
+        download(sb, problems, "admin ndjson gzip", admin, "format=ndjson&gzip=true", true, all);
+        download(sb, problems, "warden csv", warden, "format=csv", false, wardenScope + 1);
+        sb.append(problems.isEmpty() ? "  every row exported\n" : "  EXPORT PROBLEMS:\n    "
+                + String.join("\n    ", problems) + "\n");
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException(sb.toString());
+        }
+        return sb.toString();
+    }
+
+    private void download(StringBuilder sb, List<String> problems, String name, String token, String query,
+                          boolean gzip, long expectedLines) throws Exception {
+        System.gc();
+        long heapBefore = oldGenUsed();
+        AtomicLong heapPeak = new AtomicLong(heapBefore);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                heapPeak.accumulateAndGet(oldGenUsed(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "export-heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long started = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/complaints/export?" + query))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofMinutes(30))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            sampler.interrupt();
+            problems.add(name + ": HTTP " + response.statusCode() + " " + new String(response.body().readAllBytes(), StandardCharsets.UTF_8));
+            return;
+        }
+        CountingInputStream wire = new CountingInputStream(response.body());
+        long lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                gzip ? new GZIPInputStream(wire) : wire, StandardCharsets.UTF_8))) {
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                if (first && query.contains("ndjson")) {
+                    // Every line is a complete JSON object
+                    JsonNode row = JSON.readTree(line);
+                    if (!row.has("id") || !row.has("archived")) {
+                        problems.add(name + ": unexpected first row " + line);
+                    }
+                }
+                first = false;
+                lines++;
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        sampler.interrupt();
+
+        if (lines != expectedLines) {
+            problems.add(name + ": " + lines + " lines, expected " + expectedLines);
+        }
+        sb.append(String.format("  %-22s %,12d %10.1f %10.1f %,10.0f %12s %12s%n",
+                name, lines, wire.count / 1e6, seconds, lines / Math.max(seconds, 1e-9),
+                megabytes(heapBefore), megabytes(heapPeak.get())));
+    }
+
+    // Used bytes of the old / tenured generation pools (G1, Parallel, Serial), or of the whole heap without them
+    private static long oldGenUsed() {
+        long used = 0;
+        boolean found = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().contains("Old Gen") || pool.getName().contains("Tenured")) {
+                used += pool.getUsage().getUsed();
+                found = true;
+            }
+        }
+        return found ? used : ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%,d MB", bytes >> 20);
+    }
+
+    private String login(String email) throws Exception {
+        String body = JSON.writeValueAsString(Map.of("email", email, "password", LoadTestConfig.PASSWORD));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + email + ": " + response.statusCode() + " " + response.body());
+        }
+        return JSON.readTree(response.body()).path("token").asText();
+    }
+
+    private static long queryLong(Connection c, String sql) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Bytes received, before decompression
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
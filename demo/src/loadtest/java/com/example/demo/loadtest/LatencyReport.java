@@ -0,0 +1,91 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microseconds, 3 significant digits) and error counts,
+ * rendered as a throughput / percentile table.
+ */
+final class LatencyReport {
+
+    private static final long MAX_TRACKABLE_MICROS = 120_000_000L;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, long micros, boolean error) {
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        e.histogram.recordValue(Math.min(micros, MAX_TRACKABLE_MICROS));
+        if (error) {
+            e.errors.increment();
+        }
+    }
+
+    String render(String header, double seconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(header).append('\n');
+        String rowFormat = "%-44s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n";
+        sb.append(String.format(rowFormat, "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        Histogram total = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram h = entry.getValue().histogram;
+            long errors = entry.getValue().errors.sum();
+            total.add(h);
+            totalErrors += errors;
+            sb.append(row(rowFormat, entry.getKey(), h, errors, seconds));
+        }
+        sb.append(row(rowFormat, "TOTAL", total, totalErrors, seconds));
+        return sb.toString();
+    }
+
+    // TOTAL rows of several runs (e.g. one per thread model) under each other, for comparison
+    static String compare(Map<String, LatencyReport> runs, double seconds) {
+        StringBuilder sb = new StringBuilder();
+        String rowFormat = "%-44s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n";
+        sb.append(String.format(rowFormat, "run (all endpoints)", "requests", "errors", "req/s",
+                "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Map.Entry<String, LatencyReport> run : runs.entrySet()) {
+            Histogram total = new Histogram(MAX_TRACKABLE_MICROS, 3);
+            long errors = 0;
+            for (Endpoint e : run.getValue().endpoints.values()) {
+                total.add(e.histogram);
+                errors += e.errors.sum();
+            }
+            sb.append(row(rowFormat, run.getKey(), total, errors, seconds));
+        }
+        return sb.toString();
+    }
+
+    static void write(Path file, String text) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, text);
+    }
+
+    private static String row(String format, String name, Histogram h, long errors, double seconds) {
+        return String.format(format, name, h.getTotalCount(), errors,
+                String.format("%.1f", h.getTotalCount() / seconds),
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(95)),
+                ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+    }
+
+    private static String ms(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    private static final class Endpoint {
+        final Histogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+}
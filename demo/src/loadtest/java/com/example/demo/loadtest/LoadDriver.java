@@ -0,0 +1,302 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load generator: `concurrency` workers, each logged in as a seeded user of a role
+ * drawn from the configured mix, issue requests back to back following that role's action weights.
+ * Latencies are only recorded after the warm-up period.
+ *
+ * Authority list endpoints without pagination (/api/complaints, /api/complaints/resolved) return the
+ * role's whole scope, so they are only included with unbounded-lists=true.
+ */
+final class LoadDriver {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final LatencyReport report = new LatencyReport();
+
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    LoadDriver(LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    // onMeasureStart runs when warm-up ends and latencies start being recorded
+    LatencyReport run(Runnable onMeasureStart) throws Exception {
+        SplittableRandom random = new SplittableRandom(config.randomSeed);
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < config.concurrency; i++) {
+            LoadTestConfig.Role role = pickRole(random);
+            sessions.add(new Session(role, login(role, random), random.split()));
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency);
+        for (Session session : sessions) {
+            workers.submit(() -> loop(session));
+        }
+        System.out.printf("Warming up for %ds with %d workers...%n", config.warmupSeconds, config.concurrency);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.warmupSeconds));
+        onMeasureStart.run();
+        recording = true;
+        System.out.printf("Measuring for %ds...%n", config.durationSeconds);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.durationSeconds));
+        recording = false;
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(2, TimeUnit.MINUTES);
+        return report;
+    }
+
+    private void loop(Session s) {
+        while (running) {
+            try {
+                step(s);
+            } catch (Exception e) {
+                if (recording) {
+                    report.record("client error: " + e.getClass().getSimpleName(), 0, true);
+                }
+            }
+        }
+    }
+
+    private void step(Session s) throws IOException, InterruptedException {
+        int r = s.random.nextInt(100);
+        switch (s.role) {
+            case STUDENT:
+                if (r < 30) {
+                    get(s, "GET /api/complaints", "/api/complaints");
+                } else if (r < 55) {
+                    page(s, "");
+                } else if (r < 70) {
+                    get(s, "GET /api/complaints/resolved", "/api/complaints/resolved");
+                } else if (r < 85) {
+                    detail(s);
+                } else if (r < 90) {
+                    get(s, "GET /api/auth/me", "/api/auth/me");
+                } else if (r < 95) {
+                    get(s, "GET /api/complaints/stats", "/api/complaints/stats");
+                } else {
+                    create(s);
+                }
+                break;
+            case WARDEN:
+            case FACULTY:
+                if (config.unboundedLists && r < 5) {
+                    get(s, "GET /api/complaints", "/api/complaints");
+                } else if (config.unboundedLists && r < 10) {
+                    get(s, "GET /api/complaints/resolved", "/api/complaints/resolved");
+                } else if (r < 25) {
+                    page(s, "");
+                } else if (r < 30) {
+                    search(s);
+                } else if (r < 40) {
+                    get(s, "GET /api/complaints/stats", "/api/complaints/stats");
+                } else if (r < 60) {
+                    page(s, s.random.nextBoolean() ? "status=NEW" : "status=IN_PROGRESS");
+                } else if (r < 70) {
+                    nextPage(s);
+                } else if (r < 80) {
+                    detail(s);
+                } else if (r < 90) {
+                    history(s);
+                } else {
+                    updateStatus(s);
+                }
+                break;
+            case ADMIN:
+                if (config.unboundedLists && r < 5) {
+                    get(s, "GET /api/complaints", "/api/complaints");
+                } else if (r < 25) {
+                    page(s, "");
+                } else if (r < 30) {
+                    search(s);
+                } else if (r < 40) {
+                    get(s, "GET /api/complaints/stats", "/api/complaints/stats");
+                } else if (r < 60) {
+                    nextPage(s);
+                } else if (r < 80) {
+                    detail(s);
+                } else if (r < 90) {
+                    history(s);
+                } else {
+                    updateStatus(s);
+                }
+                break;
+        }
+    }
+
+    private void page(Session s, String filter) throws IOException, InterruptedException {
+        String query = "/api/complaints/page?size=20" + (filter.isEmpty() ? "" : "&" + filter);
+        JsonNode body = get(s, filter.isEmpty() ? "GET /api/complaints/page" : "GET /api/complaints/page (status filter)", query);
+        remember(s, body);
+    }
+
+    private void nextPage(Session s) throws IOException, InterruptedException {
+        if (s.nextCursor == null) {
+            page(s, "");
+            return;
+        }
+        JsonNode body = get(s, "GET /api/complaints/page (next cursor)", "/api/complaints/page?size=20&cursor=" + s.nextCursor);
+        remember(s, body);
+    }
+
+    private void search(Session s) throws IOException, InterruptedException {
+        String term = DataSeeder.SEARCH_TERMS[s.random.nextInt(DataSeeder.SEARCH_TERMS.length)];
+        // Not remembered: its cursor belongs to the search ordering, not to /page
+        get(s, "GET /api/complaints/search",
+                "/api/complaints/search?size=20&q=" + URLEncoder.encode(term, StandardCharsets.UTF_8));
+    }
+
+    private void detail(Session s) throws IOException, InterruptedException {
+        Long id = knownId(s);
+        if (id != null) {
+            get(s, "GET /api/complaints/{id}", "/api/complaints/" + id);
+        }
+    }
+
+    private void history(Session s) throws IOException, InterruptedException {
+        Long id = knownId(s);
+        if (id != null) {
+            get(s, "GET /api/complaints/{id}/status-history", "/api/complaints/" + id + "/status-history");
+        }
+    }
+
+    private void updateStatus(Session s) throws IOException, InterruptedException {
+        Long id = knownId(s);
+        if (id == null) {
+            return;
+        }
+        String body = JSON.writeValueAsString(Map.of(
+                "status", "IN_PROGRESS",
+                "comments", "Load test update",
+                "nextSteps", "Follow up",
+                "expectedCompletionDate", LocalDate.now().plusDays(3).toString()));
+        send(s, "PUT /api/complaints/{id}/update-status", HttpRequest.newBuilder(uri("/api/complaints/" + id + "/update-status"))
+                .PUT(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private void create(Session s) throws IOException, InterruptedException {
+        String body = JSON.writeValueAsString(Map.of(
+                "title", "Load test complaint",
+                "description", "Fan in the room is not working since two days",
+                "category", "Hostel",
+                "subcategory", "Electrical",
+                "location", "Block A-101",
+                "contactNumber", "9876543210"));
+        send(s, "POST /api/complaints", HttpRequest.newBuilder(uri("/api/complaints"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private JsonNode get(Session s, String endpoint, String path) throws IOException, InterruptedException {
+        return send(s, endpoint, HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private JsonNode send(Session s, String endpoint, HttpRequest.Builder builder) throws IOException, InterruptedException {
+        HttpRequest request = builder
+                .header("Authorization", "Bearer " + s.token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        long micros = (System.nanoTime() - start) / 1_000;
+        boolean error = response.statusCode() >= 400;
+        if (recording) {
+            report.record(endpoint, micros, error);
+        }
+        return !error && response.body().length > 0 && response.body()[0] == '{' ? JSON.readTree(response.body()) : null;
+    }
+
+    private static void remember(Session s, JsonNode page) {
+        if (page == null) {
+            return;
+        }
+        s.knownIds.clear();
+        for (JsonNode item : page.path("items")) {
+            s.knownIds.add(item.path("id").asLong());
+        }
+        JsonNode cursor = page.get("nextCursor");
+        s.nextCursor = cursor != null && !cursor.isNull() ? cursor.asText() : null;
+    }
+
+    private static Long knownId(Session s) {
+        return s.knownIds.isEmpty() ? null : s.knownIds.get(s.random.nextInt(s.knownIds.size()));
+    }
+
+    private String login(LoadTestConfig.Role role, SplittableRandom random) throws IOException, InterruptedException {
+        int users = switch (role) {
+            case STUDENT -> config.students;
+            case WARDEN -> config.wardens;
+            case FACULTY -> config.faculty;
+            case ADMIN -> config.admins;
+        };
+        String email = DataSeeder.email(role.name(), 1 + random.nextInt(users));
+        String body = JSON.writeValueAsString(Map.of("email", email, "password", LoadTestConfig.PASSWORD));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + email + ": " + response.statusCode() + " " + response.body());
+        }
+        return JSON.readTree(response.body()).path("token").asText();
+    }
+
+    private LoadTestConfig.Role pickRole(SplittableRandom random) {
+        int total = config.mix.values().stream().mapToInt(Integer::intValue).sum();
+        int r = random.nextInt(total);
+        for (Map.Entry<LoadTestConfig.Role, Integer> e : config.mix.entrySet()) {
+            r -= e.getValue();
+            if (r < 0) {
+                return e.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty role mix");
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static final class Session {
+        final LoadTestConfig.Role role;
+        final String token;
+        final SplittableRandom random;
+        final List<Long> knownIds = new ArrayList<>();
+        String nextCursor;
+
+        Session(LoadTestConfig.Role role, String token, SplittableRandom random) {
+            this.role = role;
+            this.token = token;
+            this.random = random;
+        }
+    }
+}
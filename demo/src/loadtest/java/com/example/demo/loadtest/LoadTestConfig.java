@@ -0,0 +1,187 @@
+package com.example.demo.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load-test settings, given as key=value arguments (a leading "--" is accepted):
+ *
+ *   embedded-db=true            start an embedded Postgres instead of using jdbc-url
+ *   jdbc-url=..., db-user=..., db-password=...
+ *   start-app=true              run the application in-process on a random port (else use base-url)
+ *   threading=platform          in-process app on platform threads, virtual threads (Java 21+, the
+ *                               virtual-threads profile) or both: one run per mode, each on freshly
+ *                               seeded data, followed by a side-by-side summary
+ *   second-level-cache=true     in-process app with the Hibernate second-level cache on, off, or both
+ *                               (one run each, compared by statements per request)
+ *   base-url=http://localhost:8080
+ *   seed=true                   truncate and reseed users / complaints / status history
+ *   students=20000 wardens=40 faculty=120 admins=5
+ *   complaints=2000000          status history rows are derived from each complaint's status
+ *   random-seed=42
+ *   concurrency=32 warmup-seconds=10 duration-seconds=60
+ *   mix=student:70,warden:15,faculty:10,admin:5
+ *   unbounded-lists=false       also hit the unpaginated authority lists (/api/complaints, /resolved)
+ *   search-iterations=20        runs per query of the full-text vs LIKE comparison (0 skips it)
+ *   layout-iterations=20        runs per query of the category id vs name layout comparison (0 skips it)
+ *   archive-after-months=6      in-process app: after seeding, archive complaints closed that long ago (about a
+ *                               quarter of the seeded ones at 6) and check the move (0 skips it)
+ *   plan-check=true             EXPLAIN every repository query on the seeded data (in-process app only) and
+ *   plan-check-min-rows=10000   fail on a sequential scan of a table with at least this many rows
+ *   export-check=true           download the CSV / NDJSON exports (in-process app only), checking row counts and
+ *                               old-generation heap use
+ *   conflict-writers=64         parallel writers of the lost-update check on one complaint (0 skips it;
+ *   conflict-updates=20         needs status history write-behind off), updates per writer
+ *   report=target/loadtest-report.txt
+ */
+final class LoadTestConfig {
+
+    static final String PASSWORD = "loadtest123";
+
+    boolean embeddedDb = true;
+    String jdbcUrl = "jdbc:postgresql://localhost:5432/postgres?currentSchema=ucomplaint";
+    String dbUser = "postgres";
+    String dbPassword = "";
+    boolean startApp = true;
+    List<String> threading = List.of("platform");
+    List<Boolean> secondLevelCache = List.of(true);
+    String baseUrl = "http://localhost:8080";
+    boolean seed = true;
+
+    int students = 20_000;
+    int wardens = 40;
+    int faculty = 120;
+    int admins = 5;
+    int complaints = 2_000_000;
+    long randomSeed = 42;
+
+    int concurrency = 32;
+    int warmupSeconds = 10;
+    int durationSeconds = 60;
+    Map<Role, Integer> mix = parseMix("student:70,warden:15,faculty:10,admin:5");
+    boolean unboundedLists = false;
+    int searchIterations = 20;
+    int layoutIterations = 20;
+    int archiveAfterMonths = 6;
+    boolean planCheck = true;
+    int planCheckMinRows = 10_000;
+    boolean exportCheck = true;
+    int conflictWriters = 64;
+    int conflictUpdates = 20;
+    Path report = Path.of("target/loadtest-report.txt");
+
+    enum Role {
+        STUDENT, WARDEN, FACULTY, ADMIN
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String kv = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = kv.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(kv.substring(0, eq), kv.substring(eq + 1));
+        }
+
+        LoadTestConfig c = new LoadTestConfig();
+        c.embeddedDb = bool(values.remove("embedded-db"), c.embeddedDb);
+        c.jdbcUrl = text(values.remove("jdbc-url"), c.jdbcUrl);
+        c.dbUser = text(values.remove("db-user"), c.dbUser);
+        c.dbPassword = text(values.remove("db-password"), c.dbPassword);
+        c.startApp = bool(values.remove("start-app"), c.startApp);
+        c.baseUrl = text(values.remove("base-url"), c.baseUrl);
+        String threading = text(values.remove("threading"), "platform");
+        c.threading = "both".equals(threading) ? List.of("platform", "virtual") : List.of(threading);
+        String secondLevelCache = text(values.remove("second-level-cache"), "true");
+        c.secondLevelCache = "both".equals(secondLevelCache)
+                ? List.of(false, true)
+                : List.of(Boolean.parseBoolean(secondLevelCache));
+        c.seed = bool(values.remove("seed"), c.seed);
+        c.students = integer(values.remove("students"), c.students);
+        c.wardens = integer(values.remove("wardens"), c.wardens);
+        c.faculty = integer(values.remove("faculty"), c.faculty);
+        c.admins = integer(values.remove("admins"), c.admins);
+        c.complaints = integer(values.remove("complaints"), c.complaints);
+        c.randomSeed = Long.parseLong(text(values.remove("random-seed"), String.valueOf(c.randomSeed)));
+        c.concurrency = integer(values.remove("concurrency"), c.concurrency);
+        c.warmupSeconds = integer(values.remove("warmup-seconds"), c.warmupSeconds);
+        c.durationSeconds = integer(values.remove("duration-seconds"), c.durationSeconds);
+        String mix = values.remove("mix");
+        c.mix = mix != null ? parseMix(mix) : c.mix;
+        c.unboundedLists = bool(values.remove("unbounded-lists"), c.unboundedLists);
+        c.searchIterations = integer(values.remove("search-iterations"), c.searchIterations);
+        c.layoutIterations = integer(values.remove("layout-iterations"), c.layoutIterations);
+        c.archiveAfterMonths = integer(values.remove("archive-after-months"), c.archiveAfterMonths);
+        c.planCheck = bool(values.remove("plan-check"), c.planCheck);
+        c.planCheckMinRows = integer(values.remove("plan-check-min-rows"), c.planCheckMinRows);
+        c.exportCheck = bool(values.remove("export-check"), c.exportCheck);
+        c.conflictWriters = integer(values.remove("conflict-writers"), c.conflictWriters);
+        c.conflictUpdates = integer(values.remove("conflict-updates"), c.conflictUpdates);
+        c.report = Path.of(text(values.remove("report"), c.report.toString()));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown load-test option(s): " + values.keySet());
+        }
+        for (String mode : c.threading) {
+            if (!"platform".equals(mode) && !"virtual".equals(mode)) {
+                throw new IllegalArgumentException("threading must be platform, virtual or both, got: " + threading);
+            }
+        }
+        if (c.threading.contains("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalArgumentException("threading=" + threading + " needs Java 21+, running on Java "
+                    + Runtime.version().feature());
+        }
+        if (!c.startApp && c.threading.size() > 1) {
+            throw new IllegalArgumentException("threading=both needs start-app=true");
+        }
+        if (!"true".equals(secondLevelCache) && !"false".equals(secondLevelCache) && !"both".equals(secondLevelCache)) {
+            throw new IllegalArgumentException("second-level-cache must be true, false or both, got: " + secondLevelCache);
+        }
+        if (!c.startApp && (c.secondLevelCache.size() > 1 || !c.secondLevelCache.get(0))) {
+            throw new IllegalArgumentException("second-level-cache=" + secondLevelCache + " needs start-app=true");
+        }
+        if (c.students <= 0 || c.wardens <= 0 || c.faculty <= 0 || c.admins <= 0) {
+            throw new IllegalArgumentException("Every role needs at least one seeded user");
+        }
+        return c;
+    }
+
+    private static Map<Role, Integer> parseMix(String mix) {
+        Map<Role, Integer> weights = new EnumMap<>(Role.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            weights.put(Role.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    private static String text(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private static boolean bool(String value, boolean fallback) {
+        return value != null ? Boolean.parseBoolean(value) : fallback;
+    }
+
+    private static int integer(String value, int fallback) {
+        return value != null ? Integer.parseInt(value.replace("_", "")) : fallback;
+    }
+
+    @Override
+    public String toString() {
+        return "threading=" + String.join("+", threading) + ", secondLevelCache=" + secondLevelCache
+                + ", complaints=" + complaints + ", students=" + students + ", wardens=" + wardens
+                + ", faculty=" + faculty + ", admins=" + admins + ", concurrency=" + concurrency
+                + ", warmup=" + warmupSeconds + "s, duration=" + durationSeconds + "s, mix=" + mix
+                + ", unboundedLists=" + unboundedLists + ", searchIterations=" + searchIterations
+                + ", layoutIterations=" + layoutIterations + ", archiveAfterMonths=" + archiveAfterMonths
+                + ", planCheck=" + planCheck
+                + ", exportCheck=" + exportCheck + ", conflictWriters=" + conflictWriters + "x" + conflictUpdates
+                + ", randomSeed=" + randomSeed;
+    }
+}
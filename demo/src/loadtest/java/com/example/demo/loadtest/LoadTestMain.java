@@ -0,0 +1,218 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.UComplaintApplication;
+import com.example.demo.repository.QueryPlanCheck;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.DuplicateComplaintIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reproducible load test: optional embedded Postgres, optional in-process application,
+ * COPY-seeded data, archiving of the long-closed complaints (checked),
+ * an EXPLAIN check of every repository query, a full-text vs LIKE search comparison,
+ * a category id vs name layout comparison, a CSV / NDJSON export check,
+ * a lost-update check with many writers on
+ * one complaint, then a timed role-mixed run reported
+ * per endpoint, with statements per request and second-level cache hits for an in-process app.
+ * With threading=both the run is repeated on platform and on virtual threads, with
+ * second-level-cache=both without and with the cache.
+ *
+ *   mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="complaints=200000 duration-seconds=30"
+ *   mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="threading=both concurrency=400"   (Java 21+)
+ *   mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="second-level-cache=both"
+ *
+ * See LoadTestConfig for every option.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        EmbeddedPostgres postgres = null;
+        ConfigurableApplicationContext app = null;
+        try {
+            if (config.embeddedDb) {
+                postgres = EmbeddedPostgres.builder().setPort(0).start();
+                try (Connection c = postgres.getPostgresDatabase().getConnection(); Statement st = c.createStatement()) {
+                    st.execute("CREATE SCHEMA IF NOT EXISTS ucomplaint");
+                }
+                config.jdbcUrl = "jdbc:postgresql://localhost:" + postgres.getPort() + "/postgres?currentSchema=ucomplaint";
+                config.dbUser = "postgres";
+                config.dbPassword = "";
+            }
+
+            String archive = "";
+            String plans = "";
+            String search = "";
+            String layout = "";
+            String export = "";
+            String conflicts = "";
+            Map<String, LatencyReport> runs = new LinkedHashMap<>();
+            Map<String, RoundTripReport> roundTrips = new LinkedHashMap<>();
+            List<String> sections = new ArrayList<>();
+            for (String threading : config.threading) {
+                for (boolean secondLevelCache : config.secondLevelCache) {
+                    String run = threading + " threads"
+                            + (config.secondLevelCache.size() > 1 ? (secondLevelCache ? ", L2 cache" : ", no L2 cache") : "");
+                    String baseUrl = config.baseUrl;
+                    if (config.startApp) {
+                        app = startApp(config, threading, secondLevelCache);
+                        baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+                    }
+
+                    // Reseeded per run so every run starts from the same data
+                    if (config.seed) {
+                        new DataSeeder(config).seed();
+                        if (app != null) {
+                            // Built on startup, before the seeded complaints existed
+                            app.getBean(DuplicateComplaintIndex.class).rebuild();
+                            // Rows were replaced behind Hibernate's back
+                            app.getBean(EntityManagerFactory.class).getCache().evictAll();
+                        } else {
+                            System.out.println("Reseeded behind a running application: restart it, its caches still hold the old rows");
+                        }
+                    }
+
+                    // Every run archives the same complaints, so reads see both tables; reported once
+                    if (config.archiveAfterMonths > 0 && app != null) {
+                        String report = new ArchiveCheck(config, app).run();
+                        if (archive.isEmpty()) {
+                            archive = report;
+                            System.out.println(archive);
+                        }
+                    }
+
+                    // Plans depend on the data only, so checked once (needs the in-process app's repositories)
+                    if (config.planCheck && app != null && plans.isEmpty()) {
+                        UserRepository users = app.getBean(UserRepository.class);
+                        plans = new QueryPlanCheck(app,
+                                users.findByEmail(DataSeeder.email("STUDENT", 1)).orElseThrow(),
+                                users.findByEmail(DataSeeder.email("WARDEN", 1)).orElseThrow(),
+                                users.findByEmail(DataSeeder.email("FACULTY", 1)).orElseThrow(),
+                                config.planCheckMinRows).run();
+                        System.out.println(plans);
+                    }
+
+                    // Database-side comparison: independent of the thread model and cache, so run once
+                    if (config.searchIterations > 0 && search.isEmpty()) {
+                        search = new SearchBenchmark(config).run();
+                        System.out.println(search);
+                    }
+                    if (config.layoutIterations > 0 && layout.isEmpty()) {
+                        layout = new CategoryLayoutBenchmark(config).run();
+                        System.out.println(layout);
+                    }
+
+                    // Data-bound like the plan check, so run once (needs the in-process app's heap and routing)
+                    if (config.exportCheck && app != null && export.isEmpty()) {
+                        export = new ExportCheck(config, baseUrl, app).run();
+                        System.out.println(export);
+                    }
+
+                    MeterRegistry meterRegistry = app != null ? app.getBean(MeterRegistry.class) : null;
+
+                    // Correctness under contention rather than speed, so run once
+                    if (config.conflictWriters > 0 && conflicts.isEmpty()) {
+                        conflicts = new ConcurrentUpdateCheck(config, baseUrl, meterRegistry).run();
+                        System.out.println(conflicts);
+                    }
+
+                    // Statements per request can only be read from an in-process application
+                    RoundTripReport roundTrip = meterRegistry != null ? new RoundTripReport(meterRegistry) : null;
+                    LatencyReport report = new LoadDriver(config, baseUrl).run(() -> {
+                        if (roundTrip != null) {
+                            roundTrip.start();
+                        }
+                    });
+                    String text = report.render("Load test " + LocalDateTime.now().withNano(0) + " against " + baseUrl
+                            + " on " + run + " (" + config + ")", config.durationSeconds);
+                    if (roundTrip != null) {
+                        roundTrip.stop();
+                        roundTrips.put(run, roundTrip);
+                        text += "\n" + roundTrip.render("Database round trips on " + run);
+                    }
+                    System.out.println(text);
+                    runs.put(run, report);
+                    sections.add(text);
+
+                    if (app != null) {
+                        app.close();
+                        app = null;
+                    }
+                }
+            }
+
+            if (runs.size() > 1) {
+                String comparison = "Run comparison (" + config + ")\n"
+                        + LatencyReport.compare(runs, config.durationSeconds);
+                if (roundTrips.size() > 1) {
+                    comparison += "\n" + RoundTripReport.compare(roundTrips);
+                }
+                System.out.println(comparison);
+                sections.add(comparison);
+            }
+            if (!archive.isEmpty()) {
+                sections.add(archive);
+            }
+            if (!plans.isEmpty()) {
+                sections.add(plans);
+            }
+            if (!search.isEmpty()) {
+                sections.add(search);
+            }
+            if (!layout.isEmpty()) {
+                sections.add(layout);
+            }
+            if (!export.isEmpty()) {
+                sections.add(export);
+            }
+            if (!conflicts.isEmpty()) {
+                sections.add(conflicts);
+            }
+            LatencyReport.write(config.report, String.join("\n", sections));
+            System.out.println("Report written to " + config.report.toAbsolutePath());
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    // Same configuration as production except the datasource, a random port and quieter logging
+    private static ConfigurableApplicationContext startApp(LoadTestConfig config, String threading,
+                                                           boolean secondLevelCache) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + config.jdbcUrl,
+                "--spring.datasource.username=" + config.dbUser,
+                "--spring.datasource.password=" + config.dbPassword,
+                "--server.port=0",
+                "--logging.level.org.springframework.security=INFO",
+                // Archived by ArchiveCheck once the data is seeded, not by the scheduled job
+                "--complaints.archive.enabled=false",
+                "--complaints.archive.after-months=" + config.archiveAfterMonths));
+        if (!secondLevelCache) {
+            args.add("--spring.jpa.properties.hibernate.cache.use_second_level_cache=false");
+        }
+        if ("virtual".equals(threading)) {
+            args.add("--spring.profiles.active=virtual-threads");
+        }
+        return new SpringApplication(UComplaintApplication.class).run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.loadtest;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Database round trips of an in-process run: JDBC statements per request by handler
+ * (db.queries.per.request) and second-level cache hits / misses by region
+ * (hibernate.second.level.cache.requests). Only the measured period counts: the counters are read
+ * when measuring starts and again when it ends, so warm-up (and the cache filling up) is left out.
+ */
+final class RoundTripReport {
+
+    private final MeterRegistry registry;
+
+    private Map<String, double[]> statementsAtStart = Map.of();
+    private Map<String, Double> cacheAtStart = Map.of();
+    // handler -> {requests, statements} and "region result" -> requests, over the measured period
+    private final Map<String, double[]> statements = new TreeMap<>();
+    private final Map<String, Double> cache = new TreeMap<>();
+
+    RoundTripReport(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void start() {
+        statementsAtStart = readStatements();
+        cacheAtStart = readCache();
+    }
+
+    void stop() {
+        readStatements().forEach((handler, now) -> {
+            double[] start = statementsAtStart.getOrDefault(handler, new double[2]);
+            if (now[0] > start[0]) {
+                statements.put(handler, new double[]{now[0] - start[0], now[1] - start[1]});
+            }
+        });
+        readCache().forEach((key, now) -> cache.put(key, now - cacheAtStart.getOrDefault(key, 0.0)));
+    }
+
+    String render(String header) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(header).append('\n');
+        String rowFormat = "%-60s %9s %11s %9s%n";
+        sb.append(String.format(rowFormat, "handler", "requests", "statements", "per req"));
+        double requests = 0;
+        double total = 0;
+        for (Map.Entry<String, double[]> entry : statements.entrySet()) {
+            double[] s = entry.getValue();
+            requests += s[0];
+            total += s[1];
+            sb.append(String.format(rowFormat, entry.getKey(), (long) s[0], (long) s[1], perRequest(s[1], s[0])));
+        }
+        sb.append(String.format(rowFormat, "TOTAL", (long) requests, (long) total, perRequest(total, requests)));
+
+        Set<String> regions = new TreeSet<>();
+        cache.keySet().forEach(key -> regions.add(key.substring(0, key.lastIndexOf(' '))));
+        if (regions.isEmpty()) {
+            sb.append("(second-level cache disabled)\n");
+            return sb.toString();
+        }
+        String cacheFormat = "%-60s %9s %11s %9s%n";
+        sb.append(String.format(cacheFormat, "second-level cache region", "hits", "misses", "hit %"));
+        for (String region : regions) {
+            double hits = cache.getOrDefault(region + " hit", 0.0);
+            double misses = cache.getOrDefault(region + " miss", 0.0);
+            sb.append(String.format(cacheFormat, region, (long) hits, (long) misses,
+                    hits + misses == 0 ? "-" : String.format("%.1f", 100 * hits / (hits + misses))));
+        }
+        return sb.toString();
+    }
+
+    // Statements per request by handler, one column per run (e.g. second-level cache off / on)
+    static String compare(Map<String, RoundTripReport> runs) {
+        Set<String> handlers = new TreeSet<>();
+        runs.values().forEach(run -> handlers.addAll(run.statements.keySet()));
+
+        String column = " %" + runs.keySet().stream().mapToInt(String::length).max().orElse(0) + "s";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-60s", "statements per request"));
+        runs.keySet().forEach(name -> sb.append(String.format(column, name)));
+        sb.append('\n');
+        for (String handler : handlers) {
+            sb.append(String.format("%-60s", handler));
+            for (RoundTripReport run : runs.values()) {
+                double[] s = run.statements.get(handler);
+                sb.append(String.format(column, s == null ? "-" : perRequest(s[1], s[0])));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private Map<String, double[]> readStatements() {
+        Map<String, double[]> byHandler = new TreeMap<>();
+        for (DistributionSummary summary : registry.find("db.queries.per.request").summaries()) {
+            byHandler.put(summary.getId().getTag("handler"), new double[]{summary.count(), summary.totalAmount()});
+        }
+        return byHandler;
+    }
+
+    private Map<String, Double> readCache() {
+        Map<String, Double> byRegionAndResult = new TreeMap<>();
+        for (FunctionCounter counter : registry.find("hibernate.second.level.cache.requests").functionCounters()) {
+            byRegionAndResult.put(counter.getId().getTag("region") + " " + counter.getId().getTag("result"), counter.count());
+        }
+        return byRegionAndResult;
+    }
+
+    private static String perRequest(double statements, double requests) {
+        return requests == 0 ? "-" : String.format("%.2f", statements / requests);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Compares the first page of full-text search (search_vector + GIN index) with the LIKE '%...%'
+ * scan it replaces, directly over JDBC, for each of DataSeeder.SEARCH_TERMS. Full text is timed the
+ * way ComplaintService.searchComplaints runs it for an admin: the recency probe, then either the
+ * ranked or the newest-first page query, both page size 20 + 1.
+ *
+ * The two are not equivalent filters: full text matches stemmed words in any order ("water leak"
+ * finds "leaking water"), LIKE matches the literal substring.
+ */
+final class SearchBenchmark {
+
+    // Same shapes as ComplaintRepositoryCustomImpl without scope / filters / cursor, with the defaults
+    // of complaints.search.recency-window and ComplaintService.BROAD_SEARCH_MATCHES
+    private static final String PROBE_SQL = "SELECT COUNT(*) FROM (SELECT 1 FROM ("
+            + "SELECT s.search_vector FROM complaints s ORDER BY s.created_at DESC, s.id DESC LIMIT 5000) w, "
+            + "websearch_to_tsquery('english', ?) AS q(query) WHERE ts_match_vq(w.search_vector, q.query) LIMIT 20) x";
+    private static final int BROAD_MATCHES = 20;
+
+    private static final String RELEVANCE_SQL = "SELECT c.id, c.title, u.name, m.rank "
+            + "FROM (SELECT s.id, ts_rank(s.search_vector, q.query) AS rank "
+            + "      FROM complaints s, websearch_to_tsquery('english', ?) AS q(query) "
+            + "      WHERE s.search_vector @@ q.query ORDER BY rank DESC, s.id DESC LIMIT 21) m "
+            + "JOIN complaints c ON c.id = m.id JOIN users u ON u.id = c.user_id "
+            + "ORDER BY m.rank DESC, m.id DESC";
+
+    private static final String RECENCY_SQL = "SELECT c.id, c.title, u.name, ts_rank(c.search_vector, q.query) "
+            + "FROM (SELECT s.id, s.created_at FROM complaints s, websearch_to_tsquery('english', ?) AS q(query) "
+            + "      WHERE ts_match_vq(s.search_vector, q.query) ORDER BY s.created_at DESC, s.id DESC LIMIT 21) m "
+            + "JOIN complaints c ON c.id = m.id JOIN users u ON u.id = c.user_id, "
+            + "websearch_to_tsquery('english', ?) AS q(query) "
+            + "ORDER BY m.created_at DESC, m.id DESC";
+
+    private static final String LIKE_SQL = "SELECT c.id, c.title, u.name "
+            + "FROM complaints c JOIN users u ON u.id = c.user_id LEFT JOIN subcategories sc ON sc.id = c.subcategory_id "
+            + "WHERE c.title ILIKE ? OR c.description ILIKE ? OR c.location ILIKE ? OR sc.name ILIKE ? "
+            + "ORDER BY c.created_at DESC, c.id DESC LIMIT 21";
+
+    private static final String FTS_COUNT_SQL = "SELECT COUNT(*) FROM complaints "
+            + "WHERE search_vector @@ websearch_to_tsquery('english', ?)";
+
+    private static final long MAX_TRACKABLE_MICROS = 600_000_000L;
+
+    private final LoadTestConfig config;
+
+    SearchBenchmark(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    String run() throws SQLException {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Search benchmark: first page, %d runs per query after %d warm-up runs%n",
+                config.searchIterations, Math.min(3, config.searchIterations)));
+        String rowFormat = "%-16s %9s %-9s %12s %12s %12s %12s %12s %12s%n";
+        sb.append(String.format(rowFormat, "query", "matches", "ordering", "fts p50 ms", "fts p95 ms", "fts max ms",
+                "like p50 ms", "like p95 ms", "like max ms"));
+
+        try (Connection connection = DriverManager.getConnection(config.jdbcUrl, config.dbUser, config.dbPassword);
+             PreparedStatement probe = connection.prepareStatement(PROBE_SQL);
+             PreparedStatement relevance = connection.prepareStatement(RELEVANCE_SQL);
+             PreparedStatement recency = connection.prepareStatement(RECENCY_SQL);
+             PreparedStatement like = connection.prepareStatement(LIKE_SQL);
+             PreparedStatement count = connection.prepareStatement(FTS_COUNT_SQL)) {
+            for (String term : DataSeeder.SEARCH_TERMS) {
+                probe.setString(1, term);
+                relevance.setString(1, term);
+                recency.setString(1, term);
+                recency.setString(2, term);
+                String pattern = "%" + term + "%";
+                for (int i = 1; i <= 4; i++) {
+                    like.setString(i, pattern);
+                }
+                count.setString(1, term);
+                long matches = single(count);
+                boolean broad = single(probe) >= BROAD_MATCHES;
+
+                Histogram ftsTimes = measure(() -> {
+                    drain(probe);
+                    drain(broad ? recency : relevance);
+                });
+                Histogram likeTimes = measure(() -> drain(like));
+                sb.append(String.format(rowFormat, term, matches, broad ? "recency" : "relevance",
+                        ms(ftsTimes.getValueAtPercentile(50)), ms(ftsTimes.getValueAtPercentile(95)), ms(ftsTimes.getMaxValue()),
+                        ms(likeTimes.getValueAtPercentile(50)), ms(likeTimes.getValueAtPercentile(95)), ms(likeTimes.getMaxValue())));
+            }
+        }
+        return sb.toString();
+    }
+
+    private Histogram measure(Run run) throws SQLException {
+        Histogram histogram = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        int warmup = Math.min(3, config.searchIterations);
+        for (int i = 0; i < warmup + config.searchIterations; i++) {
+            long start = System.nanoTime();
+            run.run();
+            if (i >= warmup) {
+                histogram.recordValue(Math.min((System.nanoTime() - start) / 1_000, MAX_TRACKABLE_MICROS));
+            }
+        }
+        return histogram;
+    }
+
+    private static long single(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void drain(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rs.getLong(1);
+            }
+        }
+    }
+
+    private static String ms(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    @FunctionalInterface
+    private interface Run {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.config;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * A handler asked for the current user and there is none, e.g. the account was deleted while its token
+ * was still accepted (CurrentUserArgumentResolver): answer 401 so the client signs in again.
+ */
+@RestControllerAdvice
+public class AuthenticationFailureAdvice {
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<?> handleAuthenticationFailure(AuthenticationException e) {
+        return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+    }
+}
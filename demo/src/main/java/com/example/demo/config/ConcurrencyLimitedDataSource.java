@@ -0,0 +1,121 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most `permits` open connections at a time. Further callers wait in arrival order for up
+ * to max-wait and then fail with SQLTransientConnectionException (what HikariCP throws on its own
+ * timeout), so a burst of virtual threads queues here instead of piling onto the pool and Postgres.
+ * A permit is held from getConnection() until the connection is closed.
+ *
+ * With as many permits as pooled connections, the pool alone would bound concurrency the same way; what
+ * this adds is strict arrival order, a wait bound of its own (DatabaseBusyAdvice answers 503 either way)
+ * and the db.concurrency.* meters. Fewer permits than connections lower the cap itself.
+ */
+final class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitedDataSource.class);
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long maxWaitMillis;
+    private final Counter rejected;
+
+    ConcurrencyLimitedDataSource(DataSource target, int maxPermits, long maxWaitMillis, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.maxWaitMillis = maxWaitMillis;
+        this.rejected = Counter.builder("db.concurrency.rejected")
+                .description("Connection requests that gave up waiting for the database concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.in_use", permits, p -> maxPermits - p.availablePermits())
+                .description("Connections currently admitted by the database concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for the database concurrency limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                // Counted here; the exception is logged by whoever handles it
+                logger.debug("Database concurrency limit reached: {} connections busy, {} waiting",
+                        maxPermits, permits.getQueueLength());
+                throw new SQLTransientConnectionException("Database busy: no connection available within "
+                        + maxWaitMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    // Returns the permit on the first close(); everything else goes straight to the pooled connection
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+}
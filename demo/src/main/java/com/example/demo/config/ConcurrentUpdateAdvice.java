@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * A complaint changed between being read and written (its version no longer matched), or the write lost
+ * a deadlock or serialization conflict, and the change was not, or could no longer be, retried on fresh
+ * data: answer 409 so the client reloads.
+ */
+@RestControllerAdvice
+public class ConcurrentUpdateAdvice {
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<?> handleConflict(ConcurrencyFailureException e) {
+        return ResponseEntity.status(409).body("Complaint was changed by someone else, please reload and retry");
+    }
+}
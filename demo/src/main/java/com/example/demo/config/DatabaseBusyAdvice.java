@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * No connection within the wait limit (database concurrency limit or HikariCP timeout) means the
+ * database is saturated: answer 503 with Retry-After instead of a 500. Other failures of these types
+ * are left to the default handling.
+ */
+@RestControllerAdvice
+public class DatabaseBusyAdvice {
+
+    @ExceptionHandler({DataAccessResourceFailureException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<?> handleConnectionFailure(Exception e) throws Exception {
+        if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLTransientConnectionException) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Server busy, please retry");
+        }
+        throw e;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Guards spring.flyway.baseline-on-migrate: a schema with tables but no Flyway history is taken to be at
+ * V1 (the tables Hibernate's schema update created) and only V2 onwards run on it. Any other schema, e.g.
+ * one that is not this application's or that a build between releases already changed, would fail
+ * somewhere in V2 or, worse, be half migrated and then fail Hibernate's validation; the migration stops
+ * before anything runs instead, naming what is missing.
+ */
+@Configuration
+public class FlywayBaselineConfig {
+
+    // What V1 has and V2 onwards start from
+    private static final List<String> V1_TABLES = List.of("users", "complaints", "complaint_status_updates");
+    private static final List<String> V1_COMPLAINT_COLUMNS = List.of("category", "subcategory", "status",
+            "priority", "created_at", "user_id");
+
+    @Bean
+    public FlywayMigrationStrategy baselineCheckedMigration() {
+        return flyway -> {
+            checkBaseline(flyway);
+            flyway.migrate();
+        };
+    }
+
+    // ✅ Throws IllegalStateException when migrate would baseline a schema that is not in the V1 layout
+    static void checkBaseline(Flyway flyway) {
+        if (!flyway.getConfiguration().isBaselineOnMigrate() || flyway.info().applied().length > 0) {
+            return;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+        String schema = flyway.getConfiguration().getDefaultSchema() != null
+                ? flyway.getConfiguration().getDefaultSchema()
+                : jdbc.queryForObject("SELECT current_schema()", String.class);
+        Set<String> tables = new TreeSet<>(jdbc.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = ?", String.class, schema));
+        if (tables.isEmpty()) {
+            return; // a new database: every migration runs
+        }
+
+        List<String> missing = new ArrayList<>();
+        V1_TABLES.stream().filter(table -> !tables.contains(table)).forEach(table -> missing.add("table " + table));
+        if (tables.contains("complaints")) {
+            Set<String> columns = new TreeSet<>(jdbc.queryForList("SELECT column_name FROM information_schema.columns "
+                    + "WHERE table_schema = ? AND table_name = 'complaints'", String.class, schema));
+            V1_COMPLAINT_COLUMNS.stream().filter(column -> !columns.contains(column))
+                    .forEach(column -> missing.add("column complaints." + column));
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("❌ Schema " + schema + " has tables but no Flyway history, and is not"
+                    + " the V1 schema that spring.flyway.baseline-on-migrate would take it for (missing: "
+                    + String.join(", ", missing) + "). Migrate into an empty schema and copy the data over.");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Thread model of the application.
+ *
+ * By default Tomcat serves requests on its platform-thread pool. The "virtual-threads" profile
+ * (Java 21+) sets spring.threads.virtual.enabled, so Spring Boot serves requests and runs its
+ * task executor / scheduler on virtual threads, and ComplaintEventHub delivers on them too. Blocking
+ * JDBC calls then no longer tie up a pool thread, which moves the bottleneck to the database: the
+ * profile also enables database.concurrency-limit, which wraps the DataSource so at most `permits`
+ * connections are in use and further callers queue (see ConcurrencyLimitedDataSource).
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    public ThreadingConfig(Environment environment) {
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && !Threading.VIRTUAL.isActive(environment)) {
+            logger.warn("⚠️ Virtual threads requested but running on Java {} (21+ needed), using platform threads",
+                    Runtime.version().feature());
+        } else {
+            logger.info("Serving requests on {} threads", Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform");
+        }
+    }
+
+    // static: BeanPostProcessors are created before regular beans
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyLimitPostProcessor(Environment environment,
+                                                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        boolean enabled = environment.getProperty("database.concurrency-limit.enabled", Boolean.class, false);
+        int permits = environment.getProperty("database.concurrency-limit.permits", Integer.class, 20);
+        long maxWaitMillis = environment.getProperty("database.concurrency-limit.max-wait-ms", Long.class, 5000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, permits, maxWaitMillis, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import com.example.demo.monitoring.QueryStatsHandlerInterceptor;
+import com.example.demo.security.CurrentUserArgumentResolver;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+    private final QueryStatsHandlerInterceptor queryStatsHandlerInterceptor;
+
+    public WebConfig(CurrentUserArgumentResolver currentUserArgumentResolver,
+                     QueryStatsHandlerInterceptor queryStatsHandlerInterceptor) {
+        this.currentUserArgumentResolver = currentUserArgumentResolver;
+        this.queryStatsHandlerInterceptor = queryStatsHandlerInterceptor;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryStatsHandlerInterceptor);
+    }
+}
@@ -5,10 +5,13 @@ package com.example.demo.controller;
         import com.example.demo.repository.UserRepository;
         import com.example.demo.service.AuthService;
         import com.example.demo.service.UserService;
+        import com.example.demo.security.CurrentUser;
         import com.example.demo.security.JwtUtil;
+        import com.example.demo.security.TokenRevocationList;
+        import io.jsonwebtoken.Claims;
+        import io.jsonwebtoken.JwtException;
         import org.springframework.beans.factory.annotation.Autowired;
         import org.springframework.http.ResponseEntity;
-        import org.springframework.security.core.Authentication;
         import org.springframework.security.crypto.password.PasswordEncoder;
         import org.springframework.web.bind.annotation.*;
 
@@ -34,6 +37,9 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TokenRevocationList revocationList;
+
     // -------------------- Signup --------------------
     @PostMapping("/register")
     public ResponseEntity<?> signup(@RequestBody User user) {
@@ -69,8 +75,8 @@ public class AuthController {
         // 🔑 Explicitly convert Role enum to String
         String roleName = user.getRole().name(); // e.g. "ADMIN", "STUDENT", etc.
 
-        // Generate JWT with email + role (keep "ROLE_" prefix if your security expects it)
-        String token = jwtUtil.generateToken(user.getEmail(), roleName);
+        // Generate JWT with email + role, at the user's current token version
+        String token = jwtUtil.generateToken(user, revocationList.currentVersion(user.getEmail()));
 
         Map<String, String> response = new HashMap<>();
         response.put("token", token);
@@ -82,26 +88,31 @@ public class AuthController {
 
     // -------------------- Current User --------------------
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(Authentication authentication) {
-        try {
-            String email = authentication.getName();
-            User user = userService.getUserByEmail(email);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", user.getId());
-            response.put("name", user.getName());
-            response.put("email", user.getEmail());
-            response.put("role", user.getRole().toString());
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", "User not found"));
-        }
+    public ResponseEntity<?> getCurrentUser(@CurrentUser User user) {
+        // No user (no or revoked token, deleted account) is answered 401 before this runs
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", user.getId());
+        response.put("name", user.getName());
+        response.put("email", user.getEmail());
+        response.put("role", user.getRole().toString());
+
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
-        // Nothing to invalidate in stateless JWT setup
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        // Stateless JWT: bump the user's token version so this token (and the user's others) stop working
+        // before they expire, on every instance
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtUtil.parseAndValidate(authHeader.substring(7));
+                if (!revocationList.isRevoked(claims)) {
+                    revocationList.revokeAllFor(claims.getSubject());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Already invalid, nothing to revoke
+            }
+        }
         return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
     }
 }
\ No newline at end of file
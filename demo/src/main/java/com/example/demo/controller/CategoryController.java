@@ -0,0 +1,45 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Category;
+import com.example.demo.model.User;
+import com.example.demo.security.CurrentUser;
+import com.example.demo.service.CategoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// ✅ Complaint categories (reference table); subcategories are added as complaints use them
+@RestController
+@RequestMapping("/api/admin/categories")
+@PreAuthorize("hasRole('ADMIN')")
+public class CategoryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryController.class);
+
+    private final CategoryService categoryService;
+
+    public CategoryController(CategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    @GetMapping
+    public List<Category> getCategories() {
+        return categoryService.getCategories();
+    }
+
+    // {"name": "Sports"}
+    @PostMapping
+    public ResponseEntity<?> addCategory(@RequestBody Map<String, String> body, @CurrentUser User user) {
+        logger.info("📌 Add category {} by user={}", body.get("name"), user.getEmail());
+        try {
+            return ResponseEntity.ok(categoryService.addCategory(body.get("name")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CategoryRouteRequest;
+import com.example.demo.model.CategoryRoute;
+import com.example.demo.model.User;
+import com.example.demo.security.CurrentUser;
+import com.example.demo.service.CategoryRoutingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// ✅ Role-to-category routing table (which categories wardens / faculty handle); changes apply without a restart
+@RestController
+@RequestMapping("/api/admin/category-routes")
+@PreAuthorize("hasRole('ADMIN')")
+public class CategoryRouteController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryRouteController.class);
+
+    private final CategoryRoutingService categoryRoutingService;
+
+    public CategoryRouteController(CategoryRoutingService categoryRoutingService) {
+        this.categoryRoutingService = categoryRoutingService;
+    }
+
+    @GetMapping
+    public List<CategoryRoute> getRoutes() {
+        return categoryRoutingService.getRoutes();
+    }
+
+    // {"role": "WARDEN", "category": "Hostel", "department": null, "staffId": null}
+    @PostMapping
+    public ResponseEntity<?> addRoute(@RequestBody CategoryRouteRequest request, @CurrentUser User user) {
+        logger.info("📌 Add category route {} by user={}", request, user.getEmail());
+        try {
+            return ResponseEntity.ok(categoryRoutingService.addRoute(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> removeRoute(@PathVariable Long id, @CurrentUser User user) {
+        logger.info("📌 Remove category route {} by user={}", id, user.getEmail());
+        try {
+            categoryRoutingService.removeRoute(id);
+            return ResponseEntity.ok("Category route deleted successfully");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        }
+    }
+}
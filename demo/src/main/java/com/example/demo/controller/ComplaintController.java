@@ -1,22 +1,50 @@
 package com.example.demo.controller;
 import org.springframework.http.ResponseEntity;
 
+import com.example.demo.dto.BulkStatusUpdateRequest;
+import com.example.demo.dto.BulkStatusUpdateResult;
+import com.example.demo.dto.ComplaintFilter;
+import com.example.demo.dto.ComplaintPage;
 import com.example.demo.dto.ComplaintRequest;
+import com.example.demo.dto.ComplaintSearchPage;
+import com.example.demo.dto.ComplaintStats;
+import com.example.demo.dto.ComplaintSummary;
+import com.example.demo.dto.StatusChangeResult;
 import com.example.demo.dto.UpdateStatusRequest;
 import com.example.demo.dto.UpdatePriorityRequest;
+import com.example.demo.events.ComplaintEventHub;
+import com.example.demo.model.Category;
 import com.example.demo.model.Complaint;
 import com.example.demo.model.User;
 import com.example.demo.model.ComplaintStatusUpdate;
-import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.ComplaintStatusUpdateRepository;
+import com.example.demo.model.Subcategory;
+import com.example.demo.security.CurrentUser;
+import com.example.demo.service.CategoryRoutingService;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.ComplaintExportService;
 import com.example.demo.service.ComplaintService;
+import com.example.demo.service.StatusHistoryWriter;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import java.util.stream.Collectors;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.time.LocalDate;
 @RestController
 @RequestMapping("/api/complaints")
@@ -25,29 +53,48 @@ public class ComplaintController {
     private static final Logger logger = LoggerFactory.getLogger(ComplaintController.class);
 
     private final ComplaintService complaintService;
-    private final UserRepository userRepository;
-
-    private final ComplaintStatusUpdateRepository statusUpdateRepository; // Add this
-
-    public ComplaintController(ComplaintService complaintService, UserRepository userRepository, ComplaintStatusUpdateRepository statusUpdateRepository) {
+    private final ComplaintExportService complaintExportService;
+
+    private final StatusHistoryWriter statusHistoryWriter;
+    private final ComplaintEventHub complaintEventHub;
+    private final CategoryRoutingService categoryRouting;
+    private final CategoryService categoryService;
+    private final int maxBulkUpdateIds;
+
+    public ComplaintController(ComplaintService complaintService,
+                               ComplaintExportService complaintExportService,
+                               StatusHistoryWriter statusHistoryWriter,
+                               ComplaintEventHub complaintEventHub,
+                               CategoryRoutingService categoryRouting,
+                               CategoryService categoryService,
+                               @Value("${complaints.bulk-update.max-ids:1000}") int maxBulkUpdateIds) {
         this.complaintService = complaintService;
-        this.userRepository = userRepository;
-        this.statusUpdateRepository = statusUpdateRepository; // Add this
+        this.complaintExportService = complaintExportService;
+        this.statusHistoryWriter = statusHistoryWriter;
+        this.complaintEventHub = complaintEventHub;
+        this.categoryRouting = categoryRouting;
+        this.categoryService = categoryService;
+        this.maxBulkUpdateIds = maxBulkUpdateIds;
     }
 
-    // ✅ Create complaint
+    // ✅ Create complaint (duplicateOfId is set when it looks like a duplicate of an open complaint);
+    // 400 for an unknown category
     @PostMapping
 
-    public Complaint createComplaint(@RequestBody ComplaintRequest request, Authentication authentication) {
-        String email = authentication.getName(); // extract user from token
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
+    public ResponseEntity<?> createComplaint(@RequestBody ComplaintRequest request, @CurrentUser User user) {
+        Category category;
+        Subcategory subcategory;
+        try {
+            category = categoryService.resolve(request.getCategory());
+            subcategory = categoryService.resolveSubcategory(category, request.getSubcategory());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
         Complaint complaint = Complaint.builder()
                 .title(request.getTitle())
                 .description(request.getDescription())
-                .category(request.getCategory())
-                .subcategory(request.getSubcategory())
+                .category(category)
+                .subcategory(subcategory)
                 .location(request.getLocation())
                 .contactNumber(request.getContactNumber())
                 .status(Complaint.Status.NEW)
@@ -55,19 +102,14 @@ public class ComplaintController {
                 .user(user)
                 .build();
 
-        return complaintService.createComplaint(complaint);
+        return ResponseEntity.ok(complaintService.createComplaint(complaint));
     }
 
 
     // ✅ Role-based fetching
     @GetMapping
-    public List<Complaint> getComplaints(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    logger.error("❌ User not found with email={}", email);
-                    return new IllegalArgumentException("User not found");
-                });
+    public List<ComplaintSummary> getComplaints(@CurrentUser User user) {
+        String email = user.getEmail();
 
         logger.info("📌 Fetch complaints request by user={}, role={}", email, user.getRole());
 
@@ -77,14 +119,9 @@ public class ComplaintController {
                 return complaintService.getComplaintsByUser(user.getId());
 
             case WARDEN:
-                logger.debug("Returning complaints for WARDEN categories");
-                return complaintService.getComplaintsByCategories(
-                        List.of("Mess", "Hostel", "Maintenance", "Transport", "Security")
-                );
-
             case FACULTY:
-                logger.debug("Returning complaints for FACULTY categories");
-                return complaintService.getComplaintsByCategories(List.of("Academic"));
+                logger.debug("Returning complaints for {} categories", user.getRole());
+                return complaintService.getComplaintsByCategories(categoryRouting.categoryIdsFor(user));
 
             case ADMIN:
                 logger.debug("Returning ALL complaints for ADMIN");
@@ -96,15 +133,178 @@ public class ComplaintController {
         }
     }
 
+    // ✅ Role-scoped, keyset-paginated listing with server-side filters
+    // GET /api/complaints/page?size=20&status=NEW&priority=HIGH&category=Hostel&from=2025-01-01&to=2025-01-31&cursor=...
+    @GetMapping("/page")
+    public ResponseEntity<?> getComplaintPage(
+            ComplaintFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @CurrentUser User user) {
+        String email = user.getEmail();
+
+        logger.info("📌 Fetch complaint page request by user={}, role={}", email, user.getRole());
+
+        try {
+            ComplaintPage<ComplaintSummary> page;
+            switch (user.getRole()) {
+                case STUDENT:
+                    page = complaintService.getComplaintPage(user.getId(), null, filter, cursor, size);
+                    break;
+                case WARDEN:
+                case FACULTY:
+                    page = complaintService.getComplaintPage(null, categoryRouting.categoryIdsFor(user), filter, cursor, size);
+                    break;
+                case ADMIN:
+                    page = complaintService.getComplaintPage(null, null, filter, cursor, size);
+                    break;
+                default:
+                    logger.error("❌ Unauthorized role access: {}", user.getRole());
+                    return ResponseEntity.status(403).body("Unauthorized role");
+            }
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ✅ Full-text search over title, description, location and subcategory within the caller's scope;
+    // results are ranked by relevance, or newest first for broad queries (see "ordering" in the response)
+    // GET /api/complaints/search?q=water+leak+block+c&size=20&status=NEW&cursor=...
+    @GetMapping("/search")
+    public ResponseEntity<?> searchComplaints(
+            @RequestParam String q,
+            ComplaintFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @CurrentUser User user) {
+        logger.info("📌 Search complaints request by user={}, role={}", user.getEmail(), user.getRole());
+
+        try {
+            ComplaintSearchPage page;
+            switch (user.getRole()) {
+                case STUDENT:
+                    page = complaintService.searchComplaints(q, user.getId(), null, filter, cursor, size);
+                    break;
+                case WARDEN:
+                case FACULTY:
+                    page = complaintService.searchComplaints(q, null, categoryRouting.categoryIdsFor(user), filter, cursor, size);
+                    break;
+                case ADMIN:
+                    page = complaintService.searchComplaints(q, null, null, filter, cursor, size);
+                    break;
+                default:
+                    logger.error("❌ Unauthorized role access: {}", user.getRole());
+                    return ResponseEntity.status(403).body("Unauthorized role");
+            }
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ✅ Export of every complaint in the caller's scope matching the listing filters (archived ones included),
+    // streamed from a database cursor as CSV (default) or NDJSON, gzip-compressed with gzip=true;
+    // 503 while complaints.export.max-concurrent exports are running
+    // GET /api/complaints/export?format=ndjson&gzip=true&status=RESOLVED&from=2025-01-01
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportComplaints(
+            ComplaintFilter filter,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @CurrentUser User user,
+            HttpServletRequest request) {
+        logger.info("📌 Export complaints request by user={}, role={}, format={}, gzip={}",
+                user.getEmail(), user.getRole(), format, gzip);
+
+        try {
+            ComplaintExportService.Format exportFormat = ComplaintExportService.Format.parse(format);
+            ComplaintExportService.Export body;
+            switch (user.getRole()) {
+                case STUDENT:
+                    body = complaintExportService.export(user.getId(), null, filter, exportFormat, gzip);
+                    break;
+                case WARDEN:
+                case FACULTY:
+                    body = complaintExportService.export(null, categoryRouting.categoryIdsFor(user), filter, exportFormat, gzip);
+                    break;
+                case ADMIN:
+                    body = complaintExportService.export(null, null, filter, exportFormat, gzip);
+                    break;
+                default:
+                    logger.error("❌ Unauthorized role access: {}", user.getRole());
+                    return ResponseEntity.status(403).contentType(MediaType.TEXT_PLAIN).body(text("Unauthorized role"));
+            }
+            // ✅ The body is written asynchronously: give its export permit back however the request ends
+            // (a no-op once the body finished), so a timeout or error before it runs does not leak it
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(body, new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                    body.release();
+                }
+            });
+            String filename = "complaints-" + LocalDate.now() + exportFormat.getExtension() + (gzip ? ".gz" : "");
+            return ResponseEntity.ok()
+                    .contentType(gzip ? MediaType.parseMediaType("application/gzip") : exportFormat.getMediaType())
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(filename).build().toString())
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(text(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).contentType(MediaType.TEXT_PLAIN).body(text(e.getMessage()));
+        }
+    }
+
+    // Error message as a body of the export's type (Spring only streams a ResponseEntity declared with
+    // StreamingResponseBody)
+    private static StreamingResponseBody text(String message) {
+        return out -> out.write(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ✅ Live stream of status / priority changes within the caller's scope (server-sent events:
+    // "connected" once, then "complaint" events with a ComplaintUpdateEvent, or "resync" when the client
+    // fell too far behind and should reload)
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamEvents(@CurrentUser User user, Authentication authentication) {
+        logger.info("📌 Event stream opened by user={}, role={}", user.getEmail(), user.getRole());
+        try {
+            // The token's claims (JwtFilter), so the stream closes once the token is revoked or expires
+            Claims token = authentication.getCredentials() instanceof Claims claims ? claims : null;
+            return ResponseEntity.ok(complaintEventHub.subscribe(user, token));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(e.getMessage());
+        }
+    }
+
+    // ✅ Dashboard counters for the caller's scope (totals by status / priority, status per category)
+    @GetMapping("/stats")
+    public ResponseEntity<?> getComplaintStats(@CurrentUser User user) {
+        logger.info("📌 Fetch complaint stats by user={}, role={}", user.getEmail(), user.getRole());
+
+        ComplaintStats stats;
+        switch (user.getRole()) {
+            case STUDENT:
+                stats = complaintService.getComplaintStats(user.getId(), null);
+                break;
+            case WARDEN:
+            case FACULTY:
+                stats = complaintService.getComplaintStats(null, categoryRouting.categoryIdsFor(user));
+                break;
+            case ADMIN:
+                stats = complaintService.getComplaintStats(null, null);
+                break;
+            default:
+                logger.error("❌ Unauthorized role access: {}", user.getRole());
+                return ResponseEntity.status(403).body("Unauthorized role");
+        }
+        return ResponseEntity.ok(stats);
+    }
+
     // ✅ Get complaints by user (admin or self only)
     @GetMapping("/user/{userId}")
-    public List<Complaint> getComplaintsByUser(@PathVariable Long userId, Authentication authentication) {
-        String email = authentication.getName();
-        User requester = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    logger.error("❌ User not found with email={}", email);
-                    return new IllegalArgumentException("User not found");
-                });
+    public List<ComplaintSummary> getComplaintsByUser(@PathVariable Long userId, @CurrentUser User requester) {
+        String email = requester.getEmail();
 
         logger.info("📌 Fetch complaints for userId={} requested by email={}, role={}", userId, email, requester.getRole());
 
@@ -116,6 +316,72 @@ public class ComplaintController {
         }
     }
 
+    // ✅ Full complaint (description, contact number, status history) for the detail / edit views;
+    // list endpoints only return ComplaintSummary rows
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getComplaint(@PathVariable Long id, @CurrentUser User user) {
+        logger.info("📌 Fetch complaint {} requested by user={}, role={}", id, user.getEmail(), user.getRole());
+
+        Complaint complaint;
+        try {
+            complaint = complaintService.getComplaintByIdIncludingArchived(id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        }
+
+        boolean hasAccess = false;
+        switch (user.getRole()) {
+            case STUDENT:
+                hasAccess = complaint.getUser().getId().equals(user.getId());
+                break;
+            case WARDEN:
+            case FACULTY:
+                hasAccess = categoryRouting.allows(user, complaint.getCategory());
+                break;
+            case ADMIN:
+                hasAccess = true;
+                break;
+        }
+
+        if (!hasAccess) {
+            logger.warn("⚠️ Access denied for user={} trying to fetch complaint {}", user.getEmail(), id);
+            return ResponseEntity.status(403).body("Access denied");
+        }
+        return ResponseEntity.ok(complaint);
+    }
+
+    // ✅ Complaints linked to this one as likely duplicates (same category and location, similar text)
+    @GetMapping("/{id}/duplicates")
+    public ResponseEntity<?> getDuplicates(@PathVariable Long id, @CurrentUser User user) {
+        logger.info("📌 Fetch duplicates of complaint {} requested by user={}, role={}", id, user.getEmail(), user.getRole());
+
+        Complaint complaint;
+        try {
+            complaint = complaintService.getComplaintByIdIncludingArchived(id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        }
+
+        List<ComplaintSummary> duplicates = complaintService.getDuplicatesOf(id);
+        switch (user.getRole()) {
+            case STUDENT:
+                // Students only see their own complaints among the duplicates
+                return ResponseEntity.ok(duplicates.stream()
+                        .filter(d -> d.getUser().getId().equals(user.getId()))
+                        .toList());
+            case WARDEN:
+            case FACULTY:
+                if (!categoryRouting.allows(user, complaint.getCategory())) {
+                    return ResponseEntity.status(403).body("Access denied");
+                }
+                return ResponseEntity.ok(duplicates);
+            case ADMIN:
+                return ResponseEntity.ok(duplicates);
+            default:
+                return ResponseEntity.status(403).body("Access denied");
+        }
+    }
+
     // ✅ Update complaint status
     @PutMapping("/{id}/status")
     public Complaint updateStatus(@PathVariable Long id, @RequestBody UpdateStatusRequest request) {
@@ -130,34 +396,23 @@ public class ComplaintController {
         return complaintService.updateComplaintPriority(id, request.getPriority());
     }
     @GetMapping("/resolved")
-    public List<Complaint> getResolvedComplaints(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    public List<ComplaintSummary> getResolvedComplaints(@CurrentUser User user) {
+        String email = user.getEmail();
 
         logger.info("📌 Fetch resolved complaints request by user={}, role={}", email, user.getRole());
 
+        Set<Complaint.Status> resolved = EnumSet.of(Complaint.Status.RESOLVED);
+
         switch (user.getRole()) {
             case STUDENT:
-                return complaintService.getComplaintsByUser(user.getId()).stream()
-                        .filter(complaint -> complaint.getStatus() == Complaint.Status.RESOLVED)
-                        .collect(Collectors.toList());
+                return complaintService.getComplaintsByUserAndStatuses(user.getId(), resolved);
 
             case WARDEN:
-                List<String> wardenCategories = List.of("Hostel", "Mess", "Maintenance", "Transport", "Security");
-                return complaintService.getComplaintsByCategories(wardenCategories).stream()
-                        .filter(complaint -> complaint.getStatus() == Complaint.Status.RESOLVED)
-                        .collect(Collectors.toList());
-
             case FACULTY:
-                return complaintService.getComplaintsByCategories(List.of("Academic")).stream()
-                        .filter(complaint -> complaint.getStatus() == Complaint.Status.RESOLVED)
-                        .collect(Collectors.toList());
+                return complaintService.getComplaintsByCategoriesAndStatuses(categoryRouting.categoryIdsFor(user), resolved);
 
             case ADMIN:
-                return complaintService.getAllComplaints().stream()
-                        .filter(complaint -> complaint.getStatus() == Complaint.Status.RESOLVED)
-                        .collect(Collectors.toList());
+                return complaintService.getComplaintsByStatuses(resolved);
 
             default:
                 return List.of();
@@ -170,12 +425,10 @@ public class ComplaintController {
     public ResponseEntity<?> updateComplaint(
             @PathVariable Long id,
             @RequestBody ComplaintRequest request,
-            Authentication authentication) {
+            @CurrentUser User user) {
 
         try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            String email = user.getEmail();
 
             logger.info("📌 Update complaint request for id={} by user={}, role={}", id, email, user.getRole());
 
@@ -194,11 +447,21 @@ public class ComplaintController {
                 return ResponseEntity.status(400).body("Cannot edit resolved or rejected complaints");
             }
 
+            // Category names -> reference rows (unknown category = 400)
+            Category category;
+            Subcategory subcategory;
+            try {
+                category = categoryService.resolve(request.getCategory());
+                subcategory = categoryService.resolveSubcategory(category, request.getSubcategory());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+
             // Update the complaint fields
             existingComplaint.setTitle(request.getTitle());
             existingComplaint.setDescription(request.getDescription());
-            existingComplaint.setCategory(request.getCategory());
-            existingComplaint.setSubcategory(request.getSubcategory());
+            existingComplaint.setCategory(category);
+            existingComplaint.setSubcategory(subcategory);
             existingComplaint.setLocation(request.getLocation());
             existingComplaint.setContactNumber(request.getContactNumber());
 
@@ -208,17 +471,15 @@ public class ComplaintController {
             logger.info("✅ Complaint {} updated successfully by user {}", id, email);
             return ResponseEntity.ok(updatedComplaint);
 
+        } catch (ConcurrencyFailureException e) {
+            throw e; // 409, see ConcurrentUpdateAdvice
         } catch (Exception e) {
             logger.error("❌ Error updating complaint {}: {}", id, e.getMessage());
             return ResponseEntity.status(500).body("Error updating complaint: " + e.getMessage());
         }
     }
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteComplaint(@PathVariable Long id, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
+    public ResponseEntity<?> deleteComplaint(@PathVariable Long id, @CurrentUser User user) {
         Complaint existingComplaint = complaintService.getComplaintById(id);
 
         // Only allow admin or the owner to delete
@@ -236,12 +497,10 @@ public class ComplaintController {
     public ResponseEntity<?> updateComplaintStatus(
             @PathVariable Long id,
             @RequestBody Map<String, Object> request,
-            Authentication authentication) {
+            @CurrentUser User user) {
 
         try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            String email = user.getEmail();
 
             logger.info("📌 Update status request for complaint {} by user {}, role {}", id, email, user.getRole());
 
@@ -256,14 +515,10 @@ public class ComplaintController {
             // Role-based category access control
             switch (user.getRole()) {
                 case WARDEN:
-                    List<String> wardenCategories = List.of("Hostel", "Mess", "Maintenance", "Transport", "Security");
-                    if (!wardenCategories.contains(complaint.getCategory())) {
-                        return ResponseEntity.status(403).body("Wardens can only update Hostel, Mess, Maintenance, Transport, and Security complaints");
-                    }
-                    break;
                 case FACULTY:
-                    if (!"Academic".equals(complaint.getCategory())) {
-                        return ResponseEntity.status(403).body("Faculty can only update Academic complaints");
+                    if (!categoryRouting.allows(user, complaint.getCategory())) {
+                        return ResponseEntity.status(403).body(user.getRole() + " cannot update "
+                                + complaint.getCategory().getName() + " complaints");
                     }
                     break;
                 case ADMIN:
@@ -279,13 +534,8 @@ public class ComplaintController {
             String nextSteps = (String) request.get("nextSteps");
             String expectedCompletionDateStr = (String) request.get("expectedCompletionDate");
 
-            // Update complaint status
             Complaint.Status newStatus = Complaint.Status.valueOf(statusStr);
             Complaint.Status oldStatus = complaint.getStatus();
-            complaint.setStatus(newStatus);
-
-            // Save the updated complaint
-            Complaint updatedComplaint = complaintService.saveComplaint(complaint);
 
             // Create status update record for history tracking
             ComplaintStatusUpdate.ComplaintStatusUpdateBuilder builder = ComplaintStatusUpdate.builder()
@@ -307,32 +557,91 @@ public class ComplaintController {
                 }
             }
 
-            statusUpdateRepository.save(builder.build());
+            // Complaint status + history row are written together (synchronously, or batched by the writer)
+            StatusChangeResult result = statusHistoryWriter.write(builder.build());
 
+            if (result.isQueued()) {
+                // 202: not committed yet; a change that fails later is kept in status_change_failures
+                logger.info("✅ Complaint {} status change from {} to {} by {} queued", id, oldStatus, newStatus, email);
+                return ResponseEntity.accepted().body(result);
+            }
             logger.info("✅ Complaint {} status updated from {} to {} by {}", id, oldStatus, newStatus, email);
-            return ResponseEntity.ok(updatedComplaint);
+            return ResponseEntity.ok(result);
 
+        } catch (ConcurrencyFailureException e) {
+            throw e; // 409, see ConcurrentUpdateAdvice
         } catch (Exception e) {
             logger.error("❌ Error updating complaint status for {}: {}", id, e.getMessage());
             return ResponseEntity.status(500).body("Error updating complaint status: " + e.getMessage());
         }
     }
 
+    // ✅ Bulk status update for authorities: same payload as update-status plus a list of complaint ids
+    @PutMapping("/bulk-update-status")
+    public ResponseEntity<?> bulkUpdateComplaintStatus(
+            @RequestBody BulkStatusUpdateRequest request,
+            @CurrentUser User user) {
+
+        if (user.getRole() == User.Role.STUDENT) {
+            return ResponseEntity.status(403).body("Students cannot update complaint status");
+        }
+        if (request.getComplaintIds() == null || request.getComplaintIds().isEmpty()) {
+            return ResponseEntity.badRequest().body("complaintIds is required");
+        }
+        if (request.getComplaintIds().size() > maxBulkUpdateIds) {
+            return ResponseEntity.badRequest().body("At most " + maxBulkUpdateIds + " complaints per bulk update");
+        }
+
+        Complaint.Status newStatus;
+        try {
+            newStatus = Complaint.Status.valueOf(String.valueOf(request.getStatus()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid status: " + request.getStatus());
+        }
+
+        try {
+
+            ComplaintStatusUpdate.ComplaintStatusUpdateBuilder template = ComplaintStatusUpdate.builder()
+                    .message(request.getComments())
+                    .workProgress(request.getComments())
+                    .nextSteps(request.getNextSteps())
+                    .updatedByUser(user)
+                    .updatedAt(LocalDate.now());
+
+            String expectedCompletionDateStr = request.getExpectedCompletionDate();
+            if (expectedCompletionDateStr != null && !expectedCompletionDateStr.isEmpty()) {
+                try {
+                    template.expectedCompletionDate(LocalDate.parse(expectedCompletionDateStr));
+                } catch (Exception e) {
+                    logger.warn("Invalid date format for expected completion: {}", expectedCompletionDateStr);
+                }
+            }
+
+            List<BulkStatusUpdateResult> results = complaintService.bulkUpdateStatus(
+                    request.getComplaintIds(), newStatus, template.build(), user);
+
+            logger.info("✅ Bulk status update to {} by {}: {} complaint(s) requested", newStatus, user.getEmail(), results.size());
+            return ResponseEntity.ok(results);
+
+        } catch (ConcurrencyFailureException e) {
+            throw e; // 409, see ConcurrentUpdateAdvice
+        } catch (Exception e) {
+            logger.error("❌ Error in bulk status update: {}", e.getMessage());
+            return ResponseEntity.status(500).body("Error updating complaint status: " + e.getMessage());
+        }
+    }
+
 // ...existing code...
     // ...existing code...
 
     @GetMapping("/{id}/status-history")
     public ResponseEntity<List<ComplaintStatusUpdate>> getComplaintStatusHistory(
             @PathVariable Long id,
-            Authentication authentication) {
+            @CurrentUser User user) {
 
         try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-            // Get the complaint to check access
-            Complaint complaint = complaintService.getComplaintById(id);
+            // Get the complaint to check access (archived ones included)
+            Complaint complaint = complaintService.getComplaintByIdIncludingArchived(id);
 
             // Check if user has access to this complaint
             boolean hasAccess = false;
@@ -341,11 +650,8 @@ public class ComplaintController {
                     hasAccess = complaint.getUser().getId().equals(user.getId());
                     break;
                 case WARDEN:
-                    List<String> wardenCategories = List.of("Hostel", "Mess", "Maintenance", "Transport", "Security");
-                    hasAccess = wardenCategories.contains(complaint.getCategory());
-                    break;
                 case FACULTY:
-                    hasAccess = "Academic".equals(complaint.getCategory());
+                    hasAccess = categoryRouting.allows(user, complaint.getCategory());
                     break;
                 case ADMIN:
                     hasAccess = true;
@@ -356,7 +662,9 @@ public class ComplaintController {
                 return ResponseEntity.status(403).body(null);
             }
 
-            List<ComplaintStatusUpdate> history = statusUpdateRepository.findByComplaintIdOrderByUpdatedAtDesc(id);
+            List<ComplaintStatusUpdate> history = complaint.isArchived()
+                    ? complaint.getStatusUpdates()
+                    : complaintService.getStatusHistory(complaint);
             return ResponseEntity.ok(history);
 
         } catch (Exception e) {
@@ -1,12 +1,16 @@
 
 package com.example.demo.controller;
 
+        import com.example.demo.dto.FeedbackRequest;
+        import com.example.demo.dto.FeedbackRollupView;
         import com.example.demo.model.ComplaintStatusUpdate;
+        import com.example.demo.model.FeedbackRollup;
         import com.example.demo.model.Complaint;
         import com.example.demo.model.User;
         import com.example.demo.repository.ComplaintStatusUpdateRepository;
+        import com.example.demo.security.CurrentUser;
         import com.example.demo.service.ComplaintService;
-        import com.example.demo.service.UserService;
+        import com.example.demo.service.FeedbackAnalyticsService;
         import org.slf4j.Logger;
         import org.slf4j.LoggerFactory;
         import org.springframework.beans.factory.annotation.Autowired;
@@ -15,10 +19,12 @@ package com.example.demo.controller;
         import org.springframework.security.core.Authentication;
         import org.springframework.web.bind.annotation.*;
 
-        import java.time.LocalDateTime;
+        import java.util.HashSet;
+        import java.util.LinkedHashMap;
         import java.util.List;
         import java.util.Map;
         import java.util.Optional;
+        import java.util.Set;
 
 @RestController
 @RequestMapping("/api/feedback")
@@ -26,6 +32,9 @@ public class FeedbackController {
 
     private static final Logger logger = LoggerFactory.getLogger(FeedbackController.class);
 
+    // Upper bound on ids per bulk status request, keeps the IN list reasonable
+    private static final int MAX_BULK_STATUS_IDS = 500;
+
     @Autowired
     private ComplaintStatusUpdateRepository statusUpdateRepository;
 
@@ -33,18 +42,17 @@ public class FeedbackController {
     private ComplaintService complaintService;
 
     @Autowired
-    private UserService userService;
+    private FeedbackAnalyticsService feedbackAnalyticsService;
 
     // Submit feedback for a resolved complaint
     @PostMapping("/complaint/{id}")
     public ResponseEntity<?> submitFeedback(
             @PathVariable Long id,
-            @RequestBody Map<String, Object> feedbackData,
-            Authentication authentication) {
+            @RequestBody FeedbackRequest feedback,
+            @CurrentUser User student) {
 
         try {
-            String email = authentication.getName();
-            User student = userService.getUserByEmail(email);
+            String email = student.getEmail();
 
             logger.info("Feedback submission attempt for complaint {} by user {}", id, email);
 
@@ -62,23 +70,13 @@ public class FeedbackController {
                 return ResponseEntity.badRequest().body("No resolved status update found for this complaint");
             }
 
-            ComplaintStatusUpdate statusUpdate = resolvedStatusUpdate.get();
-
-            // Check if feedback already exists
-            if (statusUpdate.getStudentFeedback() != null) {
+            // Store the feedback on the status update record together with its analytics rollups; refused when
+            // feedback (with or without text) was submitted already, also by a concurrent request
+            if (!feedbackAnalyticsService.submitFeedback(resolvedStatusUpdate.get(), feedback,
+                    complaint.getCategory().getName())) {
                 return ResponseEntity.badRequest().body("Feedback already submitted for this complaint");
             }
 
-            // Add feedback to the existing status update record
-            statusUpdate.setStudentFeedback((String) feedbackData.get("feedback"));
-            statusUpdate.setSatisfactionRating((Integer) feedbackData.get("satisfactionRating"));
-            statusUpdate.setIsFullySolved((Boolean) feedbackData.get("isFullySolved"));
-            statusUpdate.setWouldRecommend((Boolean) feedbackData.get("wouldRecommend"));
-            statusUpdate.setFeedbackSubmittedAt(LocalDateTime.now());
-
-            // Save the updated status record
-            statusUpdateRepository.save(statusUpdate);
-
             logger.info("Feedback successfully submitted for complaint {} by user {}", id, email);
             return ResponseEntity.ok("Feedback submitted successfully");
 
@@ -95,7 +93,6 @@ public class FeedbackController {
             Authentication authentication) {
         try {
             String email = authentication.getName();
-            User user = userService.getUserByEmail(email);
 
             logger.info("Feedback retrieval request for complaint {} by user {}", id, email);
 
@@ -103,7 +100,7 @@ public class FeedbackController {
             Optional<ComplaintStatusUpdate> feedbackOptional =
                     statusUpdateRepository.findResolvedStatusUpdateByComplaintId(id);
 
-            if (!feedbackOptional.isPresent() || feedbackOptional.get().getStudentFeedback() == null) {
+            if (!feedbackOptional.isPresent() || feedbackOptional.get().getFeedbackSubmittedAt() == null) {
                 return ResponseEntity.notFound().build();
             }
 
@@ -122,7 +119,6 @@ public class FeedbackController {
             Authentication authentication) {
         try {
             String email = authentication.getName();
-            User user = userService.getUserByEmail(email);
 
             logger.info("Checking feedback status for complaint {} by user {}", id, email);
 
@@ -133,7 +129,7 @@ public class FeedbackController {
             boolean feedbackProvided = false;
             if (statusUpdateOptional.isPresent()) {
                 ComplaintStatusUpdate statusUpdate = statusUpdateOptional.get();
-                feedbackProvided = statusUpdate.getStudentFeedback() != null;
+                feedbackProvided = statusUpdate.getFeedbackSubmittedAt() != null;
             }
 
             Map<String, Boolean> response = Map.of("feedbackProvided", feedbackProvided);
@@ -146,4 +142,66 @@ public class FeedbackController {
             return ResponseEntity.badRequest().body(null);
         }
     }
-}
\ No newline at end of file
+
+    // Feedback status for many complaints at once: GET /api/feedback/status?complaintIds=1,2,3
+    // Replaces one /complaint/{id}/status call per complaint with a single IN query
+    @GetMapping("/status")
+    public ResponseEntity<?> checkFeedbackStatusBulk(
+            @RequestParam List<Long> complaintIds,
+            Authentication authentication) {
+        if (complaintIds.size() > MAX_BULK_STATUS_IDS) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BULK_STATUS_IDS + " complaint ids per request");
+        }
+
+        try {
+            String email = authentication.getName();
+            logger.info("Checking feedback status for {} complaints by user {}", complaintIds.size(), email);
+
+            Set<Long> withFeedback = complaintIds.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(statusUpdateRepository.findComplaintIdsWithFeedback(complaintIds));
+
+            Map<Long, Boolean> response = new LinkedHashMap<>();
+            for (Long complaintId : complaintIds) {
+                response.put(complaintId, withFeedback.contains(complaintId));
+            }
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            logger.error("Error checking bulk feedback status: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // Feedback analytics by category, resolver or week: GET /api/feedback/analytics?dimension=CATEGORY
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getFeedbackAnalytics(
+            @RequestParam(defaultValue = "CATEGORY") String dimension,
+            @CurrentUser User user) {
+        if (user.getRole() != User.Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only admins can view feedback analytics");
+        }
+
+        FeedbackRollup.Dimension parsed;
+        try {
+            parsed = FeedbackRollup.Dimension.valueOf(dimension.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Unknown dimension: " + dimension);
+        }
+
+        List<FeedbackRollupView> rollups = feedbackAnalyticsService.getRollups(parsed);
+        return ResponseEntity.ok(rollups);
+    }
+
+    // Recompute all feedback rollups from stored feedback (backfill / repair)
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<?> rebuildFeedbackAnalytics(@CurrentUser User user) {
+        if (user.getRole() != User.Role.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only admins can rebuild feedback analytics");
+        }
+
+        int rows = feedbackAnalyticsService.rebuild();
+        logger.info("Feedback analytics rebuilt by {} ({} rollup rows)", user.getEmail(), rows);
+        return ResponseEntity.ok(Map.of("rollupRows", rows));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.StatusChangeFailure;
+import com.example.demo.model.User;
+import com.example.demo.security.CurrentUser;
+import com.example.demo.service.StatusHistoryWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// ✅ Status changes accepted by the write-behind writer that could not be applied: list, re-apply, discard
+@RestController
+@RequestMapping("/api/admin/status-change-failures")
+@PreAuthorize("hasRole('ADMIN')")
+public class StatusChangeFailureController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusChangeFailureController.class);
+
+    private final StatusHistoryWriter statusHistoryWriter;
+
+    public StatusChangeFailureController(StatusHistoryWriter statusHistoryWriter) {
+        this.statusHistoryWriter = statusHistoryWriter;
+    }
+
+    @GetMapping
+    public List<StatusChangeFailure> getFailures() {
+        return statusHistoryWriter.getFailures();
+    }
+
+    // Applies the change as originally requested and returns the updated complaint
+    @PostMapping("/{id}/retry")
+    public ResponseEntity<?> retryFailure(@PathVariable Long id, @CurrentUser User user) {
+        logger.info("📌 Retry status change failure {} by user={}", id, user.getEmail());
+        try {
+            return ResponseEntity.ok(statusHistoryWriter.retryFailure(id));
+        } catch (ConcurrencyFailureException e) {
+            throw e; // 409, see ConcurrentUpdateAdvice
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> discardFailure(@PathVariable Long id, @CurrentUser User user) {
+        logger.info("📌 Discard status change failure {} by user={}", id, user.getEmail());
+        try {
+            statusHistoryWriter.discardFailure(id);
+            return ResponseEntity.ok("Status change failure discarded");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+// Body of PUT /api/complaints/bulk-update-status: one status change applied to many complaints
+@Getter
+@Setter
+public class BulkStatusUpdateRequest {
+    private List<Long> complaintIds;
+    private String status;
+    private String comments;
+    private String nextSteps;
+    private String expectedCompletionDate; // yyyy-MM-dd, optional
+}
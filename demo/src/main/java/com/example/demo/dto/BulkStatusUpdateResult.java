@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Per-complaint outcome of a bulk status update
+@Getter
+@AllArgsConstructor
+public class BulkStatusUpdateResult {
+
+    public enum Outcome {
+        UPDATED, NOT_FOUND, FORBIDDEN
+    }
+
+    private final Long complaintId;
+    private final Outcome outcome;
+    private final String message;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.User;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+// Body of POST /api/admin/category-routes; category is a category name
+@Getter
+@Setter
+@ToString
+public class CategoryRouteRequest {
+    private User.Role role;
+    private String category;
+    private String department;
+    private String staffId;
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Complaint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Complaints in one (category, status, priority) bucket; built by JPQL constructor expressions
+@Getter
+@AllArgsConstructor
+public class ComplaintCount {
+    private final String category;
+    private final Complaint.Status status;
+    private final Complaint.Priority priority;
+    private final long count;
+}
@@ -0,0 +1,27 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Complaint;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Optional server-side filters for the paginated complaint listing (all null = no filtering)
+@Getter
+@Setter
+public class ComplaintFilter {
+    private Complaint.Status status;
+    private Complaint.Priority priority;
+    private String category;
+
+    // Id of `category`, set by ComplaintService (the listing filters on category_id)
+    private Short categoryId;
+
+    // Inclusive range on createdAt (yyyy-MM-dd)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
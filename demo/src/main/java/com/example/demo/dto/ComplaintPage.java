@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; pass nextCursor back to get the following page
+@Getter
+@AllArgsConstructor
+public class ComplaintPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+}
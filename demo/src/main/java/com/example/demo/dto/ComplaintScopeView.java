@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+// Just enough of a complaint to run the role/category permission check (and to route notifications)
+public interface ComplaintScopeView {
+    Long getId();
+
+    Short getCategoryId();
+
+    String getCategory();
+
+    Long getOwnerId();
+}
@@ -0,0 +1,56 @@
+package com.example.demo.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Keyset position in a search ordering, sent to clients as an opaque token:
+// (rank DESC, id DESC) for RELEVANCE, (createdAt DESC, id DESC) for RECENCY
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ComplaintSearchCursor {
+
+    private static final String SEPARATOR = "|";
+
+    public enum Ordering {
+        RELEVANCE, RECENCY
+    }
+
+    private final Ordering ordering;
+    private final Float rank;
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public static ComplaintSearchCursor byRelevance(float rank, Long id) {
+        return new ComplaintSearchCursor(Ordering.RELEVANCE, rank, null, id);
+    }
+
+    public static ComplaintSearchCursor byRecency(LocalDateTime createdAt, Long id) {
+        return new ComplaintSearchCursor(Ordering.RECENCY, null, createdAt, id);
+    }
+
+    public String encode() {
+        // Float.toString round-trips exactly, so the next page continues at the same real value
+        String position = ordering == Ordering.RELEVANCE ? Float.toString(rank) : createdAt.toString();
+        String raw = ordering.name() + SEPARATOR + position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ComplaintSearchCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\|", -1);
+            Long id = Long.parseLong(parts[2]);
+            return Ordering.valueOf(parts[0]) == Ordering.RELEVANCE
+                    ? byRelevance(Float.parseFloat(parts[1]), id)
+                    : byRecency(LocalDateTime.parse(parts[1]), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Complaint;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Search result row: the list-view summary plus its text-search rank (higher = more relevant)
+@Getter
+public class ComplaintSearchHit extends ComplaintSummary {
+
+    private final float rank;
+
+    public ComplaintSearchHit(Long id, String title, String descriptionPreview, String category, String subcategory,
+                              String location, Complaint.Status status, Complaint.Priority priority,
+                              LocalDateTime createdAt, LocalDateTime updatedAt,
+                              Long userId, String userName, String userEmail, float rank) {
+        super(id, title, descriptionPreview, category, subcategory, location, status, priority,
+                createdAt, updatedAt, userId, userName, userEmail);
+        this.rank = rank;
+    }
+}
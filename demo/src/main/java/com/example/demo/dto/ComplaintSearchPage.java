@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// A search results page plus the ordering the server chose for this query (kept for all its pages)
+@Getter
+public class ComplaintSearchPage extends ComplaintPage<ComplaintSearchHit> {
+
+    private final ComplaintSearchCursor.Ordering ordering;
+
+    public ComplaintSearchPage(List<ComplaintSearchHit> items, String nextCursor, boolean hasMore,
+                               ComplaintSearchCursor.Ordering ordering) {
+        super(items, nextCursor, hasMore);
+        this.ordering = ordering;
+    }
+}
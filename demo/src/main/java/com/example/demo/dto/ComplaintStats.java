@@ -0,0 +1,40 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Complaint;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dashboard aggregates for a role's scope: totals by status and priority, and status counts per category.
+ * Every status / priority key is present (zero when empty).
+ */
+@Getter
+public class ComplaintStats {
+
+    private long total;
+    private final Map<Complaint.Status, Long> byStatus = zeroed(Complaint.Status.class);
+    private final Map<Complaint.Priority, Long> byPriority = zeroed(Complaint.Priority.class);
+    private final Map<String, Map<Complaint.Status, Long>> byCategory = new TreeMap<>();
+
+    public void add(ComplaintCount bucket) {
+        if (bucket.getCount() == 0) {
+            return;
+        }
+        total += bucket.getCount();
+        byStatus.merge(bucket.getStatus(), bucket.getCount(), Long::sum);
+        byPriority.merge(bucket.getPriority(), bucket.getCount(), Long::sum);
+        byCategory.computeIfAbsent(bucket.getCategory(), c -> zeroed(Complaint.Status.class))
+                .merge(bucket.getStatus(), bucket.getCount(), Long::sum);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> zeroed(Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counts.put(value, 0L);
+        }
+        return counts;
+    }
+}
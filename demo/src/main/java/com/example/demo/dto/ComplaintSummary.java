@@ -0,0 +1,60 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Complaint;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of a complaint list view, built directly by JPQL constructor expressions.
+ * Carries only a short description preview and the submitter's id/name/email: no TEXT column,
+ * no contact number, no status history. The full complaint is served by GET /api/complaints/{id}.
+ */
+@Getter
+public class ComplaintSummary {
+
+    // Characters of the description included in list rows
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 200;
+
+    private final Long id;
+    private final String title;
+    private final String descriptionPreview;
+    private final String category;
+    private final String subcategory;
+    private final String location;
+    private final Complaint.Status status;
+    private final Complaint.Priority priority;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Submitter user;
+
+    public ComplaintSummary(Long id, String title, String descriptionPreview, String category, String subcategory,
+                            String location, Complaint.Status status, Complaint.Priority priority,
+                            LocalDateTime createdAt, LocalDateTime updatedAt,
+                            Long userId, String userName, String userEmail) {
+        this.id = id;
+        this.title = title;
+        this.descriptionPreview = descriptionPreview;
+        this.category = category;
+        this.subcategory = subcategory;
+        this.location = location;
+        this.status = status;
+        this.priority = priority;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.user = new Submitter(userId, userName, userEmail);
+    }
+
+    @Getter
+    public static class Submitter {
+        private final Long id;
+        private final String name;
+        private final String email;
+
+        public Submitter(Long id, String name, String email) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+import com.example.demo.events.ComplaintChangedEvent;
+import com.example.demo.model.Complaint;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Data of a "complaint" event on GET /api/complaints/events
+@Getter
+public class ComplaintUpdateEvent {
+
+    private final Long complaintId;
+    private final String category;
+    private final ComplaintChangedEvent.Kind kind;
+    private final Complaint.Status status;
+    private final Complaint.Priority priority;
+    private final String message;
+    private final String updatedBy;
+    private final LocalDateTime at;
+
+    public ComplaintUpdateEvent(ComplaintChangedEvent.Kind kind, ComplaintChangedEvent.Change change, String category) {
+        this.complaintId = change.getComplaintId();
+        this.category = category;
+        this.kind = kind;
+        this.status = change.getStatus();
+        this.priority = change.getPriority();
+        this.message = change.getMessage();
+        this.updatedBy = change.getUpdatedBy();
+        this.at = change.getAt();
+    }
+}
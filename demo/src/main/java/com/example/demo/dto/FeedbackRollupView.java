@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.FeedbackRollup;
+import lombok.Getter;
+
+// One feedback rollup row as served by /api/feedback/analytics; averages/rates are null when nothing was answered
+@Getter
+public class FeedbackRollupView {
+
+    private final FeedbackRollup.Dimension dimension;
+    private final String key;
+    private final String label;
+    private final long feedbackCount;
+    private final Double averageRating;
+    private final Double fullySolvedRate;
+    private final Double recommendRate;
+
+    public FeedbackRollupView(FeedbackRollup rollup, String label) {
+        this.dimension = rollup.getId().getDimension();
+        this.key = rollup.getId().getDimensionKey();
+        this.label = label;
+        this.feedbackCount = rollup.getFeedbackCount();
+        this.averageRating = ratio(rollup.getRatingSum(), rollup.getRatingCount());
+        this.fullySolvedRate = ratio(rollup.getFullySolvedYes(), rollup.getFullySolvedAnswers());
+        this.recommendRate = ratio(rollup.getRecommendYes(), rollup.getRecommendAnswers());
+    }
+
+    private static Double ratio(long part, long total) {
+        return total == 0 ? null : (double) part / total;
+    }
+}
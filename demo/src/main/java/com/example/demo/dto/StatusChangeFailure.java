@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Complaint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Queued status change that could not be applied (status_change_failures), see StatusHistoryWriter
+@Getter
+@AllArgsConstructor
+public class StatusChangeFailure {
+
+    private final Long id;
+    private final Long complaintId;
+    private final Complaint.Status status;
+    private final String message;
+    private final String workProgress;
+    private final String nextSteps;
+    private final LocalDate expectedCompletionDate;
+    private final Long updatedByUserId;
+    private final LocalDate requestedOn;
+    private final String error;
+    private final LocalDateTime failedAt;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Complaint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Answer of update-status: the requested change, and the complaint's version once it is applied (null while
+// it is queued, see StatusHistoryWriter)
+@Getter
+@AllArgsConstructor
+public class StatusChangeResult {
+    private final Long complaintId;
+    private final Complaint.Status status;
+    private final boolean queued;
+    private final Long version;
+}
@@ -0,0 +1,8 @@
+package com.example.demo.events;
+
+/**
+ * Published by CategoryRoutingService after it switched to a changed routing table, so components
+ * that keep per-user category scopes (open event streams) can recompute them.
+ */
+public class CategoryRoutesChangedEvent {
+}
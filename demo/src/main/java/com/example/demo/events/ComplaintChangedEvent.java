@@ -0,0 +1,35 @@
+package com.example.demo.events;
+
+import com.example.demo.model.Complaint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by ComplaintService when complaints change status or priority (one event per call, so a
+ * bulk update is one event). ComplaintEventHub delivers it to subscribers once the change is committed.
+ */
+@Getter
+@AllArgsConstructor
+public class ComplaintChangedEvent {
+
+    public enum Kind {
+        STATUS, PRIORITY
+    }
+
+    private final Kind kind;
+    private final List<Change> changes;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Change {
+        private final Long complaintId;
+        private final Complaint.Status status;     // null for PRIORITY changes
+        private final Complaint.Priority priority; // null for STATUS changes
+        private final String message;
+        private final String updatedBy;
+        private final LocalDateTime at;
+    }
+}
@@ -0,0 +1,413 @@
+package com.example.demo.events;
+
+import com.example.demo.dto.ComplaintScopeView;
+import com.example.demo.dto.ComplaintUpdateEvent;
+import com.example.demo.model.User;
+import com.example.demo.repository.ComplaintRepository;
+import com.example.demo.security.TokenRevocationList;
+import com.example.demo.service.CategoryRoutingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Server-sent event streams of complaint changes (GET /api/complaints/events).
+ *
+ * Subscribers are indexed by what they may see: students by user id (their own complaints), wardens
+ * and faculty by the categories routed to them (re-indexed when the routing table changes), admins
+ * get everything. Committed ComplaintChangedEvents are routed with
+ * one scope query per event, rendered to an SSE frame once and offered to each matching subscriber's
+ * bounded buffer. A small pool drains buffers to the connections (everything buffered in one write),
+ * so an idle connection costs no thread, only its emitter and buffer. In virtual-thread mode every
+ * drain runs on its own virtual thread instead, so a client stalled mid-write parks only that. When a client reads too slowly
+ * and its buffer fills up, the buffer is replaced by a single "resync" event telling it to reload,
+ * and further events are dropped until the resync has been written.
+ *
+ * A stream lasts no longer than the token it was opened with: it is closed once the token expires or is
+ * revoked (logout, role or email change, deletion), at once for revocations on this instance
+ * (TokensRevokedEvent) and at the next heartbeat for those on another one (TokenRevocationList).
+ */
+@Component
+public class ComplaintEventHub implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintEventHub.class);
+
+    // Buffer entries besides rendered "complaint" frames (Strings)
+    private static final Object HEARTBEAT = new Object();
+    private static final Object RESYNC = new Object();
+    private static final String HEARTBEAT_FRAME = ":keep-alive\n\n";
+    private static final String RESYNC_FRAME = "event:resync\ndata:reload\n\n";
+    private static final MediaType FRAME_TYPE = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    // Frames written per send at most; a backlog is written in chunks of about this size
+    private static final int MAX_WRITE_CHARS = 16 * 1024;
+
+    private final ComplaintRepository complaintRepository;
+    private final CategoryRoutingService categoryRouting;
+    private final TokenRevocationList revocationList;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long heartbeatSeconds;
+    private final int deliveryThreads;
+    private final boolean virtualThreads;
+    private final Counter droppedEvents;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> byOwner = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Short, Set<Subscriber>> byCategory = new ConcurrentHashMap<>();
+    private final Set<Subscriber> admins = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private volatile Executor delivery;
+    private volatile ScheduledExecutorService heartbeat;
+
+    public ComplaintEventHub(ComplaintRepository complaintRepository,
+                             CategoryRoutingService categoryRouting,
+                             TokenRevocationList revocationList,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             Environment environment,
+                             @Value("${complaints.events.timeout-ms:1800000}") long emitterTimeoutMillis,
+                             @Value("${complaints.events.buffer-size:256}") int bufferSize,
+                             @Value("${complaints.events.max-subscribers:10000}") int maxSubscribers,
+                             @Value("${complaints.events.heartbeat-seconds:25}") long heartbeatSeconds,
+                             @Value("${complaints.events.delivery-threads:4}") int deliveryThreads) {
+        this.complaintRepository = complaintRepository;
+        this.categoryRouting = categoryRouting;
+        this.revocationList = revocationList;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatSeconds = heartbeatSeconds;
+        this.deliveryThreads = deliveryThreads;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.droppedEvents = Counter.builder("complaints.events.dropped")
+                .description("Buffered complaint events discarded because a subscriber read too slowly")
+                .register(meterRegistry);
+        Gauge.builder("complaints.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open complaint event streams")
+                .register(meterRegistry);
+    }
+
+    // ✅ Open a stream for this user, until `token` (its claims, null for none to check) expires or is revoked;
+    // throws IllegalStateException when the subscriber limit is reached
+    public SseEmitter subscribe(User user, Claims token) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        try {
+            // Sent before the emitter is returned, so Spring writes it (and commits the response headers) on
+            // the request thread; a first write from the delivery pool would race the filters still running there
+            emitter.send(SseEmitter.event().name("connected").data("ok"));
+        } catch (IOException e) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Could not open event stream", e);
+        }
+        Subscriber subscriber = new Subscriber(emitter, user, token, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        all.add(subscriber);
+        switch (user.getRole()) {
+            case STUDENT:
+                register(byOwner, user.getId(), subscriber);
+                break;
+            case ADMIN:
+                admins.add(subscriber);
+                break;
+            default:
+                rescope(subscriber);
+        }
+        return emitter;
+    }
+
+    // ✅ Routing table changed: move category subscribers to their new categories
+    @EventListener
+    public void onCategoryRoutesChanged(CategoryRoutesChangedEvent event) {
+        for (Subscriber subscriber : all) {
+            if (subscriber.user.getRole() != User.Role.STUDENT && subscriber.user.getRole() != User.Role.ADMIN) {
+                rescope(subscriber);
+            }
+        }
+    }
+
+    // ✅ The user's tokens were revoked here: close their streams now rather than at the next heartbeat
+    @EventListener
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        for (Subscriber subscriber : all) {
+            if (subscriber.user.getEmail().equals(event.getEmail())) {
+                close(subscriber, "tokens revoked");
+            }
+        }
+    }
+
+    // Under the subscriber's lock, and only while it is subscribed, so unsubscribe never misses a category
+    private void rescope(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (!all.contains(subscriber)) {
+                return;
+            }
+            List<Short> categoryIds = categoryRouting.categoryIdsFor(subscriber.user);
+            for (Short categoryId : subscriber.categoryIds) {
+                if (!categoryIds.contains(categoryId)) {
+                    deregister(byCategory, categoryId, subscriber);
+                }
+            }
+            for (Short categoryId : categoryIds) {
+                register(byCategory, categoryId, subscriber);
+            }
+            subscriber.categoryIds = categoryIds;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!all.remove(subscriber)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        deregister(byOwner, subscriber.userId, subscriber);
+        synchronized (subscriber) {
+            for (Short categoryId : subscriber.categoryIds) {
+                deregister(byCategory, categoryId, subscriber);
+            }
+        }
+        admins.remove(subscriber);
+    }
+
+    private void close(Subscriber subscriber, String reason) {
+        logger.debug("Event stream of user {} closed: {}", subscriber.userId, reason);
+        unsubscribe(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    // Sets are added to and emptied inside compute, so a set is never dropped while being joined
+    private static <K> void register(Map<K, Set<Subscriber>> index, K key, Subscriber subscriber) {
+        index.compute(key, (k, set) -> {
+            Set<Subscriber> target = set == null ? ConcurrentHashMap.newKeySet() : set;
+            target.add(subscriber);
+            return target;
+        });
+    }
+
+    private static <K> void deregister(Map<K, Set<Subscriber>> index, K key, Subscriber subscriber) {
+        index.computeIfPresent(key, (k, set) -> set.remove(subscriber) && set.isEmpty() ? null : set);
+    }
+
+    // ✅ Route committed changes to matching subscribers (changes outside a transaction are delivered at once).
+    // Runs on the publishing thread, so it only renders and queues: sending happens on the delivery pool.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        try {
+            List<Long> ids = event.getChanges().stream().map(ComplaintChangedEvent.Change::getComplaintId).toList();
+            Map<Long, ComplaintScopeView> scopes = complaintRepository.findScopeByIdIn(ids).stream()
+                    .collect(Collectors.toMap(ComplaintScopeView::getId, Function.identity()));
+
+            for (ComplaintChangedEvent.Change change : event.getChanges()) {
+                ComplaintScopeView scope = scopes.get(change.getComplaintId());
+                if (scope == null) {
+                    continue; // deleted meanwhile
+                }
+                String frame = "id:" + eventIds.incrementAndGet() + "\nevent:complaint\ndata:"
+                        + objectMapper.writeValueAsString(new ComplaintUpdateEvent(event.getKind(), change, scope.getCategory()))
+                        + "\n\n";
+                offerAll(byOwner.get(scope.getOwnerId()), frame);
+                offerAll(byCategory.get(scope.getCategoryId()), frame);
+                offerAll(admins, frame);
+            }
+        } catch (RuntimeException | JsonProcessingException e) {
+            // The change is already committed; a notification problem must not fail the caller
+            logger.error("❌ Failed to publish complaint events: {}", e.getMessage(), e);
+        }
+    }
+
+    private void offerAll(Set<Subscriber> subscribers, Object payload) {
+        if (subscribers != null) {
+            for (Subscriber subscriber : subscribers) {
+                offer(subscriber, payload);
+            }
+        }
+    }
+
+    private void offer(Subscriber subscriber, Object payload) {
+        if (subscriber.resyncPending) {
+            // The client reloads anyway once it reads the resync
+            droppedEvents.increment();
+            return;
+        }
+        if (!subscriber.buffer.offer(payload)) {
+            // Backpressure: the client is too far behind to catch up event by event
+            subscriber.resyncPending = true;
+            int dropped = subscriber.buffer.size() + 1;
+            subscriber.buffer.clear();
+            subscriber.buffer.offer(RESYNC);
+            droppedEvents.increment(dropped);
+            logger.warn("⚠️ Event buffer of user {} overflowed, {} event(s) replaced by a resync", subscriber.userId, dropped);
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        Executor executor = delivery;
+        if (executor != null && subscriber.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            StringBuilder frames = new StringBuilder();
+            Object payload;
+            while ((payload = subscriber.buffer.poll()) != null) {
+                frames.append(payload == HEARTBEAT ? HEARTBEAT_FRAME : payload == RESYNC ? RESYNC_FRAME : (String) payload);
+                if (payload == RESYNC || frames.length() >= MAX_WRITE_CHARS || subscriber.buffer.isEmpty()) {
+                    subscriber.emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(frames.toString(), FRAME_TYPE)));
+                    frames.setLength(0);
+                }
+                if (payload == RESYNC) {
+                    // Events from here on are newer than what the client will reload
+                    subscriber.resyncPending = false;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter already completed)
+            logger.debug("Event stream of user {} closed: {}", subscriber.userId, e.toString());
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // Something arrived between the last poll and clearing the flag
+        if (!subscriber.buffer.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that disappeared; closes streams whose
+    // token expired or was revoked (token versions are cached: a query per user every few heartbeats at most)
+    private void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : all) {
+            if (subscriber.token != null && (subscriber.token.getExpiration().getTime() <= now || isRevoked(subscriber))) {
+                close(subscriber, "token expired or revoked");
+            } else if (subscriber.buffer.isEmpty()) {
+                offer(subscriber, HEARTBEAT);
+            }
+        }
+    }
+
+    // Kept open when the check itself fails: an exception would also cancel the heartbeat task
+    private boolean isRevoked(Subscriber subscriber) {
+        try {
+            return revocationList.isRevoked(subscriber.token);
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Could not check the token of event stream subscriber {}: {}", subscriber.userId, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (virtualThreads) {
+            delivery = new VirtualThreadTaskExecutor("complaint-events-");
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            delivery = Executors.newFixedThreadPool(deliveryThreads, r -> {
+                Thread thread = new Thread(r, "complaint-events-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "complaint-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void stop() {
+        heartbeat.shutdownNow();
+        if (delivery instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+        // Complete open streams so the web server does not wait for them on shutdown
+        for (Subscriber subscriber : new ArrayList<>(all)) {
+            unsubscribe(subscriber);
+            subscriber.emitter.complete();
+        }
+        delivery = null;
+        heartbeat = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return delivery != null;
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final User user;
+        final Long userId;
+        final Claims token;
+        final BlockingQueue<Object> buffer;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // Category ids it is registered under in byCategory (guarded by the subscriber's lock)
+        List<Short> categoryIds = List.of();
+        volatile boolean resyncPending;
+
+        Subscriber(SseEmitter emitter, User user, Claims token, BlockingQueue<Object> buffer) {
+            this.emitter = emitter;
+            this.user = user;
+            this.userId = user.getId();
+            this.token = token;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.events;
+
+import com.example.demo.model.Complaint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by ComplaintService when complaints were created, edited, changed status or deleted.
+ * DuplicateComplaintIndex applies it once the change is committed, so a rolled-back write (or a retried
+ * attempt) never reaches the index.
+ */
+@Getter
+@AllArgsConstructor
+public class ComplaintsWrittenEvent {
+
+    private final List<Complaint> complaints;
+    // false when only status / priority changed: complaints already indexed keep their signature
+    private final boolean contentChanged;
+    private final List<Long> deletedIds;
+
+    public static ComplaintsWrittenEvent saved(Complaint complaint) {
+        return new ComplaintsWrittenEvent(List.of(complaint), true, List.of());
+    }
+
+    public static ComplaintsWrittenEvent statusChanged(List<Complaint> complaints) {
+        return new ComplaintsWrittenEvent(complaints, false, List.of());
+    }
+
+    public static ComplaintsWrittenEvent deleted(Long id) {
+        return new ComplaintsWrittenEvent(List.of(), false, List.of(id));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by TokenRevocationList when a user's tokens stop being accepted (logout, role or email change,
+ * deletion), so components that hold on to what such a token opened (event streams) can close it.
+ */
+@Getter
+@AllArgsConstructor
+public class TokensRevokedEvent {
+    private final String email;
+}
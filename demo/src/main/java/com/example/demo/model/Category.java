@@ -0,0 +1,42 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A complaint category (Hostel, Mess, ...). Complaints, complaint_counters and category_routes refer
+ * to it by its smallint id instead of repeating the name, which keeps their rows and indexes narrow
+ * and makes scope filters integer comparisons. Names are unique ignoring case (see
+ * V2__normalize_categories.sql); rows are never renamed or deleted, so they are cached read-only.
+ *
+ * Serialized as its name, so complaint JSON keeps "category": "Hostel".
+ */
+@Entity
+@Immutable
+@Table(name = "categories")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "categories")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class Category {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short id;
+
+    @Column(nullable = false, unique = true, length = 50)
+    private String name;
+
+    @JsonValue
+    public String getName() {
+        return name;
+    }
+}
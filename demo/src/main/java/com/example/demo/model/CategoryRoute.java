@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of the routing table: authorities of `role` handle complaints of `category`. A row
+ * without department / staffId applies to the whole role; with a department only to users of that
+ * role in that department (User.department), with a staffId only to that staff member
+ * (User.staffId). A user's scope is the union of all rows that apply to them.
+ *
+ * Read by CategoryRoutingService, which compiles the table into an in-memory index and reloads it
+ * when it changes (seeded by V10__category_routes.sql, edited through /api/admin/category-routes).
+ */
+@Entity
+@Table(name = "category_routes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryRoute {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private User.Role role;
+
+    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    private String department; // null = every department
+
+    private String staffId;    // null = every staff member (of the department, if set)
+}
@@ -3,6 +3,9 @@ package com.example.demo.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import jakarta.persistence.OneToMany;
@@ -11,11 +14,19 @@ import java.util.List;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 @Entity
+// Table, indexes and triggers (counters, search_vector) are created by the migrations in db/migration
 @Table(name = "complaints")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder   // ✅ enables Complaint.builder()
+// ✅ Second-level cached by id. statusUpdates is not: history rows are inserted on their own
+// (ComplaintStatusUpdate saves, without touching this list), which would leave a cached collection stale.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "complaints")
+// ✅ Entity updates write the full row, guarded by the version (see `version`): Hibernate only batches
+// static UPDATE statements. Status and priority changes skip the entity and run as compare-and-set
+// statements of their own (ComplaintRepositoryCustom.compareAndSetStatus).
+// The search_vector trigger skips rows whose searched columns did not change (V7).
 public class Complaint {
 
     @Id
@@ -34,11 +45,14 @@ public class Complaint {
     private List<ComplaintStatusUpdate> statusUpdates = new ArrayList<>();
 
     // Extra Fields (matching frontend form)
-    @Column(nullable = false)
-    private String category;
+    // ✅ Category / subcategory are reference rows (small integer keys), serialized by name
+    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
 
-    @Column(nullable = false)
-    private String subcategory;
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "subcategory_id")
+    private Subcategory subcategory;
 
     @Column(nullable = false)
     private String location;
@@ -56,8 +70,23 @@ public class Complaint {
     @Column(nullable = false)
     private Priority priority;
 
+    // Earlier open complaint this one was detected as a likely duplicate of (null when none);
+    // kept as a plain id so the complaint JSON stays flat
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+
+    // ✅ Optimistic lock: every update is UPDATE ... WHERE id = ? AND version = ? and bumps it, so a write
+    // based on an outdated read fails instead of overwriting a concurrent change (ComplaintService retries)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     // Audit Fields
+    // Required (keyset pages seek on created_at, id; see V15) and never changed after the insert
     @CreationTimestamp
+    @ColumnDefault("now()")
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
@@ -69,6 +98,11 @@ public class Complaint {
     @JsonIgnoreProperties({"password", "authorities"})
     private User user;
 
+    // ✅ true on read-only copies of archived complaints (ComplaintService.getComplaintByIdIncludingArchived);
+    // rows of this table are never archived
+    @Transient
+    private boolean archived;
+
     // ✅ Enums
     public enum Status {
         NEW, IN_PROGRESS, RESOLVED, REJECTED
@@ -0,0 +1,50 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Number of complaints per (category id, status, priority). Maintained by Postgres triggers on
+ * complaints (see V5__complaint_counters.sql) in the same transaction as every insert, delete and
+ * category/status/priority change, so the application only ever reads it. Archived complaints are
+ * still counted: moving them to complaints_archive is not a delete for the triggers (V12).
+ */
+@Entity
+@Immutable
+@Table(name = "complaint_counters")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplaintCounter {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "complaint_count", nullable = false)
+    private long complaintCount;
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "category_id", nullable = false)
+        private Short categoryId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private Complaint.Status status;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private Complaint.Priority priority;
+    }
+}
@@ -9,16 +9,20 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+// Partitioned by month of updated_at (V12__history_partitions_and_archive.sql); history reads pass a lower bound
+// on updated_at so only the partitions from the complaint's creation on are searched
 @Table(name = "complaint_status_updates")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 public class ComplaintStatusUpdate {
 
+    // Sequence (not IDENTITY) so Hibernate can batch history inserts; ids are pre-allocated 50 at a time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "complaint_status_updates_seq")
+    @SequenceGenerator(name = "complaint_status_updates_seq", sequenceName = "complaint_status_updates_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.REMOVE)
@@ -39,7 +43,8 @@ public class ComplaintStatusUpdate {
     @JsonIgnore            // ← prevents serializing the lazy proxy
     private User updatedByUser;
 
-    @Column(name = "updated_at")
+    // Partition key: required, and never before the complaint's creation date
+    @Column(name = "updated_at", nullable = false)
     private LocalDate updatedAt;
 
     // Work progress tracking fields
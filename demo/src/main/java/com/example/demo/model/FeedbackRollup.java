@@ -0,0 +1,68 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Running feedback totals for one category, one resolver (user id of the authority that resolved the
+ * complaint) or one week (ISO date of its Monday). Written only by FeedbackAnalyticsService
+ * (incremental upserts and full rebuilds); averages and rates are derived when read.
+ */
+@Entity
+@Immutable
+@Table(name = "feedback_rollups")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackRollup {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "feedback_count", nullable = false)
+    private long feedbackCount;
+
+    // Ratings / answers are optional in a submission, so each metric keeps its own denominator
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "fully_solved_answers", nullable = false)
+    private long fullySolvedAnswers;
+
+    @Column(name = "fully_solved_yes", nullable = false)
+    private long fullySolvedYes;
+
+    @Column(name = "recommend_answers", nullable = false)
+    private long recommendAnswers;
+
+    @Column(name = "recommend_yes", nullable = false)
+    private long recommendYes;
+
+    public enum Dimension {
+        CATEGORY, RESOLVER, WEEK
+    }
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private Dimension dimension;
+
+        @Column(name = "dimension_key", nullable = false)
+        private String dimensionKey;
+    }
+}
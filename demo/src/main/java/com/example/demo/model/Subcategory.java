@@ -0,0 +1,42 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A subcategory within a Category (Mess / Food Quality, ...), referenced by complaints.subcategory_id.
+ * Unique per category ignoring case (see V2__normalize_categories.sql); new names are added on first use
+ * (CategoryService). Serialized as its name.
+ */
+@Entity
+@Immutable
+@Table(name = "subcategories")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "subcategories")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class Subcategory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "category_id", nullable = false)
+    private Short categoryId;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @JsonValue
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Every complaint, active or archived: the complaints_all view (complaints UNION ALL complaints_archive,
+ * see V12__history_partitions_and_archive.sql). List, page, search and stats reads go through it, so
+ * archiving a complaint does not take it out of anyone's results; Postgres plans each query once per table
+ * (pages as a merge of the two index scans) and leaves complaints_archive out when only open statuses are
+ * asked for. Read-only: complaints are changed through {@link Complaint}, which maps the active table.
+ */
+@Entity
+@Immutable
+@Table(name = "complaints_all")
+@Getter
+@NoArgsConstructor
+public class UnifiedComplaint {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "category_id")
+    private Category category;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "subcategory_id")
+    private Subcategory subcategory;
+
+    private String location;
+
+    @Column(name = "contact_number")
+    private String contactNumber;
+
+    @Enumerated(EnumType.STRING)
+    private Complaint.Status status;
+
+    @Enumerated(EnumType.STRING)
+    private Complaint.Priority priority;
+
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+
+    private long version;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    // true for rows of complaints_archive
+    private boolean archived;
+
+    // When the complaint was moved to complaints_archive (null while active)
+    private LocalDateTime archivedAt;
+}
@@ -2,6 +2,10 @@ package com.example.demo.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,6 +15,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+// ✅ Second-level cached by id, and by email through the natural-id cache (see UserRepositoryCustom)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,6 +30,7 @@ public class User implements UserDetails {
 
     private String name;
 
+    @NaturalId(mutable = true)  // users can change their email
     @Column(unique = true, nullable = false)
     private String email;
 
@@ -0,0 +1,133 @@
+package com.example.demo.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives every JDBC statement from the proxied DataSource. Records a db.query latency
+ * histogram tagged by controller method and SQL operation, adds the statement to the
+ * current request's QueryStats and logs slow statements with the shape (not the values)
+ * of their bind parameters.
+ */
+@Component
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetricsListener.class);
+
+    private static final String START_NANOS = "queryMetrics.startNanos";
+    private static final String NO_REQUEST = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public QueryMetricsListener(MeterRegistry meterRegistry,
+                                @Value("${monitoring.queries.slow-threshold-ms:200}") long slowThresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long nanos = start != null ? System.nanoTime() - start : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+
+        QueryStats stats = QueryStats.current();
+        String handler = stats != null ? stats.getHandler() : NO_REQUEST;
+        String operation = operationOf(sql);
+
+        timers.computeIfAbsent(handler + '|' + operation, k -> Timer.builder("db.query")
+                        .description("JDBC statement execution time")
+                        .tag("handler", handler)
+                        .tag("operation", operation)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (stats != null) {
+            stats.record(sql, nanos);
+        }
+
+        if (nanos >= slowThresholdNanos) {
+            logger.warn("🐢 Slow query ({} ms) in {}{}: {} params={}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), handler,
+                    execInfo.isBatch() ? " [batch of " + execInfo.getBatchSize() + "]" : "",
+                    sql, parameterShapes(queryInfoList));
+        }
+    }
+
+    private static String operationOf(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        switch (keyword) {
+            case "select":
+            case "insert":
+            case "update":
+            case "delete":
+            case "with":
+                return keyword;
+            default:
+                return "other";
+        }
+    }
+
+    // Types and sizes of the bind values of the first parameter set, e.g. [Long, String(12), null]
+    private static String parameterShapes(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()) {
+            return "[]";
+        }
+        StringJoiner shapes = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation op : queryInfoList.get(0).getParametersList().get(0)) {
+            Object[] args = op.getArgs();
+            if (ParameterSetOperation.isSetNullParameterOperation(op) || args.length < 2) {
+                shapes.add("null");
+            } else {
+                shapes.add(shapeOf(args[1]));
+            }
+        }
+        return shapes.toString();
+    }
+
+    private static String shapeOf(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof CharSequence s) {
+            return "String(" + s.length() + ")";
+        }
+        if (value instanceof Collection<?> c) {
+            return "Collection(" + c.size() + ")";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+}
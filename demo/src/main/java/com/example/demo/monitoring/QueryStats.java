@@ -0,0 +1,72 @@
+package com.example.demo.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements executed while serving one HTTP request (including lazy loads during
+ * JSON serialization, since open-in-view keeps the session until the response is written).
+ * Bound to the request thread by QueryStatsFilter and filled in by QueryMetricsListener.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    static final String UNMAPPED = "unmapped";
+
+    private String handler = UNMAPPED;
+    private int count;
+    private long elapsedNanos;
+    private final Map<String, Integer> countsBySql = new HashMap<>();
+
+    private QueryStats() {
+    }
+
+    static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // Null outside a request (startup, status-history writer thread, ...)
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void record(String sql, long nanos) {
+        count++;
+        elapsedNanos += nanos;
+        countsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    // Statement text executed most often in this request, used to spot N+1 patterns
+    Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> max = null;
+        for (Map.Entry<String, Integer> e : countsBySql.entrySet()) {
+            if (max == null || e.getValue() > max.getValue()) {
+                max = e;
+            }
+        }
+        return max;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    void setHandler(String handler) {
+        this.handler = handler;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
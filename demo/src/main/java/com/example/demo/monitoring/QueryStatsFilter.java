@@ -0,0 +1,120 @@
+package com.example.demo.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a QueryStats scope around the whole request (outside Spring Security and open-in-view,
+ * so lazy loads during serialization are counted) and, when it ends, records
+ * db.queries.per.request tagged by controller method and warns about likely N+1 patterns:
+ * too many statements overall, or the same statement repeated many times.
+ *
+ * With monitoring.queries.response-header.enabled (dev profile) the response is buffered so
+ * X-Query-Count / X-Query-Time-Ms can be added after the body has been rendered (except for
+ * text/event-stream requests and complaint exports, which are streamed).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    // GET /api/complaints/export (ComplaintController.exportComplaints)
+    private static final String EXPORT_PATH = "/api/complaints/export";
+    // GET /api/complaints/events (ComplaintController.streamEvents), a stream whatever the Accept header says
+    private static final String EVENTS_PATH = "/api/complaints/events";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean responseHeaderEnabled;
+    private final int perRequestWarnThreshold;
+    private final int repeatedStatementThreshold;
+
+    public QueryStatsFilter(MeterRegistry meterRegistry,
+                            @Value("${monitoring.queries.response-header.enabled:false}") boolean responseHeaderEnabled,
+                            @Value("${monitoring.queries.per-request-warn-threshold:25}") int perRequestWarnThreshold,
+                            @Value("${monitoring.queries.repeated-statement-threshold:5}") int repeatedStatementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.responseHeaderEnabled = responseHeaderEnabled;
+        this.perRequestWarnThreshold = perRequestWarnThreshold;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin();
+        // Event streams and exports must reach the client as they are written, never buffered
+        String uri = request.getRequestURI();
+        boolean streamed = isEventStream(request) || uri.endsWith(EVENTS_PATH) || uri.endsWith(EXPORT_PATH);
+        ContentCachingResponseWrapper buffered = responseHeaderEnabled && !streamed
+                ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            QueryStats.end();
+            record(request, stats);
+            if (buffered != null) {
+                if (!buffered.isCommitted()) {
+                    buffered.setHeader(QUERY_COUNT_HEADER, String.valueOf(stats.getCount()));
+                    buffered.setHeader(QUERY_TIME_HEADER,
+                            String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getElapsedNanos())));
+                }
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        String handler = stats.getHandler();
+        if (QueryStats.UNMAPPED.equals(handler) && stats.getCount() == 0) {
+            return;
+        }
+
+        DistributionSummary.builder("db.queries.per.request")
+                .description("JDBC statements executed per HTTP request")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(stats.getCount());
+
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatedStatementThreshold) {
+            Counter.builder("db.n_plus_one.suspected")
+                    .description("Requests that executed the same statement repeatedly")
+                    .tag("handler", handler)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("⚠️ Possible N+1 in {} ({} {}): statement executed {} times: {}",
+                    handler, request.getMethod(), request.getRequestURI(), repeated.getValue(), repeated.getKey());
+        } else if (stats.getCount() >= perRequestWarnThreshold) {
+            logger.warn("⚠️ {} ({} {}) executed {} statements",
+                    handler, request.getMethod(), request.getRequestURI(), stats.getCount());
+        }
+    }
+}
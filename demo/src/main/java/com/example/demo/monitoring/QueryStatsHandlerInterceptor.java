@@ -0,0 +1,24 @@
+package com.example.demo.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Tags the current request's QueryStats with the controller method that handles it
+ * (e.g. ComplaintController.getComplaints), so query metrics are reported per endpoint.
+ */
+@Component
+public class QueryStatsHandlerInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null && handler instanceof HandlerMethod method) {
+            stats.setHandler(method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        }
+        return true;
+    }
+}
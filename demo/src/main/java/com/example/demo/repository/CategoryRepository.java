@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CategoryRepository extends JpaRepository<Category, Short> {
+}
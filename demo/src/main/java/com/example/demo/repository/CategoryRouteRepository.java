@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.CategoryRoute;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CategoryRouteRepository extends JpaRepository<CategoryRoute, Long> {
+}
@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ComplaintCount;
+import com.example.demo.model.ComplaintCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ComplaintCounterRepository extends JpaRepository<ComplaintCounter, ComplaintCounter.Key> {
+
+    String COUNT_SELECT = "SELECT new com.example.demo.dto.ComplaintCount("
+            + "k.name, c.id.status, c.id.priority, c.complaintCount) "
+            + "FROM ComplaintCounter c JOIN Category k ON k.id = c.id.categoryId";
+
+    // ✅ Counter rows for the given categories (at most categories x statuses x priorities rows)
+    @Query(COUNT_SELECT + " WHERE c.id.categoryId IN :categoryIds")
+    List<ComplaintCount> findCountsByCategoryIdIn(@Param("categoryIds") Collection<Short> categoryIds);
+
+    // ✅ Every counter row (ADMIN)
+    @Query(COUNT_SELECT)
+    List<ComplaintCount> findAllCounts();
+}
@@ -1,29 +1,80 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ComplaintCount;
+import com.example.demo.dto.ComplaintScopeView;
+import com.example.demo.dto.ComplaintSummary;
 import com.example.demo.model.Complaint;
+import com.example.demo.model.UnifiedComplaint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
+public interface ComplaintRepository extends JpaRepository<Complaint, Long>, ComplaintRepositoryCustom {
 
     // ✅ Get complaints of a specific user
     List<Complaint> findByUser_Id(Long userId);
 
-    // ✅ Get all complaints with user details
-    @Query("SELECT c FROM Complaint c JOIN FETCH c.user")
-    List<Complaint> findAllWithUser();
+    // ✅ NEW: Get complaints by categories (for Warden & Faculty)
+    List<Complaint> findByCategory_IdIn(Collection<Short> categoryIds);
 
-    // ✅ Filter by Status
-    List<Complaint> findByStatus(Complaint.Status status);
+    // ✅ List views: ComplaintSummary rows built by a constructor expression, joined to the submitter
+    // and the category / subcategory names in the same statement (no entity hydration, no description
+    // TEXT, no lazy statusUpdates). Scopes filter on c.category.id, the category_id column itself.
+    // Read from UnifiedComplaint, so archived complaints are listed too.
+    String SUMMARY_SELECT = "SELECT new com.example.demo.dto.ComplaintSummary("
+            + "c.id, c.title, SUBSTRING(c.description, 1, " + ComplaintSummary.DESCRIPTION_PREVIEW_LENGTH + "), "
+            + "k.name, s.name, c.location, c.status, c.priority, c.createdAt, c.updatedAt, "
+            + "u.id, u.name, u.email) "
+            + "FROM UnifiedComplaint c JOIN c.user u JOIN c.category k LEFT JOIN c.subcategory s ";
+    String SUMMARY_ORDER = " ORDER BY c.createdAt DESC, c.id DESC";
 
-    // ✅ Filter by Priority
-    List<Complaint> findByPriority(Complaint.Priority priority);
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId" + SUMMARY_ORDER)
+    List<ComplaintSummary> findSummariesByUserId(@Param("userId") Long userId);
 
-    // ✅ Filter by both Status and Priority
-    List<Complaint> findByStatusAndPriority(Complaint.Status status, Complaint.Priority priority);
+    @Query(SUMMARY_SELECT + "WHERE c.category.id IN :categoryIds" + SUMMARY_ORDER)
+    List<ComplaintSummary> findSummariesByCategoryIdIn(@Param("categoryIds") Collection<Short> categoryIds);
 
-    // ✅ NEW: Get complaints by categories (for Warden & Faculty)
-    List<Complaint> findByCategoryIn(List<String> categories);
+    @Query(SUMMARY_SELECT + SUMMARY_ORDER)
+    List<ComplaintSummary> findAllSummaries();
+
+    // Status-aware variants of the role scopes, so status filtering happens in Postgres
+    // (backed by the (user_id, status) and (status, category_id) indexes; complaints_archive is skipped when
+    // only open statuses are asked for)
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId AND c.status IN :statuses" + SUMMARY_ORDER)
+    List<ComplaintSummary> findSummariesByUserIdAndStatusIn(@Param("userId") Long userId,
+                                                            @Param("statuses") Collection<Complaint.Status> statuses);
+
+    @Query(SUMMARY_SELECT + "WHERE c.category.id IN :categoryIds AND c.status IN :statuses" + SUMMARY_ORDER)
+    List<ComplaintSummary> findSummariesByCategoryIdInAndStatusIn(@Param("categoryIds") Collection<Short> categoryIds,
+                                                                  @Param("statuses") Collection<Complaint.Status> statuses);
+
+    @Query(SUMMARY_SELECT + "WHERE c.status IN :statuses" + SUMMARY_ORDER)
+    List<ComplaintSummary> findSummariesByStatusIn(@Param("statuses") Collection<Complaint.Status> statuses);
+
+    // ✅ Complaints linked to a parent as likely duplicates
+    @Query(SUMMARY_SELECT + "WHERE c.duplicateOfId = :parentId" + SUMMARY_ORDER)
+    List<ComplaintSummary> findSummariesByDuplicateOfId(@Param("parentId") Long parentId);
+
+    // ✅ Counts of one user's complaints (archived ones included) per (category, status, priority); bounded by
+    // that user's complaints
+    @Query("SELECT new com.example.demo.dto.ComplaintCount(k.name, c.status, c.priority, COUNT(c)) "
+            + "FROM UnifiedComplaint c JOIN c.category k WHERE c.user.id = :userId GROUP BY k.name, c.status, c.priority")
+    List<ComplaintCount> countByUserId(@Param("userId") Long userId);
+
+    // ✅ Id + category + owner of many complaints in one IN query (no entity or user loading),
+    // for event routing
+    @Query("SELECT c.id AS id, k.id AS categoryId, k.name AS category, c.user.id AS ownerId "
+            + "FROM Complaint c JOIN c.category k WHERE c.id IN :ids")
+    List<ComplaintScopeView> findScopeByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ✅ An archived complaint by id (archived = true leaves the active table out of the plan)
+    @Query("SELECT c FROM UnifiedComplaint c WHERE c.id = :id AND c.archived = true")
+    Optional<UnifiedComplaint> findArchivedById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(c) > 0 FROM UnifiedComplaint c WHERE c.id = :id AND c.archived = true")
+    boolean existsArchivedById(@Param("id") Long id);
 }
@@ -0,0 +1,72 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ComplaintCursor;
+import com.example.demo.dto.ComplaintFilter;
+import com.example.demo.dto.ComplaintSearchCursor;
+import com.example.demo.dto.ComplaintSearchHit;
+import com.example.demo.dto.ComplaintSummary;
+import com.example.demo.model.Complaint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ComplaintRepositoryCustom {
+
+    /**
+     * Complaints with the given ids, in no particular order; unknown ids are left out. Unlike
+     * findAllById this checks the persistence context and the second-level cache first and only
+     * queries the database (one IN query) for the rest.
+     */
+    List<Complaint> loadAllById(Collection<Long> ids);
+
+    /**
+     * Compare-and-set of a complaint's status: one {@code UPDATE ... WHERE id = ? AND version = ?} against the
+     * version {@code complaint} was read at, without loading the row again. When it applied, {@code complaint}
+     * is detached and carries the written status, updatedAt and version. False (nothing written, the cached
+     * copy dropped) when another writer changed the row since, or it is gone; a managed {@code complaint}
+     * whose row still exists is re-read then, so another call runs against the current version.
+     */
+    boolean compareAndSetStatus(Complaint complaint, Complaint.Status status, LocalDateTime updatedAt);
+
+    /**
+     * Compare-and-set of the statuses of several complaints in one statement, each against the version it was
+     * read at (rows locked in list order). True when every row matched: the complaints are then detached and
+     * carry what was written. False when another writer changed one of them since; the rows that did match
+     * are updated all the same, so the caller must roll back (the cached copies are dropped).
+     */
+    boolean compareAndSetStatuses(List<Complaint> complaints, Map<Long, Complaint.Status> statuses,
+                                  LocalDateTime updatedAt);
+
+    /** Compare-and-set of a complaint's priority, as {@link #compareAndSetStatus}. */
+    boolean compareAndSetPriority(Complaint complaint, Complaint.Priority priority, LocalDateTime updatedAt);
+
+    /**
+     * Keyset page ordered by (createdAt DESC, id DESC), over active and archived complaints (complaints_all).
+     *
+     * @param ownerId     restrict to one submitter (STUDENT scope), or null
+     * @param categoryIds restrict to these category ids (WARDEN/FACULTY scope), or null for all
+     * @param after       cursor of the last row of the previous page, or null for the first page
+     */
+    List<ComplaintSummary> findPage(Long ownerId, Collection<Short> categoryIds, ComplaintFilter filter,
+                                    ComplaintCursor after, int limit);
+
+    /*
+     * Full-text search over title, subcategory, location and description of active and archived complaints
+     * (Postgres only: uses the search_vector columns and their GIN indexes). query is user input in websearch
+     * syntax ("water leak", "projector -lab", "\"block c\""); scope arguments are as for findPage.
+     */
+
+    /** Matches among the newest {@code window} complaints in scope, counted up to {@code cap}. */
+    int countRecentSearchMatches(String query, Long ownerId, Collection<Short> categoryIds, ComplaintFilter filter,
+                                 int window, int cap);
+
+    /** Every match ranked, keyset-paginated by (rank DESC, id DESC); cost grows with the number of matches. */
+    List<ComplaintSearchHit> searchByRelevance(String query, Long ownerId, Collection<Short> categoryIds,
+                                               ComplaintFilter filter, ComplaintSearchCursor after, int limit);
+
+    /** Matches newest first, keyset-paginated by (createdAt DESC, id DESC); cost grows with how rare they are. */
+    List<ComplaintSearchHit> searchByRecency(String query, Long ownerId, Collection<Short> categoryIds,
+                                             ComplaintFilter filter, ComplaintSearchCursor after, int limit);
+}
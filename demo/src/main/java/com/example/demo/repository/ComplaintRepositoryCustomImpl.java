@@ -0,0 +1,339 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ComplaintCursor;
+import com.example.demo.dto.ComplaintFilter;
+import com.example.demo.dto.ComplaintSearchCursor;
+import com.example.demo.dto.ComplaintSearchHit;
+import com.example.demo.dto.ComplaintSummary;
+import com.example.demo.model.Category;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.Subcategory;
+import com.example.demo.model.UnifiedComplaint;
+import com.example.demo.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class ComplaintRepositoryCustomImpl implements ComplaintRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Transactional like Spring Data's own finders: outside a transaction the shared EntityManager
+    // would close the Session right after unwrap()
+    @Override
+    @Transactional(readOnly = true)
+    public List<Complaint> loadAllById(Collection<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Complaint.class)
+                .enableOrderedReturn(false)
+                .multiLoad(List.copyOf(ids));
+    }
+
+    @Override
+    @Transactional
+    public boolean compareAndSetStatus(Complaint complaint, Complaint.Status status, LocalDateTime updatedAt) {
+        if (!compareAndSet(complaint, "status", status.name(), updatedAt)) {
+            return false;
+        }
+        complaint.setStatus(status);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean compareAndSetStatuses(List<Complaint> complaints, Map<Long, Complaint.Status> statuses,
+                                         LocalDateTime updatedAt) {
+        int updated = entityManager.createNativeQuery("UPDATE complaints c SET status = v.status, "
+                        + "updated_at = :updatedAt, version = c.version + 1 "
+                        + "FROM unnest(:ids, :versions, :statuses) AS v(id, version, status) "
+                        + "WHERE c.id = v.id AND c.version = v.version")
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, "complaints")
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("ids", complaints.stream().map(Complaint::getId).toArray(Long[]::new))
+                .setParameter("versions", complaints.stream().map(Complaint::getVersion).toArray(Long[]::new))
+                .setParameter("statuses", complaints.stream()
+                        .map(complaint -> statuses.get(complaint.getId()).name()).toArray(String[]::new))
+                .executeUpdate();
+        if (updated < complaints.size()) {
+            complaints.forEach(complaint ->
+                    entityManager.getEntityManagerFactory().getCache().evict(Complaint.class, complaint.getId()));
+            return false;
+        }
+        for (Complaint complaint : complaints) {
+            if (entityManager.contains(complaint)) {
+                entityManager.detach(complaint);
+            }
+            complaint.setStatus(statuses.get(complaint.getId()));
+            complaint.setVersion(complaint.getVersion() + 1);
+            complaint.setUpdatedAt(updatedAt);
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean compareAndSetPriority(Complaint complaint, Complaint.Priority priority, LocalDateTime updatedAt) {
+        if (!compareAndSet(complaint, "priority", priority.name(), updatedAt)) {
+            return false;
+        }
+        complaint.setPriority(priority);
+        return true;
+    }
+
+    // The statement is declared to touch complaints only, so Hibernate invalidates that region (and no other
+    // second-level cache region) after it. The complaint is detached before it is brought in line with the
+    // row: a managed copy with the new version would be flushed as a second, conflicting update.
+    private boolean compareAndSet(Complaint complaint, String column, String value, LocalDateTime updatedAt) {
+        int updated = entityManager.createNativeQuery("UPDATE complaints SET " + column + " = :value, "
+                        + "updated_at = :updatedAt, version = version + 1 WHERE id = :id AND version = :version")
+                .setHint(HibernateHints.HINT_NATIVE_SPACES, "complaints")
+                .setParameter("value", value)
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("id", complaint.getId())
+                .setParameter("version", complaint.getVersion())
+                .executeUpdate();
+        if (updated == 0) {
+            // A cached copy at the old version would fail a retry the same way
+            entityManager.getEntityManagerFactory().getCache().evict(Complaint.class, complaint.getId());
+            boolean exists = !entityManager.createNativeQuery("SELECT 1 FROM complaints WHERE id = :id")
+                    .setParameter("id", complaint.getId())
+                    .getResultList().isEmpty();
+            if (exists && entityManager.contains(complaint)) {
+                entityManager.refresh(complaint);
+            }
+            return false;
+        }
+        if (entityManager.contains(complaint)) {
+            entityManager.detach(complaint);
+        }
+        complaint.setVersion(complaint.getVersion() + 1);
+        complaint.setUpdatedAt(updatedAt);
+        return true;
+    }
+
+    @Override
+    public List<ComplaintSummary> findPage(Long ownerId, Collection<Short> categoryIds, ComplaintFilter filter,
+                                    ComplaintCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ComplaintSummary> query = cb.createQuery(ComplaintSummary.class);
+        Root<UnifiedComplaint> c = query.from(UnifiedComplaint.class);
+        Join<UnifiedComplaint, User> u = c.join("user");
+        Join<UnifiedComplaint, Category> k = c.join("category");
+        Join<UnifiedComplaint, Subcategory> s = c.join("subcategory", JoinType.LEFT);
+        Path<Short> categoryId = c.get("category").get("id");
+
+        Path<LocalDateTime> createdAt = c.get("createdAt");
+        Path<Long> id = c.get("id");
+        List<Predicate> where = new ArrayList<>();
+
+        if (ownerId != null) {
+            where.add(cb.equal(u.get("id"), ownerId));
+        }
+        if (categoryIds != null) {
+            where.add(categoryId.in(categoryIds));
+        }
+        if (filter.getStatus() != null) {
+            where.add(cb.equal(c.get("status"), filter.getStatus()));
+        }
+        if (filter.getPriority() != null) {
+            where.add(cb.equal(c.get("priority"), filter.getPriority()));
+        }
+        if (filter.getCategoryId() != null) {
+            where.add(cb.equal(categoryId, filter.getCategoryId()));
+        }
+        if (filter.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(createdAt, filter.getFrom().atStartOfDay()));
+        }
+        if (filter.getTo() != null) {
+            where.add(cb.lessThan(createdAt, filter.getTo().plusDays(1).atStartOfDay()));
+        }
+        if (after != null) {
+            // (createdAt, id) < (:createdAt, :id) — lets the (created_at, id) indexes seek straight to the page
+            where.add(cb.or(
+                    cb.lessThan(createdAt, after.getCreatedAt()),
+                    cb.and(cb.equal(createdAt, after.getCreatedAt()), cb.lessThan(id, after.getId()))));
+        }
+
+        // Same shape as ComplaintRepository.SUMMARY_SELECT
+        query.select(cb.construct(ComplaintSummary.class,
+                        id, c.get("title"),
+                        cb.substring(c.get("description"), 1, ComplaintSummary.DESCRIPTION_PREVIEW_LENGTH),
+                        k.get("name"), s.get("name"), c.get("location"),
+                        c.get("status"), c.get("priority"), createdAt, c.get("updatedAt"),
+                        u.get("id"), u.get("name"), u.get("email")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Page columns of a search hit; m is the page (id + ordering key), q the parsed query, and the page
+    // rows are joined by SEARCH_HIT_JOINS
+    private static final String SEARCH_HIT_COLUMNS = "c.id, c.title, SUBSTRING(c.description, 1, "
+            + ComplaintSummary.DESCRIPTION_PREVIEW_LENGTH + "), k.name, sc.name, c.location, c.status, "
+            + "c.priority, c.created_at, c.updated_at, u.id, u.name, u.email";
+
+    private static final String SEARCH_HIT_JOINS = "JOIN complaints_all c ON c.id = m.id JOIN users u ON u.id = c.user_id "
+            + "JOIN categories k ON k.id = c.category_id LEFT JOIN subcategories sc ON sc.id = c.subcategory_id";
+
+    private static final String SEARCH_QUERY = "websearch_to_tsquery('english', :query) AS q(query)";
+
+    @Override
+    public int countRecentSearchMatches(String query, Long ownerId, Collection<Short> categoryIds,
+                                        ComplaintFilter filter, int window, int cap) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        List<String> where = new ArrayList<>();
+        appendSearchScope(where, params, ownerId, categoryIds, filter);
+        params.put("query", query);
+        params.put("window", window);
+        params.put("cap", cap);
+
+        // ts_match_vq is the function behind @@; unlike the operator it is never answered from the GIN
+        // index, so this stays a bounded walk down the created_at index
+        String sql = "SELECT COUNT(*) FROM (SELECT 1 FROM ("
+                + "SELECT s.search_vector FROM complaints_all s" + whereClause(where)
+                + " ORDER BY s.created_at DESC, s.id DESC LIMIT :window) w, " + SEARCH_QUERY
+                + " WHERE ts_match_vq(w.search_vector, q.query) LIMIT :cap) x";
+        return ((Number) createNativeQuery(sql, params).getSingleResult()).intValue();
+    }
+
+    @Override
+    public List<ComplaintSearchHit> searchByRelevance(String query, Long ownerId, Collection<Short> categoryIds,
+                                                      ComplaintFilter filter, ComplaintSearchCursor after, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        List<String> where = new ArrayList<>();
+        where.add("s.search_vector @@ q.query");
+        appendSearchScope(where, params, ownerId, categoryIds, filter);
+        params.put("query", query);
+        params.put("limit", limit);
+
+        String keyset = "";
+        if (after != null) {
+            // ts_rank returns real: compare at that precision so the cursor row is excluded exactly
+            keyset = " WHERE r.rank < CAST(:afterRank AS real)"
+                    + " OR (r.rank = CAST(:afterRank AS real) AND r.id < :afterId)";
+            params.put("afterRank", after.getRank());
+            params.put("afterId", after.getId());
+        }
+
+        // All matches come from the GIN index and are ranked; only the resulting page is joined to users
+        String sql = "SELECT " + SEARCH_HIT_COLUMNS + ", m.rank FROM ("
+                + "SELECT r.id, r.rank FROM ("
+                + "SELECT s.id, ts_rank(s.search_vector, q.query) AS rank FROM complaints_all s, " + SEARCH_QUERY
+                + whereClause(where) + ") r" + keyset
+                + " ORDER BY r.rank DESC, r.id DESC LIMIT :limit) m "
+                + SEARCH_HIT_JOINS + " ORDER BY m.rank DESC, m.id DESC";
+        return toSearchHits(createNativeQuery(sql, params).getResultList());
+    }
+
+    @Override
+    public List<ComplaintSearchHit> searchByRecency(String query, Long ownerId, Collection<Short> categoryIds,
+                                                    ComplaintFilter filter, ComplaintSearchCursor after, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        List<String> where = new ArrayList<>();
+        where.add("ts_match_vq(s.search_vector, q.query)"); // walk created_at, see countRecentSearchMatches
+        appendSearchScope(where, params, ownerId, categoryIds, filter);
+        if (after != null) {
+            where.add("(s.created_at, s.id) < (:afterCreatedAt, :afterId)");
+            params.put("afterCreatedAt", after.getCreatedAt());
+            params.put("afterId", after.getId());
+        }
+        params.put("query", query);
+        params.put("limit", limit);
+
+        // Rank is still reported for the page rows, it just does not order them
+        String sql = "SELECT " + SEARCH_HIT_COLUMNS + ", ts_rank(c.search_vector, q.query) FROM ("
+                + "SELECT s.id, s.created_at FROM complaints_all s, " + SEARCH_QUERY + whereClause(where)
+                + " ORDER BY s.created_at DESC, s.id DESC LIMIT :limit) m "
+                + SEARCH_HIT_JOINS + ", " + SEARCH_QUERY
+                + " ORDER BY m.created_at DESC, m.id DESC";
+        return toSearchHits(createNativeQuery(sql, params).getResultList());
+    }
+
+    // Role scope + listing filters on complaints_all aliased as s (same meaning as in findPage)
+    private static void appendSearchScope(List<String> where, Map<String, Object> params, Long ownerId,
+                                          Collection<Short> categoryIds, ComplaintFilter filter) {
+        if (ownerId != null) {
+            where.add("s.user_id = :ownerId");
+            params.put("ownerId", ownerId);
+        }
+        if (categoryIds != null) {
+            where.add("s.category_id IN (:categoryIds)");
+            params.put("categoryIds", categoryIds);
+        }
+        if (filter.getStatus() != null) {
+            where.add("s.status = :status");
+            params.put("status", filter.getStatus().name());
+        }
+        if (filter.getPriority() != null) {
+            where.add("s.priority = :priority");
+            params.put("priority", filter.getPriority().name());
+        }
+        if (filter.getCategoryId() != null) {
+            where.add("s.category_id = :categoryId");
+            params.put("categoryId", filter.getCategoryId());
+        }
+        if (filter.getFrom() != null) {
+            where.add("s.created_at >= :from");
+            params.put("from", filter.getFrom().atStartOfDay());
+        }
+        if (filter.getTo() != null) {
+            where.add("s.created_at < :to");
+            params.put("to", filter.getTo().plusDays(1).atStartOfDay());
+        }
+    }
+
+    private static String whereClause(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private Query createNativeQuery(String sql, Map<String, Object> params) {
+        Query query = entityManager.createNativeQuery(sql);
+        params.forEach(query::setParameter);
+        return query;
+    }
+
+    private static List<ComplaintSearchHit> toSearchHits(List<?> rows) {
+        List<ComplaintSearchHit> hits = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] col = (Object[]) row;
+            hits.add(new ComplaintSearchHit(
+                    ((Number) col[0]).longValue(), (String) col[1], (String) col[2], (String) col[3],
+                    (String) col[4], (String) col[5],
+                    Complaint.Status.valueOf((String) col[6]), Complaint.Priority.valueOf((String) col[7]),
+                    toLocalDateTime(col[8]), toLocalDateTime(col[9]),
+                    ((Number) col[10]).longValue(), (String) col[11], (String) col[12],
+                    ((Number) col[13]).floatValue()));
+        }
+        return hits;
+    }
+
+    // Native queries may hand timestamps back as java.sql.Timestamp depending on the driver mapping
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -2,26 +2,52 @@
 package com.example.demo.repository;
 
         import com.example.demo.model.ComplaintStatusUpdate;
+        import jakarta.persistence.QueryHint;
+        import org.hibernate.jpa.HibernateHints;
         import org.springframework.data.jpa.repository.JpaRepository;
+        import org.springframework.data.jpa.repository.Modifying;
         import org.springframework.data.jpa.repository.Query;
+        import org.springframework.data.jpa.repository.QueryHints;
         import org.springframework.data.repository.query.Param;
 
+        import java.time.LocalDate;
+        import java.time.LocalDateTime;
+        import java.util.Collection;
         import java.util.List;
         import java.util.Optional;
 
 public interface ComplaintStatusUpdateRepository extends JpaRepository<ComplaintStatusUpdate, Long> {
 
-    // Find all status updates for a complaint
-    List<ComplaintStatusUpdate> findByComplaintIdOrderByUpdatedAtDesc(Long complaintId);
+    // Find all status updates for a complaint, newest first. `since` is the complaint's creation date: no update
+    // is older, and it lets Postgres skip the monthly partitions before it
+    List<ComplaintStatusUpdate> findByComplaintIdAndUpdatedAtGreaterThanEqualOrderByUpdatedAtDesc(Long complaintId,
+                                                                                                  LocalDate since);
 
     // Find the resolved status update for a complaint (for feedback)
     @Query("SELECT csu FROM ComplaintStatusUpdate csu WHERE csu.complaint.id = :complaintId AND csu.status = 'RESOLVED'")
     Optional<ComplaintStatusUpdate> findResolvedStatusUpdateByComplaintId(@Param("complaintId") Long complaintId);
 
-    // Find all status updates with feedback
-    @Query("SELECT csu FROM ComplaintStatusUpdate csu WHERE csu.studentFeedback IS NOT NULL")
-    List<ComplaintStatusUpdate> findAllWithFeedback();
-
-    // Find status updates by complaint ID
-    List<ComplaintStatusUpdate> findByComplaintId(Long complaintId);
+    // Of the given complaints, the ids whose RESOLVED status update already carries feedback (one query for a whole page)
+    @Query("SELECT csu.complaint.id FROM ComplaintStatusUpdate csu WHERE csu.complaint.id IN :complaintIds AND csu.status = 'RESOLVED' AND csu.feedbackSubmittedAt IS NOT NULL")
+    List<Long> findComplaintIdsWithFeedback(@Param("complaintIds") Collection<Long> complaintIds);
+
+    // ✅ Stores feedback on a status update that has none yet (single statement, no read): 1 row, or 0 when
+    // feedback was submitted already, e.g. by a concurrent request. updated_at (the partition key) keeps the
+    // update to the one partition holding the row.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "complaint_status_updates"))
+    @Query(nativeQuery = true, value = "UPDATE complaint_status_updates SET student_feedback = :feedback, "
+            + "satisfaction_rating = :rating, is_fully_solved = :fullySolved, would_recommend = :wouldRecommend, "
+            + "feedback_submitted_at = :submittedAt "
+            + "WHERE id = :id AND updated_at = :updatedAt AND feedback_submitted_at IS NULL")
+    int submitFeedback(@Param("id") Long id,
+                       @Param("updatedAt") LocalDate updatedAt,
+                       @Param("feedback") String feedback,
+                       @Param("rating") Integer rating,
+                       @Param("fullySolved") Boolean fullySolved,
+                       @Param("wouldRecommend") Boolean wouldRecommend,
+                       @Param("submittedAt") LocalDateTime submittedAt);
+
+    // Whether any feedback has been submitted at all (rollup backfill check)
+    boolean existsByFeedbackSubmittedAtIsNotNull();
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.FeedbackRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface FeedbackRollupRepository extends JpaRepository<FeedbackRollup, FeedbackRollup.Key> {
+
+    // ✅ Rows of one dimension, keys in order (categories alphabetically, resolver ids, weeks chronologically)
+    @Query("SELECT r FROM FeedbackRollup r WHERE r.id.dimension = :dimension ORDER BY r.id.dimensionKey")
+    List<FeedbackRollup> findByDimension(@Param("dimension") FeedbackRollup.Dimension dimension);
+
+    // ✅ Adds one submission's contribution to a rollup row, creating it if needed (single statement, no read).
+    // The table is declared so Hibernate does not clear the whole second-level cache after this native write.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "feedback_rollups"))
+    @Query(nativeQuery = true, value = "INSERT INTO feedback_rollups (dimension, dimension_key, feedback_count, "
+            + "rating_count, rating_sum, fully_solved_answers, fully_solved_yes, recommend_answers, recommend_yes) "
+            + "VALUES (:dimension, :dimensionKey, 1, :ratingCount, :ratingSum, :fullySolvedAnswers, :fullySolvedYes, "
+            + ":recommendAnswers, :recommendYes) "
+            + "ON CONFLICT (dimension, dimension_key) DO UPDATE SET "
+            + "feedback_count = feedback_rollups.feedback_count + 1, "
+            + "rating_count = feedback_rollups.rating_count + EXCLUDED.rating_count, "
+            + "rating_sum = feedback_rollups.rating_sum + EXCLUDED.rating_sum, "
+            + "fully_solved_answers = feedback_rollups.fully_solved_answers + EXCLUDED.fully_solved_answers, "
+            + "fully_solved_yes = feedback_rollups.fully_solved_yes + EXCLUDED.fully_solved_yes, "
+            + "recommend_answers = feedback_rollups.recommend_answers + EXCLUDED.recommend_answers, "
+            + "recommend_yes = feedback_rollups.recommend_yes + EXCLUDED.recommend_yes")
+    void increment(@Param("dimension") String dimension,
+                   @Param("dimensionKey") String dimensionKey,
+                   @Param("ratingCount") int ratingCount,
+                   @Param("ratingSum") int ratingSum,
+                   @Param("fullySolvedAnswers") int fullySolvedAnswers,
+                   @Param("fullySolvedYes") int fullySolvedYes,
+                   @Param("recommendAnswers") int recommendAnswers,
+                   @Param("recommendYes") int recommendYes);
+}
@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Subcategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface SubcategoryRepository extends JpaRepository<Subcategory, Integer> {
+
+    // Matches the unique (category_id, lower(name)) index
+    Optional<Subcategory> findByCategoryIdAndNameIgnoreCase(Short categoryId, String name);
+
+    // ✅ Concurrent first uses of a name insert it once; the loser's insert is a no-op.
+    // Declared to touch only subcategories, so it does not evict the other second-level cache regions.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO subcategories (category_id, name) VALUES (:categoryId, :name) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "subcategories"))
+    int insertIfAbsent(@Param("categoryId") Short categoryId, @Param("name") String name);
+}
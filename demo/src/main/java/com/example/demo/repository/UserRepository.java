@@ -3,12 +3,7 @@ package com.example.demo.repository;
 import com.example.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
-
-public interface UserRepository extends JpaRepository<User, Long> {
-
-    // ✅ Used for authentication (email as username)
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     // ✅ Useful for signup to avoid duplicate emails
     boolean existsByEmail(String email);
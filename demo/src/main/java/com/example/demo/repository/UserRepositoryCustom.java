@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    // ✅ Used for authentication (email as username). Email is the natural id, so a cached user is
+    // found without a query (natural-id cache gives the id, the entity cache the user).
+    Optional<User> findByEmail(String email);
+}
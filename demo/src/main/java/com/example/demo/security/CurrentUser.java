@@ -0,0 +1,19 @@
+package com.example.demo.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the authenticated {@link com.example.demo.model.User} into a controller method,
+ * e.g. {@code public List<Complaint> list(@CurrentUser User user)}.
+ * Resolved from the security context by {@link CurrentUserArgumentResolver}, so handlers
+ * don't need to look the user up by email again.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,49 @@
+package com.example.demo.security;
+
+import com.example.demo.model.User;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// Resolves @CurrentUser User parameters from the current Authentication.
+// JwtFilter only puts the email on the context, so the entity comes from PrincipalCache on first use.
+// No authentication, or no user for it (deleted since the token was checked), is an authentication failure:
+// 401 (AuthenticationFailureAdvice) rather than a null the handler would fail on.
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final PrincipalCache principalCache;
+
+    public CurrentUserArgumentResolver(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && User.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new AuthenticationCredentialsNotFoundException("❌ Not authenticated");
+        }
+        if (authentication.getPrincipal() instanceof User user) {
+            return user; // authenticated through MyUserDetailsService, entity already loaded
+        }
+        User user = principalCache.get(authentication.getName());
+        if (user == null) {
+            throw new AuthenticationCredentialsNotFoundException("❌ No user for this token");
+        }
+        return user;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,15 +9,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -24,10 +21,10 @@ public class JwtFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -35,47 +32,36 @@ public class JwtFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String email = null;
-        String token = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7);
 
-            logger.info("🔑 Incoming Token: " + token);
-
-            try {
-                email = jwtUtil.extractUsername(token); // subject (email)
-                String roleInToken = jwtUtil.extractRole(token); // role from token (ADMIN, STUDENT, etc.)
-                logger.info("📌 Incoming Token Email=" + email + " | Role=" + roleInToken);
-
-            } catch (Exception e) {
-                logger.debug("Invalid JWT while extracting username: " + e.getMessage());
-            }
-        }
-
-        // If we got an email from token and no authentication exists yet
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-                if (jwtUtil.validateToken(token, userDetails)) {
-                    // ✅ Use authorities from UserDetailsService (which has ROLE_STUDENT, etc.)
+                // ✅ Signature + expiry are verified once per token and then served from the cache;
+                // the signed claims are trusted as-is, so no database access happens here
+                VerifiedToken verified = tokenCache.getOrVerify(token);
+
+                if (revocationList.isRevoked(verified.getClaims())) {
+                    logger.debug("Revoked JWT rejected for email={}", verified.getEmail());
+                } else {
+                    // Principal is the email; @CurrentUser loads the User entity only when a handler asks for it.
+                    // The verified claims are the credentials, for what outlives the request (event streams)
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities() // Use authorities from UserDetailsService
+                                    verified.getEmail(),
+                                    verified.getClaims(),
+                                    verified.getAuthorities()
                             );
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                    logger.info("✅ JWT Auth Success | Email=" + email + " | Authorities=" + userDetails.getAuthorities());
+                    logger.debug("✅ JWT Auth Success | Email={} | Role={}", verified.getEmail(), verified.getRole());
                 }
-            } catch (Exception e) {
-                logger.debug("❌ JWT authentication failed: " + e.getMessage());
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("❌ JWT authentication failed: {}", e.getMessage());
             }
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.example.demo.security;
 
+import com.example.demo.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -7,6 +8,7 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -15,58 +17,69 @@ public class JwtUtil {
     private static final String SECRET_KEY = "AnkitAnkitAnkitAnkitAnkitAnkitAnkit12";
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 hours
 
+    // Checked against the users row on every request (TokenRevocationList)
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String TOKEN_VERSION_CLAIM = "tv";
+
     private final Key key;
 
+    // Built once: JwtParser is immutable and thread-safe, so every request reuses it
+    private final JwtParser parser;
+
     public JwtUtil() {
         this.key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
-    // Generate token with email + role (role stored WITHOUT ROLE_ prefix)
-    public String generateToken(String email, String role) {
-        String rawRole = role.startsWith("ROLE_") ? role.substring(5) : role; // remove prefix if present
-
+    // Generate token with email + role (role stored WITHOUT ROLE_ prefix), user id and token version
+    // (TokenRevocationList.currentVersion)
+    public String generateToken(User user, long tokenVersion) {
         return Jwts.builder()
-                .setSubject(email)
-                .claim("role", rawRole) // store ADMIN, STUDENT, WARDEN only
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getEmail())
+                .claim("role", user.getRole().name()) // store ADMIN, STUDENT, WARDEN only
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(TOKEN_VERSION_CLAIM, tokenVersion)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies signature and expiry and returns the claims, parsing the token exactly once.
+     *
+     * @throws JwtException             if the token is malformed, tampered with or expired
+     * @throws IllegalArgumentException if the token is null or empty
+     */
+    public Claims parseAndValidate(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     // Extract username (email)
     public String extractUsername(String token) {
-        return parseClaims(token).getSubject();
+        return parseAndValidate(token).getSubject();
     }
 
     // Extract role (always returns raw form: ADMIN, STUDENT, WARDEN)
     public String extractRole(String token) {
-        Object r = parseClaims(token).get("role");
+        return extractRole(parseAndValidate(token));
+    }
+
+    public String extractRole(Claims claims) {
+        Object r = claims.get("role");
         return r != null ? r.toString() : null;
     }
 
-    // Validate only subject + expiration
+    // Validate only subject + expiration (expiry is enforced by the parser itself)
     public boolean validateToken(String token, UserDetails userDetails) {
         try {
             final String username = extractUsername(token);
-            return (username != null
-                    && username.equals(userDetails.getUsername())
-                    && !isTokenExpired(token));
+            return username != null && username.equals(userDetails.getUsername());
         } catch (JwtException | IllegalArgumentException ex) {
             return false;
         }
     }
-
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private boolean isTokenExpired(String token) {
-        Date expiration = parseClaims(token).getExpiration();
-        return expiration.before(new Date());
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.example.demo.security;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Short-lived cache of authenticated {@link User} entities keyed by email.
+ * Used by {@link CurrentUserArgumentResolver} and {@link MyUserDetailsService} so a request
+ * costs at most one user lookup, and none while the entry is fresh.
+ * Entries are evicted explicitly when a user is updated or deleted.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${security.principal-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    // Cached user for this email, loading it on a miss; null if no such user exists
+    public User get(String email) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            return entry.user;
+        }
+
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            entries.remove(email);
+            return null;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> now - e.loadedAt >= ttlNanos);
+            if (entries.size() >= maxEntries) {
+                logger.debug("Principal cache full ({} entries), clearing", entries.size());
+                entries.clear();
+            }
+        }
+        entries.put(email, new Entry(user, now));
+        return user;
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            entries.remove(email);
+        }
+    }
+
+    private record Entry(User user, long loadedAt) {
+    }
+}
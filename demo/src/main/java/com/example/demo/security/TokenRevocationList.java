@@ -0,0 +1,116 @@
+package com.example.demo.security;
+
+import com.example.demo.events.TokensRevokedEvent;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Revocation check for the stateless JWT path, backed by users.token_version.
+ * Tokens are trusted on their signed claims, so anything that must take effect before expiry
+ * (logout, a role or email change, deletion) makes the users row disagree with them: the version is
+ * incremented, or the row is gone. A token is accepted only while its user id and version claims
+ * (JwtUtil) match the row, which holds after a restart and on every instance.
+ * The row is read with one query per user and then cached for ttl-seconds; this instance's own
+ * revocations evict the entry at once, another instance's apply once it expires.
+ * Revocations on this instance are also published (TokensRevokedEvent) for what the tokens opened.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>(); // email -> row
+
+    public TokenRevocationList(JdbcTemplate jdbc,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${security.token-versions.ttl-seconds:30}") long ttlSeconds,
+                               @Value("${security.token-versions.max-entries:10000}") int maxEntries) {
+        this.jdbc = jdbc;
+        this.eventPublisher = eventPublisher;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        Long tokenVersion = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Long.class);
+        if (userId == null || tokenVersion == null) {
+            return true; // issued before versions existed
+        }
+        Entry entry = get(claims.getSubject());
+        return entry == null || entry.userId != userId || entry.tokenVersion != tokenVersion;
+    }
+
+    // Version to issue a new token at: read from the row, as another instance may have just incremented it
+    public long currentVersion(String email) {
+        Entry entry = load(email, System.nanoTime());
+        if (entry == null) {
+            throw new IllegalArgumentException("User not found");
+        }
+        return entry.tokenVersion;
+    }
+
+    // Invalidate every token issued to this user up to now, on every instance
+    public void revokeAllFor(String email) {
+        if (email != null) {
+            jdbc.update("UPDATE users SET token_version = token_version + 1 WHERE email = ?", email);
+            entries.remove(email);
+            eventPublisher.publishEvent(new TokensRevokedEvent(email));
+        }
+    }
+
+    // Drop the cached row after the user was deleted, so its tokens are refused at once
+    public void evict(String email) {
+        if (email != null) {
+            entries.remove(email);
+            eventPublisher.publishEvent(new TokensRevokedEvent(email));
+        }
+    }
+
+    // Cached id and token version of this email's user, loading them on a miss; null if no such user exists
+    private Entry get(String email) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            return entry;
+        }
+
+        return load(email, now);
+    }
+
+    private Entry load(String email, long now) {
+        List<Map<String, Object>> rows = jdbc.queryForList("SELECT id, token_version FROM users WHERE email = ?", email);
+        if (rows.isEmpty()) {
+            entries.remove(email);
+            return null;
+        }
+        Entry entry = new Entry(((Number) rows.get(0).get("id")).longValue(),
+                ((Number) rows.get(0).get("token_version")).longValue(), now);
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> now - e.loadedAt >= ttlNanos);
+            if (entries.size() >= maxEntries) {
+                logger.debug("Token version cache full ({} entries), clearing", entries.size());
+                entries.clear();
+            }
+        }
+        entries.put(email, entry);
+        return entry;
+    }
+
+    private record Entry(long userId, long tokenVersion, long loadedAt) {
+    }
+}
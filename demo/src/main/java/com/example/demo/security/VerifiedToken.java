@@ -0,0 +1,19 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+// A JWT whose signature and expiry were already checked, as kept by VerifiedTokenCache
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final Claims claims;
+    private final String email;
+    private final String role;
+    private final List<GrantedAuthority> authorities;
+    private final long expiresAtMillis;
+}
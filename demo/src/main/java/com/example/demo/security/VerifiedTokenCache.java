@@ -0,0 +1,133 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of already-verified JWTs, keyed by the SHA-256 digest of the token.
+ * The SPA sends the same bearer token on every call, so after the first request the
+ * HMAC check and claim decoding are skipped. Entries expire at the token's own exp
+ * and the least recently used one is evicted once max-entries is reached.
+ * Revocation is still checked on every request by the caller.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtUtil jwtUtil;
+    private final Map<String, VerifiedToken> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${security.jwt-cache.max-entries:10000}") int maxEntries) {
+        this.jwtUtil = jwtUtil;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the verified token, from cache when possible, otherwise by parsing and validating it.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     * @throws IllegalArgumentException     if the token is empty or lacks subject/role claims
+     */
+    public VerifiedToken getOrVerify(String token) {
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            VerifiedToken cached = entries.get(key);
+            if (cached != null) {
+                if (cached.getExpiresAtMillis() > now) {
+                    hits.increment();
+                    return cached;
+                }
+                entries.remove(key);
+            }
+        }
+        misses.increment();
+
+        Claims claims = jwtUtil.parseAndValidate(token);
+        String email = claims.getSubject();
+        String role = jwtUtil.extractRole(claims);
+        if (email == null || role == null) {
+            throw new IllegalArgumentException("JWT without subject or role claim");
+        }
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+        VerifiedToken verified = new VerifiedToken(claims, email, role, authorities, claims.getExpiration().getTime());
+
+        synchronized (entries) {
+            entries.put(key, verified);
+        }
+        return verified;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("security.jwt.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("security.jwt.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("security.jwt.cache.evictions", evictions, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("security.jwt.cache.size", this, VerifiedTokenCache::size)
+                .register(registry);
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
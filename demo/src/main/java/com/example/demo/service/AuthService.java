@@ -3,6 +3,7 @@ package com.example.demo.service;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.JwtUtil;
+import com.example.demo.security.TokenRevocationList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -16,16 +17,19 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationList revocationList;
 
     @Autowired
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        JwtUtil jwtUtil,
-                       AuthenticationManager authenticationManager) {
+                       AuthenticationManager authenticationManager,
+                       TokenRevocationList revocationList) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
+        this.revocationList = revocationList;
     }
 
     // ✅ Register user
@@ -46,10 +50,7 @@ public class AuthService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // 🔑 Convert Enum to String
-        String roleName = user.getRole().name(); // e.g. "ADMIN", "STUDENT"
-
-        // Generate JWT with email + role
-        return jwtUtil.generateToken(user.getEmail(), roleName);
+        // Generate JWT with email + role, at the user's current token version
+        return jwtUtil.generateToken(user, revocationList.currentVersion(user.getEmail()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CategoryRouteRequest;
+import com.example.demo.events.CategoryRoutesChangedEvent;
+import com.example.demo.model.Category;
+import com.example.demo.model.CategoryRoute;
+import com.example.demo.model.User;
+import com.example.demo.repository.CategoryRouteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Which complaint categories each authority handles, from the category_routes table (CategoryRoute).
+ *
+ * The table is compiled into an immutable index: every category id gets a bit, and the rows of each role
+ * become bit sets keyed by (department, staffId), in an EnumMap by role. A user's scope (the union of
+ * the role-wide, department and staff rows that apply to them) is built once per (role, department,
+ * staffId) and memoized, so an access check is a map lookup plus a bit test, and list queries get a
+ * ready-made list of category ids. The table is re-read every refresh-seconds (and right after a change made
+ * here); when it changed, the new index replaces the old one in a single write and a
+ * CategoryRoutesChangedEvent is published, so no restart is needed.
+ */
+@Service
+public class CategoryRoutingService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryRoutingService.class);
+
+    private final CategoryRouteRepository routeRepository;
+    private final CategoryService categoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long refreshSeconds;
+
+    private volatile RoutingIndex index;
+    private volatile ScheduledExecutorService refresher;
+
+    public CategoryRoutingService(CategoryRouteRepository routeRepository,
+                                  CategoryService categoryService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${complaints.routing.refresh-seconds:30}") long refreshSeconds) {
+        this.routeRepository = routeRepository;
+        this.categoryService = categoryService;
+        this.eventPublisher = eventPublisher;
+        this.refreshSeconds = refreshSeconds;
+    }
+
+    // ✅ Ids of the categories this user handles (empty for students and for authorities without routes;
+    // admins see everything and are not scoped by category). Immutable, in ascending order.
+    public List<Short> categoryIdsFor(User user) {
+        return index().scopeFor(user).categoryIds;
+    }
+
+    // ✅ May this user act on complaints of this category? Admins may act on every category.
+    public boolean allows(User user, Category category) {
+        return allows(user, category == null ? null : category.getId());
+    }
+
+    public boolean allows(User user, Short categoryId) {
+        if (user.getRole() == User.Role.ADMIN) {
+            return true;
+        }
+        RoutingIndex current = index();
+        return current.scopeFor(user).allows(current.bitOf(categoryId));
+    }
+
+    // ✅ Routing table as stored
+    public List<CategoryRoute> getRoutes() {
+        List<CategoryRoute> routes = new ArrayList<>(routeRepository.findAll());
+        routes.sort(Comparator.comparing(CategoryRoute::getId));
+        return routes;
+    }
+
+    // ✅ Add a route and apply it at once (other instances pick it up on their next refresh)
+    public CategoryRoute addRoute(CategoryRouteRequest request) {
+        if (request.getRole() != User.Role.WARDEN && request.getRole() != User.Role.FACULTY) {
+            throw new IllegalArgumentException("Routes can only be added for WARDEN or FACULTY");
+        }
+        CategoryRoute route = CategoryRoute.builder()
+                .role(request.getRole())
+                .category(categoryService.resolve(request.getCategory()))
+                .department(blankToNull(request.getDepartment()))
+                .staffId(blankToNull(request.getStaffId()))
+                .build();
+        boolean exists = routeRepository.findAll().stream().anyMatch(r -> r.getRole() == route.getRole()
+                && r.getCategory().getId().equals(route.getCategory().getId())
+                && Objects.equals(r.getDepartment(), route.getDepartment())
+                && Objects.equals(r.getStaffId(), route.getStaffId()));
+        if (exists) {
+            throw new IllegalArgumentException("This route already exists");
+        }
+
+        CategoryRoute saved = routeRepository.save(route);
+        logger.info("Category route added: {}", saved);
+        reload();
+        return saved;
+    }
+
+    // ✅ Remove a route and apply it at once; throws IllegalArgumentException when it does not exist
+    public void removeRoute(Long id) {
+        CategoryRoute route = routeRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("❌ Category route not found with ID: " + id));
+        routeRepository.delete(route);
+        logger.info("Category route removed: {}", route);
+        reload();
+    }
+
+    // ✅ Re-read the table; the index is replaced (and the change published) only when it differs
+    public synchronized void reload() {
+        List<CategoryRoute> routes = routeRepository.findAll();
+        RoutingIndex previous = index;
+        RoutingIndex compiled = RoutingIndex.compile(routes);
+        if (previous != null && previous.routes.equals(compiled.routes)) {
+            return;
+        }
+        index = compiled;
+        logger.info("Category routing loaded: {} route(s) over {} categories", routes.size(), compiled.categoryIds.length);
+        if (previous != null) {
+            eventPublisher.publishEvent(new CategoryRoutesChangedEvent());
+        }
+    }
+
+    private RoutingIndex index() {
+        RoutingIndex current = index;
+        if (current == null) {
+            reload();
+            current = index;
+        }
+        return current;
+    }
+
+    private void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Keep routing with the index we have; the next refresh tries again
+            logger.warn("⚠️ Could not reload category routes: {}", e.getMessage());
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    @Override
+    public void start() {
+        reload();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "category-routes-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void stop() {
+        refresher.shutdownNow();
+        refresher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return refresher != null;
+    }
+
+    // Rows that apply to a user: role-wide (null, null), department (dept, null), staff (null, staffId)
+    // and staff within a department (dept, staffId)
+    private record Target(String department, String staffId) {
+    }
+
+    // (role, department, staffId) of a user, the memo key of their scope
+    private record UserKey(User.Role role, String department, String staffId) {
+    }
+
+    // A user's categories as bits (for checks) and as a list of ids (for queries)
+    private static final class Scope {
+        static final Scope EMPTY = new Scope(new BitSet(), List.of());
+
+        final BitSet bits;
+        final List<Short> categoryIds;
+
+        Scope(BitSet bits, List<Short> categoryIds) {
+            this.bits = bits;
+            this.categoryIds = categoryIds;
+        }
+
+        boolean allows(int bit) {
+            return bit >= 0 && bits.get(bit);
+        }
+    }
+
+    private static final class RoutingIndex {
+        // Route rows as compared between reloads: "role|department|staffId|categoryId"
+        final List<String> routes;
+        final Short[] categoryIds;
+        final Map<Short, Integer> bitByCategory;
+        final EnumMap<User.Role, Map<Target, BitSet>> byRole;
+        final ConcurrentHashMap<UserKey, Scope> scopes = new ConcurrentHashMap<>();
+
+        private RoutingIndex(List<String> routes, Short[] categoryIds, Map<Short, Integer> bitByCategory,
+                             EnumMap<User.Role, Map<Target, BitSet>> byRole) {
+            this.routes = routes;
+            this.categoryIds = categoryIds;
+            this.bitByCategory = bitByCategory;
+            this.byRole = byRole;
+        }
+
+        static RoutingIndex compile(List<CategoryRoute> rows) {
+            // Bits in category id order, so scopes list their ids sorted
+            Short[] categoryIds = rows.stream().map(row -> row.getCategory().getId()).distinct().sorted()
+                    .toArray(Short[]::new);
+            Map<Short, Integer> bitByCategory = new HashMap<>();
+            for (int bit = 0; bit < categoryIds.length; bit++) {
+                bitByCategory.put(categoryIds[bit], bit);
+            }
+
+            EnumMap<User.Role, Map<Target, BitSet>> byRole = new EnumMap<>(User.Role.class);
+            List<String> routes = new ArrayList<>(rows.size());
+            for (CategoryRoute row : rows) {
+                byRole.computeIfAbsent(row.getRole(), role -> new HashMap<>())
+                        .computeIfAbsent(new Target(row.getDepartment(), row.getStaffId()), target -> new BitSet())
+                        .set(bitByCategory.get(row.getCategory().getId()));
+                routes.add(row.getRole() + "|" + row.getDepartment() + "|" + row.getStaffId() + "|"
+                        + row.getCategory().getId());
+            }
+            routes.sort(null);
+            return new RoutingIndex(List.copyOf(routes), categoryIds, Map.copyOf(bitByCategory), byRole);
+        }
+
+        int bitOf(Short categoryId) {
+            Integer bit = categoryId == null ? null : bitByCategory.get(categoryId);
+            return bit == null ? -1 : bit;
+        }
+
+        Scope scopeFor(User user) {
+            Map<Target, BitSet> targets = byRole.get(user.getRole());
+            if (targets == null) {
+                return Scope.EMPTY;
+            }
+            return scopes.computeIfAbsent(new UserKey(user.getRole(), user.getDepartment(), user.getStaffId()),
+                    key -> build(targets, key));
+        }
+
+        private Scope build(Map<Target, BitSet> targets, UserKey key) {
+            BitSet bits = new BitSet(categoryIds.length);
+            or(bits, targets.get(new Target(null, null)));
+            if (key.department() != null) {
+                or(bits, targets.get(new Target(key.department(), null)));
+            }
+            if (key.staffId() != null) {
+                or(bits, targets.get(new Target(null, key.staffId())));
+                if (key.department() != null) {
+                    or(bits, targets.get(new Target(key.department(), key.staffId())));
+                }
+            }
+            List<Short> ids = new ArrayList<>(bits.cardinality());
+            bits.stream().forEach(bit -> ids.add(categoryIds[bit]));
+            return new Scope(bits, List.copyOf(ids));
+        }
+
+        private static void or(BitSet bits, BitSet rows) {
+            if (rows != null) {
+                bits.or(rows);
+            }
+        }
+    }
+}
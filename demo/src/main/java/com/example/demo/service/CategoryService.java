@@ -0,0 +1,115 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Category;
+import com.example.demo.model.Subcategory;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.SubcategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves category / subcategory names (as submitted and used in filters) to their reference rows.
+ *
+ * Categories are a short, admin-managed list, kept in memory by lower-case name and re-read when a
+ * name is not found (so a category added elsewhere is picked up). Unknown categories are rejected.
+ * Subcategories are open-ended: a name seen for the first time within a category is added.
+ */
+@Service
+public class CategoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryService.class);
+
+    private final CategoryRepository categoryRepository;
+    private final SubcategoryRepository subcategoryRepository;
+
+    private volatile Map<String, Category> categoriesByName;
+    // "categoryId|lower-case name" -> subcategory
+    private final ConcurrentHashMap<String, Subcategory> subcategories = new ConcurrentHashMap<>();
+
+    public CategoryService(CategoryRepository categoryRepository, SubcategoryRepository subcategoryRepository) {
+        this.categoryRepository = categoryRepository;
+        this.subcategoryRepository = subcategoryRepository;
+    }
+
+    // ✅ All categories, by name
+    public List<Category> getCategories() {
+        return categoriesByName().values().stream()
+                .sorted(Comparator.comparing(Category::getName))
+                .toList();
+    }
+
+    // ✅ Category by name, ignoring case and surrounding spaces; IllegalArgumentException when unknown
+    public Category resolve(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("category is required");
+        }
+        String key = key(name);
+        Category category = categoriesByName().get(key);
+        if (category == null) {
+            category = reload().get(key);
+        }
+        if (category == null) {
+            throw new IllegalArgumentException("Unknown category: " + name.trim());
+        }
+        return category;
+    }
+
+    // ✅ Subcategory of a category by name, added on first use; null for a blank name
+    public Subcategory resolveSubcategory(Category category, String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String trimmed = name.trim();
+        if (trimmed.length() > 100) {
+            throw new IllegalArgumentException("subcategory must be at most 100 characters");
+        }
+        return subcategories.computeIfAbsent(category.getId() + "|" + key(trimmed), k -> {
+            subcategoryRepository.insertIfAbsent(category.getId(), trimmed);
+            return subcategoryRepository.findByCategoryIdAndNameIgnoreCase(category.getId(), trimmed).orElseThrow();
+        });
+    }
+
+    // ✅ Add a category (admins); rejects a name that exists in any letter case
+    public synchronized Category addCategory(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        String trimmed = name.trim();
+        if (trimmed.length() > 50) {
+            throw new IllegalArgumentException("name must be at most 50 characters");
+        }
+        if (reload().containsKey(key(trimmed))) {
+            throw new IllegalArgumentException("Category already exists: " + trimmed);
+        }
+        Category saved = categoryRepository.save(new Category(null, trimmed));
+        logger.info("Category added: {}", saved);
+        reload();
+        return saved;
+    }
+
+    private Map<String, Category> categoriesByName() {
+        Map<String, Category> current = categoriesByName;
+        return current != null ? current : reload();
+    }
+
+    private synchronized Map<String, Category> reload() {
+        Map<String, Category> loaded = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            loaded.put(key(category.getName()), category);
+        }
+        categoriesByName = Map.copyOf(loaded);
+        return categoriesByName;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Complaint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the hot tables small (see V12__history_partitions_and_archive.sql). Every interval-minutes it
+ *
+ * - creates the monthly complaint_status_updates partitions up to partitions-ahead-months ahead, so new
+ *   history rows never land in the default partition, and
+ * - when enabled, moves RESOLVED / REJECTED complaints not updated for after-months from complaints to
+ *   complaints_archive, batch-size rows per transaction (one DELETE ... RETURNING feeding an INSERT, oldest
+ *   first), until none are left. Rows locked by a concurrent writer are skipped and picked up by a later run; counters keep
+ *   counting moved complaints, their status history stays where it is, and reads keep finding them through
+ *   complaints_all (UnifiedComplaint).
+ *
+ * Archived complaints are read-only (ComplaintService.getComplaintById refuses them).
+ */
+@Service
+public class ComplaintArchiver implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintArchiver.class);
+
+    private static final String COLUMNS = "id, title, description, category_id, subcategory_id, location, "
+            + "contact_number, status, priority, duplicate_of_id, version, created_at, updated_at, user_id, search_vector";
+
+    // Candidates come oldest first from the partial (updated_at) index of closed complaints
+    private static final String MOVE_BATCH = "WITH moved AS ("
+            + "DELETE FROM complaints WHERE id IN ("
+            + "SELECT id FROM complaints WHERE status IN ('RESOLVED', 'REJECTED') AND updated_at < ? "
+            + "ORDER BY updated_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING " + COLUMNS + ") "
+            + "INSERT INTO complaints_archive (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved RETURNING id";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean enabled;
+    private final int afterMonths;
+    private final int batchSize;
+    private final long intervalMinutes;
+    private final int partitionsAheadMonths;
+    private final Counter archived;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public ComplaintArchiver(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             EntityManagerFactory entityManagerFactory,
+                             MeterRegistry meterRegistry,
+                             @Value("${complaints.archive.enabled:true}") boolean enabled,
+                             @Value("${complaints.archive.after-months:6}") int afterMonths,
+                             @Value("${complaints.archive.batch-size:500}") int batchSize,
+                             @Value("${complaints.archive.interval-minutes:60}") long intervalMinutes,
+                             @Value("${complaints.status-history.partitions-ahead-months:3}") int partitionsAheadMonths) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+        this.afterMonths = afterMonths;
+        this.batchSize = batchSize;
+        this.intervalMinutes = intervalMinutes;
+        this.partitionsAheadMonths = partitionsAheadMonths;
+        this.archived = Counter.builder("complaints.archived")
+                .description("Closed complaints moved to complaints_archive")
+                .register(meterRegistry);
+    }
+
+    // ✅ Create the missing monthly history partitions from this month to partitions-ahead-months ahead;
+    // returns how many were created. Creating one briefly locks complaint_status_updates, so it gives up after
+    // a few seconds when that lock is busy (the next run tries again).
+    public int ensureHistoryPartitions() {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        Integer created = transaction.execute(status -> {
+            jdbc.execute("SET LOCAL lock_timeout = '5s'");
+            return jdbc.queryForObject("SELECT complaint_status_updates_add_partitions(?, ?)", Integer.class,
+                    Date.valueOf(thisMonth), Date.valueOf(thisMonth.plusMonths(partitionsAheadMonths)));
+        });
+        if (created != null && created > 0) {
+            logger.info("Created {} complaint_status_updates partition(s)", created);
+        }
+        return created == null ? 0 : created;
+    }
+
+    // ✅ Move every complaint closed before the cutoff to complaints_archive, batch by batch; returns how many moved
+    public long archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(afterMonths);
+        long started = System.nanoTime();
+        long total = 0;
+        List<Long> moved;
+        do {
+            moved = transaction.execute(status -> {
+                // Seen by the counter triggers: this delete is a move
+                jdbc.execute("SET LOCAL complaints.archiving = 'on'");
+                return jdbc.queryForList(MOVE_BATCH, Long.class, Timestamp.valueOf(cutoff), batchSize);
+            });
+            if (moved == null || moved.isEmpty()) {
+                break;
+            }
+            // Cached copies would keep answering for rows that left the table
+            moved.forEach(id -> entityManagerFactory.getCache().evict(Complaint.class, id));
+            archived.increment(moved.size());
+            total += moved.size();
+        } while (moved.size() == batchSize && !Thread.currentThread().isInterrupted());
+
+        if (total > 0) {
+            logger.info("Archived {} complaint(s) closed before {} in {} ms", total, cutoff.toLocalDate(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+        return total;
+    }
+
+    private void run() {
+        try {
+            ensureHistoryPartitions();
+            if (enabled) {
+                archive();
+            }
+        } catch (RuntimeException e) {
+            // Whatever was committed stays; the next run continues from there
+            logger.warn("⚠️ Complaint archiving run failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "complaint-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // First run right away: partitions for the coming months must exist before history is written there
+        scheduler.scheduleWithFixedDelay(this::run, 0, intervalMinutes, TimeUnit.MINUTES);
+        if (enabled) {
+            logger.info("Complaint archiving enabled (afterMonths={}, batchSize={}, intervalMinutes={})",
+                    afterMonths, batchSize, intervalMinutes);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        // Interrupts a running archive() between batches; a batch in flight commits or rolls back as a whole
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    // Stop before the default phase so a running batch finishes while the DataSource is still open
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ComplaintFilter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV / NDJSON export of complaints (GET /api/complaints/export), active and archived, within a role scope
+ * and the listing filters.
+ *
+ * Rows are read through a forward-only cursor (fetch-size rows per round trip, inside a read-only
+ * transaction) and written to the response as they arrive, optionally gzip-compressed: no entities, no
+ * list of rows, no rendered document in memory, so heap use per export is the same for a hundred rows as
+ * for millions. Each running export holds one pooled connection, so at most max-concurrent are accepted at
+ * a time: each holds a permit from when export() accepts it until its body finished (or the request ended
+ * without running it).
+ */
+@Service
+public class ComplaintExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintExportService.class);
+
+    private static final String EXPORT_SELECT = "SELECT c.id, c.title, c.description, k.name AS category, "
+            + "sc.name AS subcategory, c.location, c.contact_number, c.status, c.priority, c.duplicate_of_id, "
+            + "c.created_at, c.updated_at, c.archived, c.archived_at, u.id AS user_id, u.name AS user_name, "
+            + "u.email AS user_email "
+            + "FROM complaints_all c JOIN users u ON u.id = c.user_id JOIN categories k ON k.id = c.category_id "
+            + "LEFT JOIN subcategories sc ON sc.id = c.subcategory_id";
+
+    // Names of the EXPORT_SELECT columns, in order: the CSV header and the NDJSON keys
+    private static final String[] COLUMNS = {"id", "title", "description", "category", "subcategory", "location",
+            "contact_number", "status", "priority", "duplicate_of_id", "created_at", "updated_at", "archived",
+            "archived_at", "user_id", "user_name", "user_email"};
+
+    // Bytes buffered before a write reaches the response (and the gzip stream)
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        CSV(".csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON(".ndjson", new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        // IllegalArgumentException for anything but csv / ndjson (any case)
+        public static Format parse(String format) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format '" + format + "' (csv or ndjson)");
+            }
+        }
+    }
+
+    private final NamedParameterJdbcTemplate streamingJdbc;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CategoryService categoryService;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    // One permit per accepted export that has not finished yet (see Export)
+    private final Semaphore permits;
+    private final Counter exportedRows;
+
+    public ComplaintExportService(DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  CategoryService categoryService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${complaints.export.fetch-size:1000}") int fetchSize,
+                                  @Value("${complaints.export.max-concurrent:4}") int maxConcurrent) {
+        // Postgres only streams with a fetch size inside a transaction (autocommit off)
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.setFetchSize(fetchSize);
+        this.streamingJdbc = new NamedParameterJdbcTemplate(jdbc);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.categoryService = categoryService;
+        this.permits = new Semaphore(maxConcurrent);
+        this.exportedRows = Counter.builder("complaints.export.rows")
+                .description("Complaint rows written by CSV / NDJSON exports")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ✅ Export of every complaint in scope (ownerId / categoryIds null = unrestricted) matching the filter,
+     * newest first. Scope and filter are checked here (IllegalArgumentException for an unknown category,
+     * IllegalStateException while max-concurrent exports are running); the query runs when the returned
+     * body is written. The caller must release() the body if the request ends without writing it.
+     */
+    public Export export(Long ownerId, Collection<Short> categoryIds, ComplaintFilter filter,
+                                        Format format, boolean gzip) {
+        if (filter.getCategory() != null && !filter.getCategory().isBlank()) {
+            filter.setCategoryId(categoryService.resolve(filter.getCategory()).getId());
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = EXPORT_SELECT + whereClause(scope(params, ownerId, categoryIds, filter))
+                + " ORDER BY c.created_at DESC, c.id DESC";
+
+        if (!permits.tryAcquire()) {
+            throw new IllegalStateException("Too many exports running, try again later");
+        }
+        return new Export(sql, params, format, gzip);
+    }
+
+    /**
+     * Body of an accepted export, holding one of the max-concurrent permits. Writing it gives the permit back
+     * when done; release() gives it back when the body will not be written (the async request timed out or
+     * failed first), after which writing it is refused. The permit is returned once, whichever comes first.
+     */
+    public final class Export implements StreamingResponseBody {
+
+        private final String sql;
+        private final Map<String, Object> params;
+        private final Format format;
+        private final boolean gzip;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Export(String sql, Map<String, Object> params, Format format, boolean gzip) {
+            this.sql = sql;
+            this.params = params;
+            this.format = format;
+            this.gzip = gzip;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            if (released.get()) {
+                throw new IllegalStateException("Export request already ended");
+            }
+            try {
+                write(out, sql, params, format, gzip);
+            } finally {
+                release();
+            }
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private void write(OutputStream out, String sql, Map<String, Object> params, Format format, boolean gzip)
+            throws IOException {
+        long started = System.nanoTime();
+        // Fastest compression level: about twice the throughput of the default for ~30% more bytes
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        } : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(jsonFactory.createGenerator(writer));
+        long[] count = {0};
+        try {
+            rows.header();
+            readOnlyTransaction.executeWithoutResult(status -> streamingJdbc.query(sql, params, rs -> {
+                try {
+                    rows.row(rs);
+                } catch (IOException e) {
+                    // Usually the client went away: ends the query and its transaction
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            }));
+            rows.finish();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            out.flush();
+        } catch (UncheckedIOException e) {
+            logger.info("Complaint export stopped after {} rows: {}", count[0], e.getCause().getMessage());
+            throw e.getCause();
+        } finally {
+            exportedRows.increment(count[0]);
+        }
+        logger.info("Exported {} complaints as {}{} in {} ms", count[0], format, gzip ? " (gzip)" : "",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    // Role scope + listing filters on complaints_all aliased as c (same meaning as for the listing)
+    private static List<String> scope(Map<String, Object> params, Long ownerId, Collection<Short> categoryIds,
+                                      ComplaintFilter filter) {
+        List<String> where = new ArrayList<>();
+        if (ownerId != null) {
+            where.add("c.user_id = :ownerId");
+            params.put("ownerId", ownerId);
+        }
+        if (categoryIds != null) {
+            // An authority routed to no category sees nothing (and IN () is not valid SQL)
+            where.add(categoryIds.isEmpty() ? "FALSE" : "c.category_id IN (:categoryIds)");
+            params.put("categoryIds", categoryIds);
+        }
+        if (filter.getStatus() != null) {
+            where.add("c.status = :status");
+            params.put("status", filter.getStatus().name());
+        }
+        if (filter.getPriority() != null) {
+            where.add("c.priority = :priority");
+            params.put("priority", filter.getPriority().name());
+        }
+        if (filter.getCategoryId() != null) {
+            where.add("c.category_id = :categoryId");
+            params.put("categoryId", filter.getCategoryId());
+        }
+        if (filter.getFrom() != null) {
+            where.add("c.created_at >= :from");
+            params.put("from", filter.getFrom().atStartOfDay());
+        }
+        if (filter.getTo() != null) {
+            where.add("c.created_at < :to");
+            params.put("to", filter.getTo().plusDays(1).atStartOfDay());
+        }
+        return where;
+    }
+
+    private static String whereClause(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    // Column value as written: timestamps in ISO-8601 (2025-01-31T10:15:30), everything else as read
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value;
+    }
+
+    private interface RowWriter {
+        void header() throws IOException;
+
+        void row(ResultSet rs) throws IOException, SQLException;
+
+        void finish() throws IOException;
+    }
+
+    // RFC 4180: comma-separated, CRLF line ends, a header row with the column names, fields quoted when needed
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void header() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws IOException, SQLException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = value(rs, i + 1);
+                if (value instanceof String text) {
+                    field(text);
+                } else if (value != null) {
+                    writer.write(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void field(String text) throws IOException {
+            // Text starting like a formula would be evaluated by spreadsheet applications: make it plain text
+            if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            boolean quote = false;
+            for (int i = 0; i < text.length() && !quote; i++) {
+                char ch = text.charAt(i);
+                quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (!quote) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    // One JSON object per line, keyed by column name; numbers and booleans typed, missing values null
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(JsonGenerator json) {
+            // Lines are ended explicitly, without the default space between root-level values
+            this.json = json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        }
+
+        @Override
+        public void header() {
+        }
+
+        @Override
+        public void row(ResultSet rs) throws IOException, SQLException {
+            json.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = value(rs, i + 1);
+                json.writeFieldName(COLUMNS[i]);
+                if (value == null) {
+                    json.writeNull();
+                } else if (value instanceof Number number) {
+                    json.writeNumber(number.longValue());
+                } else if (value instanceof Boolean bool) {
+                    json.writeBoolean(bool);
+                } else {
+                    json.writeString(value.toString());
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+}
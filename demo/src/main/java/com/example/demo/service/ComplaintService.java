@@ -1,12 +1,50 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BulkStatusUpdateResult;
+import com.example.demo.dto.ComplaintCount;
+import com.example.demo.dto.ComplaintCursor;
+import com.example.demo.dto.ComplaintFilter;
+import com.example.demo.dto.ComplaintPage;
+import com.example.demo.dto.ComplaintSearchCursor;
+import com.example.demo.dto.ComplaintSearchHit;
+import com.example.demo.dto.ComplaintSearchPage;
+import com.example.demo.dto.ComplaintStats;
+import com.example.demo.dto.ComplaintSummary;
+import com.example.demo.events.ComplaintChangedEvent;
+import com.example.demo.events.ComplaintsWrittenEvent;
 import com.example.demo.model.Complaint;
+import com.example.demo.model.ComplaintStatusUpdate;
+import com.example.demo.model.UnifiedComplaint;
+import com.example.demo.repository.ComplaintCounterRepository;
 import com.example.demo.repository.ComplaintRepository;
+import com.example.demo.repository.ComplaintStatusUpdateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.example.demo.model.User;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import com.example.demo.dto.UpdateComplaintStatusRequest;
 
 @Service
@@ -14,42 +52,265 @@ public class ComplaintService {
 
     private static final Logger logger = LoggerFactory.getLogger(ComplaintService.class);
 
+    // Longest accepted search input; longer text is not a search term anyone types
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    // Matches within the recency window from which a search counts as broad (see searchComplaints)
+    private static final int BROAD_SEARCH_MATCHES = 20;
+    // Random pause before retrying a conflicting update: up to 5 ms, doubling per attempt, at most 200 ms
+    private static final long BASE_BACKOFF_MILLIS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
     private final ComplaintRepository complaintRepository;
+    private final ComplaintStatusUpdateRepository statusUpdateRepository;
+    private final ComplaintCounterRepository counterRepository;
+    private final DuplicateComplaintIndex duplicateIndex;
+    private final CategoryRoutingService categoryRouting;
+    private final CategoryService categoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int searchRecencyWindow;
+    private final TransactionTemplate transaction;
+    private final int maxUpdateAttempts;
+    private final Counter conflictsRetried;
+    private final Counter conflictsGivenUp;
 
-    public ComplaintService(ComplaintRepository complaintRepository) {
+    public ComplaintService(ComplaintRepository complaintRepository,
+                            ComplaintStatusUpdateRepository statusUpdateRepository,
+                            ComplaintCounterRepository counterRepository,
+                            DuplicateComplaintIndex duplicateIndex,
+                            CategoryRoutingService categoryRouting,
+                            CategoryService categoryService,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${complaints.page.default-size:20}") int defaultPageSize,
+                            @Value("${complaints.page.max-size:100}") int maxPageSize,
+                            @Value("${complaints.search.recency-window:5000}") int searchRecencyWindow,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${complaints.updates.max-attempts:10}") int maxUpdateAttempts) {
         this.complaintRepository = complaintRepository;
+        this.statusUpdateRepository = statusUpdateRepository;
+        this.counterRepository = counterRepository;
+        this.duplicateIndex = duplicateIndex;
+        this.categoryRouting = categoryRouting;
+        this.categoryService = categoryService;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.searchRecencyWindow = searchRecencyWindow;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxUpdateAttempts = maxUpdateAttempts;
+        this.conflictsRetried = Counter.builder("complaints.update.conflicts")
+                .description("Complaint updates that lost a race with a concurrent writer")
+                .tag("outcome", "retried")
+                .register(meterRegistry);
+        this.conflictsGivenUp = Counter.builder("complaints.update.conflicts")
+                .description("Complaint updates that lost a race with a concurrent writer")
+                .tag("outcome", "gave_up")
+                .register(meterRegistry);
     }
 
-    // ✅ Create new complaint
+    // ✅ Create new complaint, linked to an open complaint it most likely duplicates (same category and
+    // location, similar text); only complaints without such a parent become duplicate candidates themselves
     public Complaint createComplaint(Complaint complaint) {
         logger.info("Creating complaint for userId={}, title={}",
                 complaint.getUser().getId(), complaint.getTitle());
-        return complaintRepository.save(complaint);
+        Long duplicateOf = duplicateIndex.findDuplicate(complaint);
+        if (duplicateOf != null) {
+            logger.info("Complaint '{}' looks like a duplicate of complaint {}", complaint.getTitle(), duplicateOf);
+        }
+        complaint.setDuplicateOfId(duplicateOf);
+        Complaint saved = complaintRepository.save(complaint);
+        eventPublisher.publishEvent(ComplaintsWrittenEvent.saved(saved));
+        return saved;
+    }
+
+    // ✅ Complaints linked to this one as likely duplicates
+    public List<ComplaintSummary> getDuplicatesOf(Long id) {
+        return complaintRepository.findSummariesByDuplicateOfId(id);
     }
 
     // ✅ Get complaints by user
-    public List<Complaint> getComplaintsByUser(Long userId) {
+    public List<ComplaintSummary> getComplaintsByUser(Long userId) {
         logger.info("Fetching complaints for userId={}", userId);
-        return complaintRepository.findByUser_Id(userId);
+        return complaintRepository.findSummariesByUserId(userId);
     }
 
     // ✅ Get all complaints (with user details)
-    public List<Complaint> getAllComplaints() {
+    public List<ComplaintSummary> getAllComplaints() {
         logger.info("Fetching all complaints with user details");
-        return complaintRepository.findAllWithUser();
+        return complaintRepository.findAllSummaries();
     }
 
     // ✅ Get complaints by categories (for Warden & Faculty)
-    public List<Complaint> getComplaintsByCategories(List<String> categories) {
-        logger.info("Fetching complaints by categories={}", categories);
-        return complaintRepository.findByCategoryIn(categories);
+    public List<ComplaintSummary> getComplaintsByCategories(Collection<Short> categoryIds) {
+        logger.info("Fetching complaints by categoryIds={}", categoryIds);
+        return complaintRepository.findSummariesByCategoryIdIn(categoryIds);
+    }
+
+    // ✅ Status-filtered variants of the role scopes (filtering done by the database)
+    public List<ComplaintSummary> getComplaintsByUserAndStatuses(Long userId, Collection<Complaint.Status> statuses) {
+        logger.info("Fetching complaints for userId={} with statuses={}", userId, statuses);
+        return complaintRepository.findSummariesByUserIdAndStatusIn(userId, statuses);
+    }
+
+    public List<ComplaintSummary> getComplaintsByCategoriesAndStatuses(Collection<Short> categoryIds,
+                                                                       Collection<Complaint.Status> statuses) {
+        logger.info("Fetching complaints by categoryIds={} with statuses={}", categoryIds, statuses);
+        return complaintRepository.findSummariesByCategoryIdInAndStatusIn(categoryIds, statuses);
+    }
+
+    public List<ComplaintSummary> getComplaintsByStatuses(Collection<Complaint.Status> statuses) {
+        logger.info("Fetching all complaints with statuses={}", statuses);
+        return complaintRepository.findSummariesByStatusIn(statuses);
+    }
+
+    // ✅ Keyset-paginated listing within a role scope (ownerId / categoryIds null = unrestricted)
+    public ComplaintPage<ComplaintSummary> getComplaintPage(Long ownerId, Collection<Short> categoryIds,
+                                                            ComplaintFilter filter, String cursor, Integer size) {
+        resolveCategoryFilter(filter);
+        int pageSize = (size == null || size <= 0) ? defaultPageSize : Math.min(size, maxPageSize);
+        ComplaintCursor after = (cursor == null || cursor.isBlank()) ? null : ComplaintCursor.decode(cursor);
+        logger.info("Fetching complaint page ownerId={}, categoryIds={}, size={}, cursor={}",
+                ownerId, categoryIds, pageSize, cursor);
+
+        // Fetch one extra row to know whether another page exists without a COUNT(*)
+        List<ComplaintSummary> rows = complaintRepository.findPage(ownerId, categoryIds, filter, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ComplaintSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ComplaintSummary last = items.get(items.size() - 1);
+            nextCursor = new ComplaintCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new ComplaintPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * ✅ Full-text search within a role scope (same scope arguments and paging as getComplaintPage).
+     *
+     * Ranking every match costs one heap visit per match, which is fine for specific queries but not
+     * for broad ones ("broken" can match 10%+ of all complaints). So the first page probes the newest
+     * recency-window complaints in scope: if they already hold a page's worth of matches the query is
+     * broad and is answered newest first (a short walk down the created_at index); otherwise it is
+     * specific, has few matches overall, and is ranked by relevance. The cursor keeps the ordering
+     * chosen for the first page.
+     */
+    public ComplaintSearchPage searchComplaints(String query, Long ownerId, Collection<Short> categoryIds,
+                                                ComplaintFilter filter, String cursor, Integer size) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (trimmed.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query is limited to " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        resolveCategoryFilter(filter);
+        int pageSize = (size == null || size <= 0) ? defaultPageSize : Math.min(size, maxPageSize);
+        ComplaintSearchCursor after = (cursor == null || cursor.isBlank()) ? null : ComplaintSearchCursor.decode(cursor);
+
+        ComplaintSearchCursor.Ordering ordering;
+        if (after != null) {
+            ordering = after.getOrdering();
+        } else {
+            int recentMatches = complaintRepository.countRecentSearchMatches(trimmed, ownerId, categoryIds, filter,
+                    searchRecencyWindow, BROAD_SEARCH_MATCHES);
+            ordering = recentMatches >= BROAD_SEARCH_MATCHES
+                    ? ComplaintSearchCursor.Ordering.RECENCY
+                    : ComplaintSearchCursor.Ordering.RELEVANCE;
+        }
+        logger.info("Searching complaints q='{}', ownerId={}, categoryIds={}, size={}, ordering={}, cursor={}",
+                trimmed, ownerId, categoryIds, pageSize, ordering, cursor);
+
+        // Fetch one extra row to know whether another page exists without a COUNT(*)
+        List<ComplaintSearchHit> rows = ordering == ComplaintSearchCursor.Ordering.RELEVANCE
+                ? complaintRepository.searchByRelevance(trimmed, ownerId, categoryIds, filter, after, pageSize + 1)
+                : complaintRepository.searchByRecency(trimmed, ownerId, categoryIds, filter, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ComplaintSearchHit> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ComplaintSearchHit last = items.get(items.size() - 1);
+            nextCursor = (ordering == ComplaintSearchCursor.Ordering.RELEVANCE
+                    ? ComplaintSearchCursor.byRelevance(last.getRank(), last.getId())
+                    : ComplaintSearchCursor.byRecency(last.getCreatedAt(), last.getId())).encode();
+        }
+        return new ComplaintSearchPage(items, nextCursor, hasMore, ordering);
     }
 
-    // ✅ Get single complaint by ID (safe lookup)
+    // The listing filters on category_id: the category name of the filter becomes its id
+    // (IllegalArgumentException for an unknown category)
+    private void resolveCategoryFilter(ComplaintFilter filter) {
+        if (filter != null && filter.getCategory() != null && !filter.getCategory().isBlank()) {
+            filter.setCategoryId(categoryService.resolve(filter.getCategory()).getId());
+        }
+    }
+
+    // ✅ Dashboard aggregates for a role scope (same arguments as getComplaintPage). Authorities read the
+    // trigger-maintained complaint_counters rows, so the cost does not grow with the complaints table;
+    // a student's counts are grouped from their own complaints.
+    public ComplaintStats getComplaintStats(Long ownerId, Collection<Short> categoryIds) {
+        List<ComplaintCount> buckets;
+        if (ownerId != null) {
+            buckets = complaintRepository.countByUserId(ownerId);
+        } else if (categoryIds != null) {
+            buckets = counterRepository.findCountsByCategoryIdIn(categoryIds);
+        } else {
+            buckets = counterRepository.findAllCounts();
+        }
+
+        ComplaintStats stats = new ComplaintStats();
+        buckets.forEach(stats::add);
+        return stats;
+    }
+
+    // ✅ Get single complaint by ID (safe lookup) for changing it: active complaints only, archived ones are read-only
     public Complaint getComplaintById(Long id) {
         logger.debug("Fetching complaint by id={}", id);
         return complaintRepository.findById(id)
+                .orElseThrow(() -> complaintRepository.existsArchivedById(id)
+                        ? new IllegalArgumentException("❌ Complaint " + id + " is archived and can no longer be changed")
+                        : new IllegalArgumentException("❌ Complaint not found with ID: " + id));
+    }
+
+    // ✅ Get single complaint by ID for reading, archived or not. Active complaints come from the second-level
+    // cache / complaints table as usual; an archived one is read from complaints_archive into a detached
+    // Complaint (archived = true) carrying its status history, which is never saved.
+    public Complaint getComplaintByIdIncludingArchived(Long id) {
+        Optional<Complaint> active = complaintRepository.findById(id);
+        if (active.isPresent()) {
+            return active.get();
+        }
+        UnifiedComplaint archived = complaintRepository.findArchivedById(id)
                 .orElseThrow(() -> new IllegalArgumentException("❌ Complaint not found with ID: " + id));
+        logger.debug("Complaint id={} read from the archive", id);
+        Complaint complaint = Complaint.builder()
+                .id(archived.getId())
+                .title(archived.getTitle())
+                .description(archived.getDescription())
+                .category(archived.getCategory())
+                .subcategory(archived.getSubcategory())
+                .location(archived.getLocation())
+                .contactNumber(archived.getContactNumber())
+                .status(archived.getStatus())
+                .priority(archived.getPriority())
+                .duplicateOfId(archived.getDuplicateOfId())
+                .version(archived.getVersion())
+                .createdAt(archived.getCreatedAt())
+                .updatedAt(archived.getUpdatedAt())
+                .user(archived.getUser())
+                .archived(true)
+                .build();
+        complaint.setStatusUpdates(getStatusHistory(complaint));
+        return complaint;
+    }
+
+    // ✅ Status history of a complaint, newest first (only the history partitions from its creation on are read)
+    public List<ComplaintStatusUpdate> getStatusHistory(Complaint complaint) {
+        return statusUpdateRepository.findByComplaintIdAndUpdatedAtGreaterThanEqualOrderByUpdatedAtDesc(
+                complaint.getId(), complaint.getCreatedAt().toLocalDate());
     }
 
     // ✅ Save complaint (for updates)
@@ -58,20 +319,186 @@ public class ComplaintService {
         return complaintRepository.save(complaint);
     }
 
-    // ✅ Update complaint status
+    // ✅ Update complaint status (compare-and-set against the version read, retried on conflict)
     public Complaint updateComplaintStatus(Long id, Complaint.Status status) {
         logger.info("Updating complaint id={} with status={}", id, status);
-        Complaint complaint = getComplaintById(id);
-        complaint.setStatus(status);
-        return complaintRepository.save(complaint);
+        Complaint saved = retryOnConflict("status of complaint " + id, () -> {
+            Complaint complaint = getComplaintById(id);
+            // an update (new version) even when the value is unchanged
+            compareAndSet(complaint, c -> complaintRepository.compareAndSetStatus(c, status, LocalDateTime.now()));
+            return complaint;
+        });
+        eventPublisher.publishEvent(ComplaintsWrittenEvent.statusChanged(List.of(saved)));
+        publishChange(ComplaintChangedEvent.Kind.STATUS, saved, null);
+        return saved;
+    }
+
+    // ✅ Apply status changes together with their history rows in one transaction, so a complaint's
+    // status and its history always commit (or roll back) together. Complaints are loaded through the
+    // second-level cache and their statuses set by one compare-and-set UPDATE against the versions read
+    // (a single complaint is retried on its current version when another writer got there first, see
+    // compareAndSet; a batch is applied again on fresh rows); history rows go out as JDBC batch inserts.
+    // Returns the complaints as committed.
+    public List<Complaint> applyStatusChanges(List<ComplaintStatusUpdate> updates) {
+        return retryOnConflict(updates.size() + " status change(s)", () -> applyStatusChangesOnce(updates));
+    }
+
+    private List<Complaint> applyStatusChangesOnce(List<ComplaintStatusUpdate> updates) {
+        // History rows of a rolled-back attempt keep their generated ids; they are inserted afresh
+        updates.forEach(update -> update.setId(null));
+
+        // Last change wins when the same complaint appears more than once in a batch
+        Map<Long, Complaint.Status> finalStatus = new LinkedHashMap<>();
+        Map<Long, ComplaintStatusUpdate> lastUpdate = new LinkedHashMap<>();
+        for (ComplaintStatusUpdate update : updates) {
+            finalStatus.put(update.getComplaint().getId(), update.getStatus());
+            lastUpdate.put(update.getComplaint().getId(), update);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Complaint> complaints = new ArrayList<>(complaintRepository.loadAllById(finalStatus.keySet()));
+        if (complaints.size() != finalStatus.size()) {
+            // Deleted or archived since the change was requested (history has no foreign key to catch it)
+            Set<Long> missing = new LinkedHashSet<>(finalStatus.keySet());
+            complaints.forEach(complaint -> missing.remove(complaint.getId()));
+            throw new IllegalArgumentException("❌ Complaint(s) not found or archived: " + missing);
+        }
+        // History first: the complaint rows stay locked only from their compare-and-set to the commit
+        statusUpdateRepository.saveAllAndFlush(updates);
+        // Category, then id order: concurrent batches lock complaint rows, and the complaint_counters rows
+        // their trigger adjusts, in the same order
+        complaints.sort(Comparator.comparing((Complaint complaint) -> complaint.getCategory().getId())
+                .thenComparing(Complaint::getId));
+        // Also when the status is unchanged: the history row is still an update. Several complaints in one
+        // statement; one that another writer changed meanwhile fails the whole attempt
+        if (complaints.size() == 1) {
+            Complaint.Status status = finalStatus.get(complaints.get(0).getId());
+            compareAndSet(complaints.get(0), c -> complaintRepository.compareAndSetStatus(c, status, now));
+        } else if (!complaintRepository.compareAndSetStatuses(complaints, finalStatus, now)) {
+            throw new ObjectOptimisticLockingFailureException(Complaint.class, finalStatus.keySet());
+        }
+        // Delivered to the duplicate index and to event stream subscribers after this transaction commits
+        eventPublisher.publishEvent(ComplaintsWrittenEvent.statusChanged(complaints));
+        List<ComplaintChangedEvent.Change> changes = new ArrayList<>(lastUpdate.size());
+        lastUpdate.forEach((id, update) -> changes.add(new ComplaintChangedEvent.Change(id, update.getStatus(), null,
+                update.getMessage(), update.getUpdatedByUser() != null ? update.getUpdatedByUser().getName() : null, now)));
+        eventPublisher.publishEvent(new ComplaintChangedEvent(ComplaintChangedEvent.Kind.STATUS, changes));
+
+        logger.info("Applied {} status change(s) across {} complaint(s)", updates.size(), finalStatus.size());
+        return complaints;
+    }
+
+    // ✅ Bulk status change for authorities: complaints loaded through the second-level cache (one IN query
+    // for the rest), permission checks in memory, then batched UPDATEs and history inserts, all in one
+    // transaction that is retried as a whole on conflict. Returns one result per id.
+    // `template` carries the shared history fields (message, next steps, ...); status and complaint are filled in here.
+    public List<BulkStatusUpdateResult> bulkUpdateStatus(Collection<Long> complaintIds, Complaint.Status status,
+                                                         ComplaintStatusUpdate template, User currentUser) {
+        Set<Long> ids = new LinkedHashSet<>(complaintIds);
+        logger.info("Bulk status update of {} complaint(s) to {} by user={}", ids.size(), status, currentUser.getEmail());
+        return retryOnConflict("bulk status update of " + ids.size() + " complaint(s)",
+                () -> bulkUpdateStatusOnce(ids, status, template, currentUser));
+    }
+
+    private List<BulkStatusUpdateResult> bulkUpdateStatusOnce(Set<Long> ids, Complaint.Status status,
+                                                              ComplaintStatusUpdate template, User currentUser) {
+        Map<Long, Complaint> complaintById = complaintRepository.loadAllById(ids).stream()
+                .collect(Collectors.toMap(Complaint::getId, complaint -> complaint));
+
+        List<BulkStatusUpdateResult> results = new ArrayList<>(ids.size());
+        List<ComplaintStatusUpdate> updates = new ArrayList<>();
+        for (Long id : ids) {
+            Complaint complaint = complaintById.get(id);
+            if (complaint == null) {
+                results.add(new BulkStatusUpdateResult(id, BulkStatusUpdateResult.Outcome.NOT_FOUND, "Complaint not found"));
+            } else if (!categoryRouting.allows(currentUser, complaint.getCategory())) {
+                results.add(new BulkStatusUpdateResult(id, BulkStatusUpdateResult.Outcome.FORBIDDEN,
+                        currentUser.getRole() + " cannot update " + complaint.getCategory().getName() + " complaints"));
+            } else {
+                updates.add(template.toBuilder()
+                        .complaint(complaint)
+                        .status(status)
+                        .build());
+                results.add(new BulkStatusUpdateResult(id, BulkStatusUpdateResult.Outcome.UPDATED, null));
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            applyStatusChangesOnce(updates);
+        }
+        return results;
     }
 
-    // ✅ Update complaint priority
+    // ✅ Runs `change` in a transaction of its own. When its compare-and-set updates fail for good (see
+    // compareAndSet), or Postgres aborts it on a deadlock or serialization failure, the transaction rolls
+    // back and `change` runs again on freshly read rows after a short random pause. Batches update their
+    // complaints in (category, id) order, so they meet on complaint rows and on the complaint_counters
+    // rows the trigger adjusts in the same order, but a batch that changes statuses the opposite way can
+    // still deadlock there. Gives up with the last ConcurrencyFailureException after max-attempts. Inside a
+    // caller's transaction there is nothing to retry: `change` just joins it.
+    private <T> T retryOnConflict(String what, Supplier<T> change) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return change.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> change.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxUpdateAttempts) {
+                    conflictsGivenUp.increment();
+                    logger.warn("⚠️ Giving up on {} after {} conflicting attempts", what, attempt);
+                    throw e;
+                }
+                conflictsRetried.increment();
+                logger.debug("Concurrent update of {} (attempt {}), retrying", what, attempt);
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(
+                            Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << (attempt - 1)) + 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Runs the compare-and-set `write` of one complaint; a 0-row result (another writer committed since the
+    // read) is retried at once against the version the repository re-read, up to max-attempts times. A
+    // complaint that was not re-read (gone meanwhile) or keeps changing fails the attempt instead, which
+    // retryOnConflict backs off and runs again from the start.
+    private void compareAndSet(Complaint complaint, Predicate<Complaint> write) {
+        for (int attempt = 1; ; attempt++) {
+            long read = complaint.getVersion();
+            if (write.test(complaint)) {
+                return;
+            }
+            if (complaint.getVersion() == read || attempt >= maxUpdateAttempts) {
+                throw new ObjectOptimisticLockingFailureException(Complaint.class, complaint.getId());
+            }
+            conflictsRetried.increment();
+        }
+    }
+
+    // ✅ Update complaint priority (compare-and-set against the version read, retried on conflict)
     public Complaint updateComplaintPriority(Long id, Complaint.Priority priority) {
         logger.info("Updating complaint id={} with priority={}", id, priority);
-        Complaint complaint = getComplaintById(id);
-        complaint.setPriority(priority);
-        return complaintRepository.save(complaint);
+        Complaint saved = retryOnConflict("priority of complaint " + id, () -> {
+            Complaint complaint = getComplaintById(id);
+            // an update (new version) even when the value is unchanged
+            compareAndSet(complaint, c -> complaintRepository.compareAndSetPriority(c, priority, LocalDateTime.now()));
+            return complaint;
+        });
+        publishChange(ComplaintChangedEvent.Kind.PRIORITY, saved, null);
+        return saved;
+    }
+
+    // Single-complaint change for event stream subscribers (the carried value depends on the kind)
+    private void publishChange(ComplaintChangedEvent.Kind kind, Complaint complaint, User updatedBy) {
+        ComplaintChangedEvent.Change change = new ComplaintChangedEvent.Change(complaint.getId(),
+                kind == ComplaintChangedEvent.Kind.STATUS ? complaint.getStatus() : null,
+                kind == ComplaintChangedEvent.Kind.PRIORITY ? complaint.getPriority() : null,
+                null, updatedBy != null ? updatedBy.getName() : null, LocalDateTime.now());
+        eventPublisher.publishEvent(new ComplaintChangedEvent(kind, List.of(change)));
     }
 
     public Complaint updateComplaint(Long id, Complaint updatedComplaint, User currentUser) {
@@ -91,7 +518,9 @@ public class ComplaintService {
         existingComplaint.setContactNumber(updatedComplaint.getContactNumber());
         existingComplaint.setPriority(updatedComplaint.getPriority());
 
-        return complaintRepository.save(existingComplaint);
+        Complaint saved = complaintRepository.save(existingComplaint);
+        eventPublisher.publishEvent(ComplaintsWrittenEvent.saved(saved));
+        return saved;
     }
 
     public void deleteComplaint(Long id, User currentUser) {
@@ -104,6 +533,7 @@ public class ComplaintService {
         }
 
         complaintRepository.delete(complaint);
+        eventPublisher.publishEvent(ComplaintsWrittenEvent.deleted(id));
         logger.info("Successfully deleted complaint id={}", id);
     }
 
@@ -120,13 +550,10 @@ public class ComplaintService {
         // Role-based category access control
         switch (currentUser.getRole()) {
             case WARDEN:
-                if (!List.of("HOSTEL", "MESS").contains(complaint.getCategory())) {
-                    throw new IllegalArgumentException("❌ Wardens can only update HOSTEL and MESS complaints");
-                }
-                break;
             case FACULTY:
-                if (!"ACADEMIC".equals(complaint.getCategory())) {
-                    throw new IllegalArgumentException("❌ Faculty can only update ACADEMIC complaints");
+                if (!categoryRouting.allows(currentUser, complaint.getCategory())) {
+                    throw new IllegalArgumentException("❌ " + currentUser.getRole() + " cannot update "
+                            + complaint.getCategory().getName() + " complaints");
                 }
                 break;
             case ADMIN:
@@ -136,13 +563,22 @@ public class ComplaintService {
                 throw new IllegalArgumentException("❌ Invalid role for status update");
         }
 
+        Complaint.Priority oldPriority = complaint.getPriority();
         complaint.setStatus(request.getStatus());
         complaint.setPriority(request.getPriority());
 
-        return complaintRepository.save(complaint);
+        Complaint saved = complaintRepository.save(complaint);
+        eventPublisher.publishEvent(ComplaintsWrittenEvent.saved(saved));
+        publishChange(ComplaintChangedEvent.Kind.STATUS, saved, currentUser);
+        if (oldPriority != saved.getPriority()) {
+            publishChange(ComplaintChangedEvent.Kind.PRIORITY, saved, currentUser);
+        }
+        return saved;
     }
     public Complaint updateComplaint(Complaint complaint) {
-        return complaintRepository.save(complaint);
+        Complaint saved = complaintRepository.save(complaint);
+        eventPublisher.publishEvent(ComplaintsWrittenEvent.saved(saved));
+        return saved;
     }
 
 }
\ No newline at end of file
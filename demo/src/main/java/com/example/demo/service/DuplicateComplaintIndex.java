@@ -0,0 +1,295 @@
+package com.example.demo.service;
+
+import com.example.demo.events.ComplaintsWrittenEvent;
+import com.example.demo.model.Complaint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory similarity index of open complaints, used to spot duplicates at submission time.
+ *
+ * Complaints are bucketed by category id + normalized location. Each one is summarized by a 64-slot
+ * MinHash signature (one-permutation hashing, so one hash per trigram) of the character trigrams of its title and the start of its description; the
+ * share of equal slots estimates the Jaccard similarity of two trigram sets. Slots keep 8 bits each
+ * (b-bit MinHash), so a signature is 8 longs and is compared 8 slots at a time. A lookup scans the
+ * signatures of one bucket: microseconds for typical buckets, about a millisecond even if 100k open
+ * complaints shared one bucket.
+ *
+ * Only open (NEW / IN_PROGRESS) complaints that are not themselves duplicates are indexed, so every
+ * duplicate links to the first complaint of its group. The index is built from the database on
+ * startup and kept current from the ComplaintsWrittenEvents of ComplaintService, applied after commit;
+ * it is per instance and memory only (~150 bytes per open complaint).
+ */
+@Component
+public class DuplicateComplaintIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateComplaintIndex.class);
+
+    // Signature slots; more slots = finer similarity estimate, proportionally more memory and scan time
+    private static final int SIGNATURE_SIZE = 64;
+    private static final int SIGNATURE_LONGS = SIGNATURE_SIZE / 8;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final int DENSIFY_OFFSET = 0x9E3779B1;
+    // Characters of the (normalized) description that go into the signature after the title
+    private static final int DESCRIPTION_CHARS = 300;
+
+    private static final String REBUILD_SELECT = "SELECT id, category_id, location, title, "
+            + "SUBSTRING(description, 1, " + DESCRIPTION_CHARS + ") AS description FROM complaints "
+            + "WHERE status IN ('NEW', 'IN_PROGRESS') AND duplicate_of_id IS NULL";
+
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int minMatchingSlots;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // Bucket of every indexed complaint, for removal
+    private final ConcurrentHashMap<Long, String> bucketById = new ConcurrentHashMap<>();
+
+    public DuplicateComplaintIndex(DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${complaints.duplicates.enabled:true}") boolean enabled,
+                                   @Value("${complaints.duplicates.similarity-threshold:0.6}") double threshold,
+                                   @Value("${complaints.duplicates.rebuild-fetch-size:1000}") int fetchSize) {
+        // Postgres only streams with a fetch size inside a transaction (autocommit off)
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        // 8-bit slots also agree by chance (1 in 256) when the underlying minima differ
+        this.minMatchingSlots = (int) Math.ceil((threshold + (1 - threshold) / 256) * SIGNATURE_SIZE);
+    }
+
+    // ✅ Build the index before the web server starts taking requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Reload every open, non-duplicate complaint (also after complaints were bulk loaded behind the app's back)
+    public void rebuild() {
+        long started = System.nanoTime();
+        buckets.clear();
+        bucketById.clear();
+        readOnlyTransaction.executeWithoutResult(status -> streamingJdbc.query(REBUILD_SELECT, rs -> {
+            add(rs.getLong("id"), rs.getShort("category_id"), rs.getString("location"),
+                    rs.getString("title"), rs.getString("description"));
+        }));
+        logger.info("Duplicate index built with {} open complaint(s) in {} bucket(s) in {} ms",
+                bucketById.size(), buckets.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Id of the indexed complaint most similar to this (not yet saved) one, or null when none reaches
+     * the similarity threshold.
+     */
+    public Long findDuplicate(Complaint complaint) {
+        if (!enabled) {
+            return null;
+        }
+        Bucket bucket = buckets.get(bucketKey(categoryIdOf(complaint), complaint.getLocation()));
+        if (bucket == null) {
+            return null;
+        }
+        long[] signature = signature(complaint.getTitle(), complaint.getDescription());
+        return bucket.mostSimilar(signature, minMatchingSlots);
+    }
+
+    // ✅ Index a saved complaint (replacing any previous entry) if it is open and not itself a duplicate
+    public void index(Complaint complaint) {
+        index(complaint, complaint.getStatus());
+    }
+
+    // Same, with the status the complaint has in the database when the loaded entity may be older
+    public void index(Complaint complaint, Complaint.Status status) {
+        remove(complaint.getId());
+        if (isOpen(status) && complaint.getDuplicateOfId() == null) {
+            add(complaint.getId(), categoryIdOf(complaint), complaint.getLocation(),
+                    complaint.getTitle(), complaint.getDescription());
+        }
+    }
+
+    // ✅ Written complaints, once committed (or at once outside a transaction): closed ones leave the index,
+    // open ones are (re)indexed unless only their status changed and they are indexed already
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onComplaintsWritten(ComplaintsWrittenEvent event) {
+        event.getDeletedIds().forEach(this::remove);
+        for (Complaint complaint : event.getComplaints()) {
+            if (!isOpen(complaint.getStatus())) {
+                remove(complaint.getId());
+            } else if (event.isContentChanged() || !contains(complaint.getId())) {
+                index(complaint);
+            }
+        }
+    }
+
+    public void remove(Long id) {
+        String key = bucketById.remove(id);
+        if (key != null) {
+            buckets.computeIfPresent(key, (k, bucket) -> bucket.remove(id) ? null : bucket);
+        }
+    }
+
+    public boolean contains(Long id) {
+        return bucketById.containsKey(id);
+    }
+
+    public static boolean isOpen(Complaint.Status status) {
+        return status == Complaint.Status.NEW || status == Complaint.Status.IN_PROGRESS;
+    }
+
+    private void add(long id, Short categoryId, String location, String title, String description) {
+        if (!enabled) {
+            return;
+        }
+        String key = bucketKey(categoryId, location);
+        long[] signature = signature(title, description);
+        buckets.compute(key, (k, bucket) -> {
+            Bucket target = bucket == null ? new Bucket() : bucket;
+            target.add(id, signature);
+            return target;
+        });
+        bucketById.put(id, key);
+    }
+
+    private static String bucketKey(Short categoryId, String location) {
+        return categoryId + "|" + normalize(location);
+    }
+
+    private static Short categoryIdOf(Complaint complaint) {
+        return complaint.getCategory() == null ? null : complaint.getCategory().getId();
+    }
+
+    // Lower case letters and digits, every other run of characters collapsed to one space
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int end = sb.length();
+        return end > 0 && sb.charAt(end - 1) == ' ' ? sb.substring(0, end - 1) : sb.toString();
+    }
+
+    // b-bit MinHash: the low 8 bits of each slot's minimum, 8 slots packed per long
+    private static long[] signature(String title, String description) {
+        String normalizedDescription = normalize(description);
+        if (normalizedDescription.length() > DESCRIPTION_CHARS) {
+            normalizedDescription = normalizedDescription.substring(0, DESCRIPTION_CHARS);
+        }
+        String text = " " + normalize(title) + " " + normalizedDescription + " ";
+
+        // One-permutation hashing: one hash per trigram, its top 6 bits pick the slot
+        int[] minima = new int[SIGNATURE_SIZE];
+        Arrays.fill(minima, Integer.MAX_VALUE);
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            long h = mix(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+            int slot = (int) (h >>> 58);
+            int value = (int) h & Integer.MAX_VALUE;
+            if (value < minima[slot]) {
+                minima[slot] = value;
+            }
+        }
+        // Densification: an empty slot borrows the value of the next filled one (there always is one, the
+        // padded text has at least one trigram), shifted by the distance so borrowed slots stay distinct
+        long[] signature = new long[SIGNATURE_LONGS];
+        for (int k = 0; k < SIGNATURE_SIZE; k++) {
+            int distance = 0;
+            while (minima[(k + distance) % SIGNATURE_SIZE] == Integer.MAX_VALUE) {
+                distance++;
+            }
+            int value = minima[(k + distance) % SIGNATURE_SIZE] + distance * DENSIFY_OFFSET;
+            signature[k >>> 3] |= (long) (value & 0xFF) << ((k & 7) << 3);
+        }
+        return signature;
+    }
+
+    // Number of equal bytes in a and b (SWAR: the high bit of each zero byte of a ^ b ends up set)
+    private static int equalBytes(long a, long b) {
+        long x = a ^ b;
+        long y = ~(((x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | x | LOW_SEVEN_BITS);
+        return Long.bitCount(y);
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    // Ids and signatures of one category + location, in parallel arrays
+    private static final class Bucket {
+        private long[] ids = new long[4];
+        private long[] signatures = new long[4 * SIGNATURE_LONGS];
+        private int size;
+
+        synchronized Long mostSimilar(long[] signature, int minMatchingSlots) {
+            Long best = null;
+            int bestMatches = minMatchingSlots - 1;
+            for (int i = 0; i < size; i++) {
+                int offset = i * SIGNATURE_LONGS;
+                int matches = 0;
+                for (int w = 0; w < SIGNATURE_LONGS; w++) {
+                    matches += equalBytes(signatures[offset + w], signature[w]);
+                }
+                // Ties go to the older (lower) id, the natural parent
+                if (matches > bestMatches || (matches == bestMatches && best != null && ids[i] < best)) {
+                    best = ids[i];
+                    bestMatches = matches;
+                }
+            }
+            return best;
+        }
+
+        synchronized void add(long id, long[] signature) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                signatures = Arrays.copyOf(signatures, size * 2 * SIGNATURE_LONGS);
+            }
+            ids[size] = id;
+            System.arraycopy(signature, 0, signatures, size * SIGNATURE_LONGS, SIGNATURE_LONGS);
+            size++;
+        }
+
+        // Swap-remove; returns true when the bucket is left empty
+        synchronized boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    System.arraycopy(signatures, size * SIGNATURE_LONGS, signatures, i * SIGNATURE_LONGS, SIGNATURE_LONGS);
+                    break;
+                }
+            }
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FeedbackRequest;
+import com.example.demo.dto.FeedbackRollupView;
+import com.example.demo.model.ComplaintStatusUpdate;
+import com.example.demo.model.FeedbackRollup;
+import com.example.demo.model.User;
+import com.example.demo.repository.ComplaintStatusUpdateRepository;
+import com.example.demo.repository.FeedbackRollupRepository;
+import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Feedback analytics served from the feedback_rollups table instead of scanning every feedback row.
+ *
+ * Each submission adds its contribution to three rollup rows (category, resolver, week) in the same
+ * transaction that stores the feedback. {@link #rebuild()} recomputes the whole table from
+ * complaint_status_updates with a streaming cursor, for backfills and for repairing drift; it runs
+ * once on startup when the table is empty but feedback exists.
+ */
+@Service
+public class FeedbackAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackAnalyticsService.class);
+
+    private static final String REBUILD_SELECT = "SELECT k.name AS category, su.updated_by_user_id, su.feedback_submitted_at, "
+            + "su.satisfaction_rating, su.is_fully_solved, su.would_recommend "
+            + "FROM complaint_status_updates su JOIN complaints_all c ON c.id = su.complaint_id "
+            + "JOIN categories k ON k.id = c.category_id "
+            + "WHERE su.feedback_submitted_at IS NOT NULL";
+
+    private static final String REBUILD_INSERT = "INSERT INTO feedback_rollups (dimension, dimension_key, "
+            + "feedback_count, rating_count, rating_sum, fully_solved_answers, fully_solved_yes, "
+            + "recommend_answers, recommend_yes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ComplaintStatusUpdateRepository statusUpdateRepository;
+    private final FeedbackRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate streamingJdbc;
+
+    public FeedbackAnalyticsService(ComplaintStatusUpdateRepository statusUpdateRepository,
+                                    FeedbackRollupRepository rollupRepository,
+                                    UserRepository userRepository,
+                                    DataSource dataSource,
+                                    @Value("${feedback.analytics.rebuild-fetch-size:1000}") int fetchSize) {
+        this.statusUpdateRepository = statusUpdateRepository;
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        // Postgres only streams with a fetch size inside a transaction (autocommit off), see rebuild()
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(fetchSize);
+    }
+
+    // ✅ Store the feedback on its RESOLVED status update and roll it up atomically. Only a status update without
+    // feedback takes it, so of concurrent submissions exactly one is stored and counted; false for the others.
+    @Transactional
+    public boolean submitFeedback(ComplaintStatusUpdate statusUpdate, FeedbackRequest feedback, String category) {
+        LocalDateTime submittedAt = LocalDateTime.now();
+        int updated = statusUpdateRepository.submitFeedback(statusUpdate.getId(), statusUpdate.getUpdatedAt(),
+                feedback.getFeedback(), feedback.getSatisfactionRating(), feedback.getIsFullySolved(),
+                feedback.getWouldRecommend(), submittedAt);
+        if (updated != 1) {
+            return false;
+        }
+
+        Totals totals = new Totals();
+        totals.add(feedback.getSatisfactionRating(), feedback.getIsFullySolved(), feedback.getWouldRecommend());
+        increment(FeedbackRollup.Dimension.CATEGORY, category, totals);
+        increment(FeedbackRollup.Dimension.RESOLVER, statusUpdate.getUpdatedByUser().getId().toString(), totals);
+        increment(FeedbackRollup.Dimension.WEEK, weekKey(submittedAt), totals);
+        return true;
+    }
+
+    private void increment(FeedbackRollup.Dimension dimension, String key, Totals totals) {
+        rollupRepository.increment(dimension.name(), key,
+                (int) totals.ratingCount, (int) totals.ratingSum,
+                (int) totals.fullySolvedAnswers, (int) totals.fullySolvedYes,
+                (int) totals.recommendAnswers, (int) totals.recommendYes);
+    }
+
+    // ✅ Rollup rows of one dimension; resolver rows are labelled with the resolver's name
+    @Transactional(readOnly = true)
+    public List<FeedbackRollupView> getRollups(FeedbackRollup.Dimension dimension) {
+        List<FeedbackRollup> rollups = rollupRepository.findByDimension(dimension);
+
+        Map<String, String> labels = new HashMap<>();
+        if (dimension == FeedbackRollup.Dimension.RESOLVER) {
+            List<Long> ids = rollups.stream().map(r -> Long.valueOf(r.getId().getDimensionKey())).toList();
+            labels = userRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(u -> u.getId().toString(), User::getName));
+        }
+
+        List<FeedbackRollupView> views = new ArrayList<>(rollups.size());
+        for (FeedbackRollup rollup : rollups) {
+            String key = rollup.getId().getDimensionKey();
+            views.add(new FeedbackRollupView(rollup, labels.getOrDefault(key, key)));
+        }
+        return views;
+    }
+
+    /**
+     * Recompute every rollup row from the feedback stored on complaint_status_updates.
+     * Feedback rows are streamed (never loaded as a list); only the per-key totals are kept in memory.
+     * The table lock makes concurrent submissions wait, so none of them is counted twice or lost.
+     */
+    @Transactional
+    public int rebuild() {
+        long started = System.nanoTime();
+        streamingJdbc.execute("LOCK TABLE feedback_rollups IN EXCLUSIVE MODE");
+
+        Map<FeedbackRollup.Dimension, Map<String, Totals>> totals = new HashMap<>();
+        long[] rows = {0};
+        streamingJdbc.query(REBUILD_SELECT, rs -> {
+            Integer rating = rs.getObject("satisfaction_rating", Integer.class);
+            Boolean fullySolved = rs.getObject("is_fully_solved", Boolean.class);
+            Boolean recommend = rs.getObject("would_recommend", Boolean.class);
+            Timestamp submittedAt = rs.getTimestamp("feedback_submitted_at");
+
+            totalsFor(totals, FeedbackRollup.Dimension.CATEGORY, rs.getString("category"))
+                    .add(rating, fullySolved, recommend);
+            totalsFor(totals, FeedbackRollup.Dimension.RESOLVER, Long.toString(rs.getLong("updated_by_user_id")))
+                    .add(rating, fullySolved, recommend);
+            totalsFor(totals, FeedbackRollup.Dimension.WEEK, weekKey(submittedAt.toLocalDateTime()))
+                    .add(rating, fullySolved, recommend);
+            rows[0]++;
+        });
+
+        List<Object[]> batch = new ArrayList<>();
+        totals.forEach((dimension, byKey) -> byKey.forEach((key, t) -> batch.add(new Object[]{
+                dimension.name(), key, t.feedbackCount, t.ratingCount, t.ratingSum,
+                t.fullySolvedAnswers, t.fullySolvedYes, t.recommendAnswers, t.recommendYes})));
+
+        streamingJdbc.update("DELETE FROM feedback_rollups");
+        streamingJdbc.batchUpdate(REBUILD_INSERT, batch);
+
+        logger.info("Feedback rollups rebuilt from {} feedback row(s) into {} rollup row(s) in {} ms",
+                rows[0], batch.size(), (System.nanoTime() - started) / 1_000_000);
+        return batch.size();
+    }
+
+    // ✅ Backfill on first start (or after the table was cleared) so analytics never start out empty
+    // (transactional itself: the call to rebuild() below does not go through the proxy)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && statusUpdateRepository.existsByFeedbackSubmittedAtIsNotNull()) {
+            logger.info("Feedback rollups are empty, rebuilding from existing feedback");
+            rebuild();
+        }
+    }
+
+    private static Totals totalsFor(Map<FeedbackRollup.Dimension, Map<String, Totals>> totals,
+                                    FeedbackRollup.Dimension dimension, String key) {
+        return totals.computeIfAbsent(dimension, d -> new HashMap<>()).computeIfAbsent(key, k -> new Totals());
+    }
+
+    // Weeks are keyed by the ISO date of their Monday, so keys sort chronologically as strings
+    private static String weekKey(LocalDateTime submittedAt) {
+        return submittedAt.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString();
+    }
+
+    private static class Totals {
+        long feedbackCount;
+        long ratingCount;
+        long ratingSum;
+        long fullySolvedAnswers;
+        long fullySolvedYes;
+        long recommendAnswers;
+        long recommendYes;
+
+        void add(Integer rating, Boolean fullySolved, Boolean recommend) {
+            feedbackCount++;
+            if (rating != null) {
+                ratingCount++;
+                ratingSum += rating;
+            }
+            if (fullySolved != null) {
+                fullySolvedAnswers++;
+                if (fullySolved) fullySolvedYes++;
+            }
+            if (recommend != null) {
+                recommendAnswers++;
+                if (recommend) recommendYes++;
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StatusChangeFailure;
+import com.example.demo.dto.StatusChangeResult;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.ComplaintStatusUpdate;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point for complaint status changes coming from the update-status endpoint.
+ *
+ * With write-behind disabled (the default) each change is applied synchronously through
+ * {@link ComplaintService#applyStatusChanges}. When enabled, changes go into a bounded queue
+ * drained by a single writer thread, which applies up to batch-size changes per transaction
+ * (complaint status + history row still commit together). A full queue falls back to the
+ * synchronous path, and the queue is flushed on shutdown.
+ *
+ * A queued change has been answered (202 Accepted) before it is written, so one that cannot be applied
+ * (complaint deleted or archived meanwhile, conflicts beyond the retry budget, ...) is not dropped: it
+ * is kept in status_change_failures and counted by complaints.status-history.failed, and admins can
+ * re-apply or discard it (/api/admin/status-change-failures).
+ */
+@Component
+public class StatusHistoryWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusHistoryWriter.class);
+
+    private static final String FAILURE_COLUMNS = "id, complaint_id, new_status, message, work_progress, next_steps, "
+            + "expected_completion_date, updated_by_user_id, requested_on, error, failed_at";
+
+    private final ComplaintService complaintService;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final Counter failed;
+    private final boolean writeBehind;
+    private final int batchSize;
+    private final long maxWaitMillis;
+    private final BlockingQueue<ComplaintStatusUpdate> queue;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public StatusHistoryWriter(ComplaintService complaintService,
+                               UserRepository userRepository,
+                               DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${complaints.status-history.write-behind.enabled:false}") boolean writeBehind,
+                               @Value("${complaints.status-history.write-behind.batch-size:50}") int batchSize,
+                               @Value("${complaints.status-history.write-behind.max-wait-ms:200}") long maxWaitMillis,
+                               @Value("${complaints.status-history.write-behind.queue-capacity:10000}") int queueCapacity) {
+        this.complaintService = complaintService;
+        this.userRepository = userRepository;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.failed = Counter.builder("complaints.status-history.failed")
+                .description("Queued status changes that could not be applied (kept in status_change_failures)")
+                .register(meterRegistry);
+        this.writeBehind = writeBehind;
+        this.batchSize = batchSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // Record a status change; returns once it is committed (with the complaint's new version) or queued
+    // (write-behind)
+    public StatusChangeResult write(ComplaintStatusUpdate update) {
+        Long complaintId = update.getComplaint().getId();
+        if (running && queue.offer(update)) {
+            return new StatusChangeResult(complaintId, update.getStatus(), true, null);
+        }
+        if (running) {
+            logger.warn("Status history queue full, applying change for complaint {} synchronously", complaintId);
+        }
+        Complaint applied = complaintService.applyStatusChanges(List.of(update)).get(0);
+        return new StatusChangeResult(complaintId, update.getStatus(), false, applied.getVersion());
+    }
+
+    private void drainLoop() {
+        List<ComplaintStatusUpdate> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ComplaintStatusUpdate first = queue.poll(maxWaitMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ComplaintStatusUpdate> batch) {
+        try {
+            complaintService.applyStatusChanges(List.copyOf(batch));
+        } catch (Exception e) {
+            // Isolate the failing change(s) instead of losing the whole batch
+            logger.error("Status history batch of {} failed ({}), retrying one by one", batch.size(), e.getMessage());
+            for (ComplaintStatusUpdate update : batch) {
+                try {
+                    complaintService.applyStatusChanges(List.of(update));
+                } catch (Exception single) {
+                    recordFailure(update, single);
+                }
+            }
+        }
+    }
+
+    private void recordFailure(ComplaintStatusUpdate update, Exception e) {
+        failed.increment();
+        Long complaintId = update.getComplaint().getId();
+        logger.error("❌ Status change to {} for complaint {} failed, kept in status_change_failures: {}",
+                update.getStatus(), complaintId, e.getMessage());
+        try {
+            jdbc.update("INSERT INTO status_change_failures (complaint_id, new_status, message, work_progress, "
+                            + "next_steps, expected_completion_date, updated_by_user_id, requested_on, error) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    complaintId, update.getStatus().name(), update.getMessage(), update.getWorkProgress(),
+                    update.getNextSteps(),
+                    update.getExpectedCompletionDate() != null ? Date.valueOf(update.getExpectedCompletionDate()) : null,
+                    update.getUpdatedByUser().getId(), Date.valueOf(update.getUpdatedAt()), e.getMessage());
+        } catch (Exception insert) {
+            logger.error("❌ Could not keep failed status change to {} for complaint {} by user {}: {}",
+                    update.getStatus(), complaintId, update.getUpdatedByUser().getId(), insert.getMessage());
+        }
+    }
+
+    // ✅ Queued changes that could not be applied, oldest first
+    public List<StatusChangeFailure> getFailures() {
+        return jdbc.query("SELECT " + FAILURE_COLUMNS + " FROM status_change_failures ORDER BY id",
+                StatusHistoryWriter::mapFailure);
+    }
+
+    // ✅ Applies a failed change now, as it was requested (same user, message and date), and removes it in the
+    // same transaction. IllegalArgumentException when there is no such failure or its complaint is gone or
+    // archived; ConcurrencyFailureException when the complaint changed concurrently (still kept)
+    public Complaint retryFailure(Long id) {
+        return transaction.execute(status -> {
+            StatusChangeFailure failure = findFailure(id);
+            User updatedBy = userRepository.findById(failure.getUpdatedByUserId())
+                    .orElseThrow(() -> new IllegalArgumentException("❌ User " + failure.getUpdatedByUserId()
+                            + " of status change failure " + id + " no longer exists"));
+            Complaint complaint = complaintService.getComplaintById(failure.getComplaintId());
+            complaintService.applyStatusChanges(List.of(ComplaintStatusUpdate.builder()
+                    .complaint(complaint)
+                    .status(failure.getStatus())
+                    .message(failure.getMessage())
+                    .workProgress(failure.getWorkProgress())
+                    .nextSteps(failure.getNextSteps())
+                    .expectedCompletionDate(failure.getExpectedCompletionDate())
+                    .updatedByUser(updatedBy)
+                    .updatedAt(failure.getRequestedOn())
+                    .build()));
+            jdbc.update("DELETE FROM status_change_failures WHERE id = ?", id);
+            logger.info("✅ Status change failure {} applied: complaint {} is now {}",
+                    id, complaint.getId(), failure.getStatus());
+            return complaint;
+        });
+    }
+
+    // ✅ Drops a failed change for good; IllegalArgumentException when there is no such failure
+    public void discardFailure(Long id) {
+        if (jdbc.update("DELETE FROM status_change_failures WHERE id = ?", id) == 0) {
+            throw new IllegalArgumentException("❌ Status change failure not found with ID: " + id);
+        }
+    }
+
+    private StatusChangeFailure findFailure(Long id) {
+        return jdbc.query("SELECT " + FAILURE_COLUMNS + " FROM status_change_failures WHERE id = ? FOR UPDATE",
+                        StatusHistoryWriter::mapFailure, id)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("❌ Status change failure not found with ID: " + id));
+    }
+
+    private static StatusChangeFailure mapFailure(ResultSet rs, int row) throws SQLException {
+        Date expected = rs.getDate("expected_completion_date");
+        return new StatusChangeFailure(
+                rs.getLong("id"),
+                rs.getLong("complaint_id"),
+                Complaint.Status.valueOf(rs.getString("new_status")),
+                rs.getString("message"),
+                rs.getString("work_progress"),
+                rs.getString("next_steps"),
+                expected != null ? expected.toLocalDate() : null,
+                rs.getLong("updated_by_user_id"),
+                rs.getDate("requested_on").toLocalDate(),
+                rs.getString("error"),
+                rs.getTimestamp("failed_at").toLocalDateTime());
+    }
+
+    @Override
+    public void start() {
+        if (!writeBehind) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::drainLoop, "status-history-writer");
+        writerThread.start();
+        logger.info("Status history write-behind enabled (batchSize={}, maxWaitMs={})", batchSize, maxWaitMillis);
+    }
+
+    @Override
+    public void stop() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false; // new writes go synchronous; the writer drains what is queued, then exits
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+            if (writerThread.isAlive()) {
+                writerThread.interrupt();
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything that slipped in while stopping is written from this thread
+        List<ComplaintStatusUpdate> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += batchSize) {
+            flush(remaining.subList(i, Math.min(i + batchSize, remaining.size())));
+        }
+        logger.info("Status history writer stopped ({} change(s) flushed on shutdown)", remaining.size());
+        writerThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writerThread != null;
+    }
+
+    // Stop before the default phase so the queue is flushed while the DataSource is still open
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+}
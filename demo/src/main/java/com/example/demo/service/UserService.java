@@ -2,19 +2,27 @@ package com.example.demo.service;
 
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.PrincipalCache;
+import com.example.demo.security.TokenRevocationList;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
 
     // ✅ Constructor injection (better than field @Autowired)
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PrincipalCache principalCache,
+                       TokenRevocationList revocationList) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
     }
 
     // Save user (used during signup)
@@ -42,6 +50,13 @@ public class UserService {
     // Update user
     public User updateUser(Long id, User updatedUser) {
         User existingUser = getUserById(id);
+        principalCache.evict(existingUser.getEmail());
+        principalCache.evict(updatedUser.getEmail());
+
+        // Tokens carry email + role as signed claims, so outstanding ones must stop working if either changes
+        if (existingUser.getRole() != updatedUser.getRole() || !Objects.equals(existingUser.getEmail(), updatedUser.getEmail())) {
+            revocationList.revokeAllFor(existingUser.getEmail());
+        }
         existingUser.setName(updatedUser.getName());
         existingUser.setEmail(updatedUser.getEmail());
         existingUser.setRole(updatedUser.getRole());
@@ -54,5 +69,7 @@ public class UserService {
     public void deleteUser(Long id) {
         User user = getUserById(id); // throws if not found
         userRepository.delete(user);
+        principalCache.evict(user.getEmail());
+        revocationList.evict(user.getEmail()); // no row, so its tokens are refused
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+-- category_routes (CategoryRoute): which categories wardens and faculty handle; edited through
+-- /api/admin/category-routes (or directly) and picked up by running instances within
+-- complaints.routing.refresh-seconds. Seeded with the assignment that was hard-coded before.
+CREATE TABLE category_routes (
+    category_id smallint NOT NULL,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    department varchar(255),
+    role varchar(255) NOT NULL CHECK (role IN ('STUDENT', 'WARDEN', 'FACULTY', 'ADMIN')),
+    staff_id varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fkb0vgwa73ni89cffx7k1ts20uk FOREIGN KEY (category_id) REFERENCES categories
+);
+CREATE INDEX idx_category_routes_role ON category_routes (role);
+
+INSERT INTO category_routes (role, category_id)
+SELECT r.role, k.id
+FROM (VALUES ('WARDEN', 'Hostel'), ('WARDEN', 'Mess'), ('WARDEN', 'Maintenance'), ('WARDEN', 'Transport'),
+             ('WARDEN', 'Security'), ('FACULTY', 'Academic')) AS r(role, category)
+JOIN categories k ON k.name = r.category;
@@ -0,0 +1,17 @@
+-- Indexes for the repository queries that had none (QueryPlanCheck in the load-test harness EXPLAINs every
+-- repository query and reports sequential scans on large tables).
+-- CONCURRENTLY, so existing tables stay writable while the index is built; Flyway runs such statements
+-- outside a transaction. An interrupted build leaves an INVALID index: drop it before migrating again.
+
+-- complaint_status_updates was reachable only by primary key: a complaint's history
+-- (findByComplaintIdOrderByUpdatedAtDesc, newest first by a backward scan), its RESOLVED update
+-- (findResolvedStatusUpdateByComplaintId), feedback flags of a page (findComplaintIdsWithFeedback) and the
+-- foreign-key check behind every complaint delete all read the whole table.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_complaint_status_updates_complaint_updated_at
+    ON complaint_status_updates (complaint_id, updated_at);
+
+-- existsByFeedbackSubmittedAtIsNotNull (feedback rollup backfill check at startup): only updates that carry
+-- feedback, so the index stays a small fraction of the table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_complaint_status_updates_feedback_submitted_at
+    ON complaint_status_updates (feedback_submitted_at)
+    WHERE feedback_submitted_at IS NOT NULL;
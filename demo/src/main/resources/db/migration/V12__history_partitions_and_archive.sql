@@ -0,0 +1,132 @@
+-- Status history partitioned by month, and an archive table for complaints closed long ago (moved there by
+-- ComplaintArchiver). Unlike V11 this rewrites complaint_status_updates under a lock: plan a maintenance window
+-- on large databases.
+
+-- 1. complaint_status_updates, range-partitioned by month of updated_at: old months stay in their own small
+-- tables (and indexes) that recent reads and writes never touch, and can be detached or dropped as a whole.
+-- updated_at is the partition key, so it becomes required; rows written without it take their complaint's
+-- last update date.
+UPDATE complaint_status_updates su
+SET updated_at = COALESCE(c.updated_at, c.created_at, now())::date
+FROM complaints c
+WHERE c.id = su.complaint_id AND su.updated_at IS NULL;
+
+CREATE TABLE complaint_status_updates_partitioned
+    (LIKE complaint_status_updates INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (updated_at);
+ALTER TABLE complaint_status_updates_partitioned ALTER COLUMN updated_at SET NOT NULL;
+
+ALTER TABLE complaint_status_updates RENAME TO complaint_status_updates_unpartitioned;
+ALTER TABLE complaint_status_updates_partitioned RENAME TO complaint_status_updates;
+
+-- Rows of a month without a partition (the job below fell behind) land here instead of failing
+CREATE TABLE complaint_status_updates_default PARTITION OF complaint_status_updates DEFAULT;
+
+-- Creates the monthly partitions complaint_status_updates_yyyy_mm from from_month to to_month (inclusive) that
+-- do not exist yet and returns how many it created. ComplaintArchiver calls it to stay some months ahead.
+-- A month that already has rows in the default partition is skipped with a warning: creating it would fail
+-- until those rows are moved out.
+CREATE FUNCTION complaint_status_updates_add_partitions(from_month date, to_month date) RETURNS integer
+LANGUAGE plpgsql AS $$
+DECLARE
+    month date := date_trunc('month', from_month);
+    partition text;
+    created integer := 0;
+BEGIN
+    WHILE month <= to_month LOOP
+        partition := 'complaint_status_updates_' || to_char(month, 'YYYY_MM');
+        IF to_regclass(partition) IS NULL THEN
+            IF EXISTS (SELECT 1 FROM complaint_status_updates_default
+                       WHERE updated_at >= month AND updated_at < month + interval '1 month') THEN
+                RAISE WARNING '% not created: complaint_status_updates_default holds rows of that month', partition;
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF complaint_status_updates FOR VALUES FROM (%L) TO (%L)',
+                               partition, month, (month + interval '1 month')::date);
+                created := created + 1;
+            END IF;
+        END IF;
+        month := (month + interval '1 month')::date;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+SELECT complaint_status_updates_add_partitions(
+        COALESCE((SELECT min(updated_at) FROM complaint_status_updates_unpartitioned), current_date),
+        (current_date + interval '3 months')::date);
+
+INSERT INTO complaint_status_updates SELECT * FROM complaint_status_updates_unpartitioned;
+DROP TABLE complaint_status_updates_unpartitioned;
+
+-- The primary key has to include the partition key; ids still come from complaint_status_updates_seq alone.
+-- No foreign key to complaints any more: the history of an archived complaint stays here while the complaint
+-- moves to complaints_archive (deleting a complaint removes its history through Complaint.statusUpdates).
+ALTER TABLE complaint_status_updates ADD PRIMARY KEY (id, updated_at);
+ALTER TABLE complaint_status_updates ADD CONSTRAINT fkmxr2e2qfr01dgtw4nvk2pmvw9
+    FOREIGN KEY (updated_by_user_id) REFERENCES users;
+-- Same indexes as V11, now one per partition
+CREATE INDEX idx_complaint_status_updates_complaint_updated_at
+    ON complaint_status_updates (complaint_id, updated_at);
+CREATE INDEX idx_complaint_status_updates_feedback_submitted_at
+    ON complaint_status_updates (feedback_submitted_at)
+    WHERE feedback_submitted_at IS NOT NULL;
+
+-- 2. complaints_archive: RESOLVED / REJECTED complaints not updated for complaints.archive.after-months, moved
+-- out of complaints in batches, so complaints (and its indexes) hold the working set only. Same columns as
+-- complaints plus archived_at; rows are never updated again. The CHECK on status lets Postgres skip this table
+-- when a query on complaints_all asks for open complaints.
+CREATE TABLE complaints_archive (
+    LIKE complaints INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+    archived_at timestamp(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (id),
+    CONSTRAINT complaints_archive_closed_check CHECK (status IN ('RESOLVED', 'REJECTED')),
+    FOREIGN KEY (user_id) REFERENCES users,
+    FOREIGN KEY (category_id) REFERENCES categories,
+    FOREIGN KEY (subcategory_id) REFERENCES subcategories
+);
+-- The reads of complaints, on the archive as well (see complaints_all)
+CREATE INDEX idx_complaints_archive_created_at_id ON complaints_archive (created_at, id);
+CREATE INDEX idx_complaints_archive_user_created_at_id ON complaints_archive (user_id, created_at, id);
+CREATE INDEX idx_complaints_archive_category_id_created_at_id ON complaints_archive (category_id, created_at, id);
+CREATE INDEX idx_complaints_archive_status_category_id ON complaints_archive (status, category_id);
+CREATE INDEX idx_complaints_archive_duplicate_of_id ON complaints_archive (duplicate_of_id);
+CREATE INDEX idx_complaints_archive_search_vector ON complaints_archive USING GIN (search_vector);
+
+-- Archiving candidates, oldest update first, without walking the open complaints
+CREATE INDEX idx_complaints_closed_updated_at ON complaints (updated_at) WHERE status IN ('RESOLVED', 'REJECTED');
+
+-- complaints_all (UnifiedComplaint): every complaint, active or archived, for list, page and search reads.
+-- Queries on it are planned per table (filters pushed into both, pages merged in index order).
+CREATE VIEW complaints_all AS
+SELECT id, title, description, category_id, subcategory_id, location, contact_number, status, priority,
+       duplicate_of_id, version, created_at, updated_at, user_id, search_vector,
+       false AS archived, CAST(NULL AS timestamp(6)) AS archived_at
+FROM complaints
+UNION ALL
+SELECT id, title, description, category_id, subcategory_id, location, contact_number, status, priority,
+       duplicate_of_id, version, created_at, updated_at, user_id, search_vector,
+       true AS archived, archived_at
+FROM complaints_archive;
+
+-- Archiving moves a complaint instead of deleting it: complaint_counters keep counting it. ComplaintArchiver
+-- sets complaints.archiving for its own transactions only (SET LOCAL).
+CREATE OR REPLACE FUNCTION complaint_counters_apply() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'DELETE' AND current_setting('complaints.archiving', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE complaint_counters
+        SET complaint_count = complaint_count - 1
+        WHERE category_id = OLD.category_id AND status = OLD.status AND priority = OLD.priority;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO complaint_counters (category_id, status, priority, complaint_count)
+        VALUES (NEW.category_id, NEW.status, NEW.priority, 1)
+        ON CONFLICT (category_id, status, priority)
+            DO UPDATE SET complaint_count = complaint_counters.complaint_count + 1;
+    END IF;
+    RETURN NULL;
+END
+$$;
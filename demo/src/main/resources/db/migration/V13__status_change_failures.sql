@@ -0,0 +1,17 @@
+-- Status changes the write-behind StatusHistoryWriter accepted (update-status answered 202) but could not apply:
+-- the complaint was deleted or archived meanwhile, the change kept conflicting beyond the retry budget, ...
+-- They are kept here instead of being dropped, counted by complaints.status-history.failed, and listed, re-applied
+-- or discarded by admins through /api/admin/status-change-failures.
+CREATE TABLE status_change_failures (
+    id bigserial PRIMARY KEY,
+    complaint_id bigint NOT NULL,
+    new_status varchar(255) NOT NULL CHECK (new_status IN ('NEW', 'IN_PROGRESS', 'RESOLVED', 'REJECTED')),
+    message text,
+    work_progress text,
+    next_steps text,
+    expected_completion_date date,
+    updated_by_user_id bigint NOT NULL,
+    requested_on date NOT NULL,
+    error text,
+    failed_at timestamp(6) NOT NULL DEFAULT now()
+);
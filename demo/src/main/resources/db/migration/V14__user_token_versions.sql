@@ -0,0 +1,4 @@
+-- Token revocation (TokenRevocationList): every JWT carries the version of its user's tokens it was issued at,
+-- and logout or a role or email change increments it, so the user's outstanding tokens are refused on every
+-- instance. Not mapped on User: only TokenRevocationList reads and writes it, bypassing the entity caches.
+ALTER TABLE users ADD COLUMN token_version bigint DEFAULT 0 NOT NULL;
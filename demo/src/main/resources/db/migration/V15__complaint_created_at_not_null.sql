@@ -0,0 +1,20 @@
+-- complaints.created_at is required: keyset pages order and seek on (created_at, id), which a NULL would drop
+-- out of. Rows without one (inserted outside the application) get the earliest time known for them: their
+-- last update or their first status history row, whichever is older, so the history read from created_at on
+-- (ComplaintService.getStatusHistory) still finds all of it; now() when there is neither.
+UPDATE complaints c
+SET created_at = COALESCE(LEAST(c.updated_at,
+                                (SELECT min(su.updated_at)::timestamp FROM complaint_status_updates su
+                                 WHERE su.complaint_id = c.id)),
+                          now())
+WHERE c.created_at IS NULL;
+
+UPDATE complaints_archive c
+SET created_at = COALESCE(LEAST(c.updated_at,
+                                (SELECT min(su.updated_at)::timestamp FROM complaint_status_updates su
+                                 WHERE su.complaint_id = c.id)),
+                          c.archived_at)
+WHERE c.created_at IS NULL;
+
+ALTER TABLE complaints ALTER COLUMN created_at SET DEFAULT now(), ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE complaints_archive ALTER COLUMN created_at SET DEFAULT now(), ALTER COLUMN created_at SET NOT NULL;
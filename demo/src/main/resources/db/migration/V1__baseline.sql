@@ -0,0 +1,52 @@
+-- Schema as Hibernate's schema update created it before migrations took over (same tables, columns and
+-- constraint names), so that databases created that way can be baselined at version 1
+-- (spring.flyway.baseline-on-migrate) and continue with V2. Everything added since is a migration of its own.
+
+CREATE TABLE users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    department varchar(255),
+    email varchar(255) NOT NULL,
+    name varchar(255),
+    password varchar(255) NOT NULL,
+    role varchar(255) NOT NULL CHECK (role IN ('STUDENT', 'WARDEN', 'FACULTY', 'ADMIN')),
+    staff_id varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+);
+
+CREATE TABLE complaints (
+    created_at timestamp(6),
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    updated_at timestamp(6),
+    user_id bigint NOT NULL,
+    category varchar(255) NOT NULL,
+    contact_number varchar(255) NOT NULL,
+    description text NOT NULL,
+    location varchar(255) NOT NULL,
+    priority varchar(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH')),
+    status varchar(255) NOT NULL CHECK (status IN ('NEW', 'IN_PROGRESS', 'RESOLVED', 'REJECTED')),
+    subcategory varchar(255) NOT NULL,
+    title varchar(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk83j5gqkd7ku4vc908g4rtmglr FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE complaint_status_updates (
+    expected_completion_date date,
+    is_fully_solved boolean,
+    satisfaction_rating integer,
+    updated_at date,
+    would_recommend boolean,
+    complaint_id bigint NOT NULL,
+    feedback_submitted_at timestamp(6),
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    updated_by_user_id bigint NOT NULL,
+    message text,
+    new_status varchar(255) NOT NULL CHECK (new_status IN ('NEW', 'IN_PROGRESS', 'RESOLVED', 'REJECTED')),
+    next_steps text,
+    student_feedback text,
+    work_progress text,
+    PRIMARY KEY (id),
+    CONSTRAINT fk7wojdwfa9840wgfi845omlup2 FOREIGN KEY (complaint_id) REFERENCES complaints,
+    CONSTRAINT fkmxr2e2qfr01dgtw4nvk2pmvw9 FOREIGN KEY (updated_by_user_id) REFERENCES users
+);
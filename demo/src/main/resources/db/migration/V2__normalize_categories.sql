@@ -0,0 +1,72 @@
+-- categories / subcategories (Category, Subcategory): reference rows with small integer keys that complaints
+-- (category_id, subcategory_id), complaint_counters and category_routes point to, instead of repeating the
+-- names. Names are unique ignoring case.
+CREATE TABLE categories (
+    id smallint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(50) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ukt8o6pivur7nn124jehx7cygw5 UNIQUE (name)
+);
+CREATE UNIQUE INDEX idx_categories_lower_name ON categories (lower(name));
+
+CREATE TABLE subcategories (
+    category_id smallint NOT NULL,
+    id integer GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(100) NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX idx_subcategories_category_lower_name ON subcategories (category_id, lower(name));
+
+-- The submission form's categories and subcategories
+INSERT INTO categories (name)
+VALUES ('Hostel'), ('Mess'), ('Maintenance'), ('Academic'), ('Transport'), ('Security'), ('Other');
+
+INSERT INTO subcategories (category_id, name)
+SELECT k.id, v.name
+FROM (VALUES ('Mess', 'Food Quality'), ('Mess', 'Hygiene'), ('Mess', 'Menu Issues'), ('Mess', 'Staff Behavior'),
+             ('Mess', 'Timing Issues'),
+             ('Hostel', 'Room Issues'), ('Hostel', 'Common Area'), ('Hostel', 'Security'), ('Hostel', 'Cleanliness'),
+             ('Hostel', 'Facility Problems'),
+             ('Maintenance', 'Carpenter'), ('Maintenance', 'Electrician'), ('Maintenance', 'Plumber'),
+             ('Maintenance', 'Cleaning'), ('Maintenance', 'Gardening'),
+             ('Academic', 'Library'), ('Academic', 'Classroom'), ('Academic', 'Lab Equipment'),
+             ('Academic', 'Internet/WiFi'), ('Academic', 'Air Conditioning'),
+             ('Transport', 'Bus Service'), ('Transport', 'Parking'), ('Transport', 'Vehicle Issues'),
+             ('Security', 'Gate Issues'), ('Security', 'Lost & Found'), ('Security', 'Unauthorized Access'),
+             ('Security', 'Safety Concerns'),
+             ('Other', 'General Query'), ('Other', 'Suggestion'), ('Other', 'Miscellaneous')) AS v(category, name)
+JOIN categories k ON k.name = v.category;
+
+-- Backfill of the existing complaints, which carry the names as typed: every name not on the form (compared
+-- trimmed, cut to the reference column's length and ignoring case) becomes a reference row in its most
+-- frequent spelling, then a single pass sets category_id and subcategory_id by the same comparison and the
+-- name columns go.
+INSERT INTO categories (name)
+SELECT mode() WITHIN GROUP (ORDER BY left(trim(category), 50))
+FROM complaints
+GROUP BY lower(left(trim(category), 50))
+ON CONFLICT DO NOTHING;
+
+INSERT INTO subcategories (category_id, name)
+SELECT k.id, mode() WITHIN GROUP (ORDER BY left(trim(c.subcategory), 100))
+FROM complaints c
+JOIN categories k ON lower(k.name) = lower(left(trim(c.category), 50))
+WHERE trim(c.subcategory) <> ''
+GROUP BY k.id, lower(left(trim(c.subcategory), 100))
+ON CONFLICT DO NOTHING;
+
+ALTER TABLE complaints ADD COLUMN category_id smallint, ADD COLUMN subcategory_id integer;
+
+UPDATE complaints c
+SET category_id = k.id,
+    subcategory_id = (SELECT s.id FROM subcategories s
+                      WHERE s.category_id = k.id AND lower(s.name) = lower(left(trim(c.subcategory), 100)))
+FROM categories k
+WHERE lower(k.name) = lower(left(trim(c.category), 50));
+
+ALTER TABLE complaints
+    ALTER COLUMN category_id SET NOT NULL,
+    ADD CONSTRAINT fkhmysb3dwnbamxtlv3dj1fpw6b FOREIGN KEY (category_id) REFERENCES categories,
+    ADD CONSTRAINT fkm5fujemcqj5x763qqtjw446w6 FOREIGN KEY (subcategory_id) REFERENCES subcategories,
+    DROP COLUMN category,
+    DROP COLUMN subcategory;
@@ -0,0 +1,7 @@
+-- Keyset pagination on (created_at, id), globally and per role scope
+CREATE INDEX idx_complaints_created_at_id ON complaints (created_at, id);
+CREATE INDEX idx_complaints_user_created_at_id ON complaints (user_id, created_at, id);
+CREATE INDEX idx_complaints_category_id_created_at_id ON complaints (category_id, created_at, id);
+-- Role scope + status filters (e.g. /resolved)
+CREATE INDEX idx_complaints_status_category_id ON complaints (status, category_id);
+CREATE INDEX idx_complaints_user_status ON complaints (user_id, status);
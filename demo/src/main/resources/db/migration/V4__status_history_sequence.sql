@@ -0,0 +1,6 @@
+-- complaint_status_updates ids come from a pooled sequence (allocation size 50, ComplaintStatusUpdate) instead
+-- of IDENTITY, so that history inserts can be batched. The sequence starts past the ids that already exist.
+ALTER TABLE complaint_status_updates ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE complaint_status_updates_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('complaint_status_updates_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM complaint_status_updates));
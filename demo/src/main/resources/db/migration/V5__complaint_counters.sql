@@ -0,0 +1,48 @@
+-- complaint_counters (ComplaintCounter): complaints per (category_id, status, priority), kept in step with
+-- complaints by the triggers below, inside the writing transaction. Filled from the existing complaints first.
+CREATE TABLE complaint_counters (
+    category_id smallint NOT NULL,
+    complaint_count bigint NOT NULL,
+    priority varchar(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH')),
+    status varchar(255) NOT NULL CHECK (status IN ('NEW', 'IN_PROGRESS', 'RESOLVED', 'REJECTED')),
+    PRIMARY KEY (category_id, priority, status)
+);
+
+INSERT INTO complaint_counters (category_id, status, priority, complaint_count)
+SELECT category_id, status, priority, COUNT(*)
+FROM complaints
+GROUP BY category_id, status, priority;
+
+CREATE FUNCTION complaint_counters_apply() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE complaint_counters
+        SET complaint_count = complaint_count - 1
+        WHERE category_id = OLD.category_id AND status = OLD.status AND priority = OLD.priority;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO complaint_counters (category_id, status, priority, complaint_count)
+        VALUES (NEW.category_id, NEW.status, NEW.priority, 1)
+        ON CONFLICT (category_id, status, priority)
+            DO UPDATE SET complaint_count = complaint_counters.complaint_count + 1;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER complaints_counters_insert
+    AFTER INSERT ON complaints
+    FOR EACH ROW EXECUTE FUNCTION complaint_counters_apply();
+
+CREATE TRIGGER complaints_counters_delete
+    AFTER DELETE ON complaints
+    FOR EACH ROW EXECUTE FUNCTION complaint_counters_apply();
+
+CREATE TRIGGER complaints_counters_update
+    AFTER UPDATE OF category_id, status, priority ON complaints
+    FOR EACH ROW
+    WHEN (OLD.category_id IS DISTINCT FROM NEW.category_id
+          OR OLD.status IS DISTINCT FROM NEW.status
+          OR OLD.priority IS DISTINCT FROM NEW.priority)
+    EXECUTE FUNCTION complaint_counters_apply();
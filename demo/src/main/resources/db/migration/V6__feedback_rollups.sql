@@ -0,0 +1,14 @@
+-- feedback_rollups (FeedbackRollup): running feedback totals per category / resolver / week. Filled from the
+-- feedback already submitted on the first startup that finds it empty (FeedbackAnalyticsService).
+CREATE TABLE feedback_rollups (
+    feedback_count bigint NOT NULL,
+    fully_solved_answers bigint NOT NULL,
+    fully_solved_yes bigint NOT NULL,
+    rating_count bigint NOT NULL,
+    rating_sum bigint NOT NULL,
+    recommend_answers bigint NOT NULL,
+    recommend_yes bigint NOT NULL,
+    dimension varchar(255) NOT NULL CHECK (dimension IN ('CATEGORY', 'RESOLVER', 'WEEK')),
+    dimension_key varchar(255) NOT NULL,
+    PRIMARY KEY (dimension, dimension_key)
+);
@@ -0,0 +1,42 @@
+-- Full-text search (ComplaintRepositoryCustom.search): search_vector holds complaint_search_document, set by a
+-- trigger on every insert and on updates that change a column it reads, so every write path (JPA, bulk
+-- updates, COPY) stays in step. A trigger rather than a generated column because the subcategory name lives in
+-- subcategories. Weights: title A, subcategory/location B, description C. Not mapped on Complaint.
+CREATE FUNCTION complaint_search_document(title text, subcategory text, location text, description text)
+RETURNS tsvector LANGUAGE sql IMMUTABLE AS $$
+    SELECT setweight(to_tsvector('english', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(subcategory, '') || ' ' || coalesce(location, '')), 'B')
+        || setweight(to_tsvector('english', coalesce(description, '')), 'C')
+$$;
+
+ALTER TABLE complaints ADD COLUMN search_vector tsvector;
+
+UPDATE complaints c
+SET search_vector = complaint_search_document(c.title,
+        (SELECT name FROM subcategories WHERE id = c.subcategory_id), c.location, c.description);
+
+CREATE FUNCTION complaints_search_vector() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := complaint_search_document(NEW.title,
+            (SELECT name FROM subcategories WHERE id = NEW.subcategory_id), NEW.location, NEW.description);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER complaints_search_vector_insert
+    BEFORE INSERT ON complaints
+    FOR EACH ROW EXECUTE FUNCTION complaints_search_vector();
+
+-- Complaint updates write the full row (static, batchable UPDATEs), so "UPDATE OF title, description, ..."
+-- fires on every status change: recompute only when a column the document reads actually changed.
+CREATE TRIGGER complaints_search_vector_update
+    BEFORE UPDATE OF title, description, location, subcategory_id ON complaints
+    FOR EACH ROW
+    WHEN (OLD.title IS DISTINCT FROM NEW.title
+          OR OLD.description IS DISTINCT FROM NEW.description
+          OR OLD.location IS DISTINCT FROM NEW.location
+          OR OLD.subcategory_id IS DISTINCT FROM NEW.subcategory_id)
+    EXECUTE FUNCTION complaints_search_vector();
+
+CREATE INDEX idx_complaints_search_vector ON complaints USING GIN (search_vector);
@@ -0,0 +1,3 @@
+-- Earlier open complaint a new one was detected as a likely duplicate of (Complaint.duplicateOfId)
+ALTER TABLE complaints ADD COLUMN duplicate_of_id bigint;
+CREATE INDEX idx_complaints_duplicate_of_id ON complaints (duplicate_of_id);
@@ -0,0 +1,2 @@
+-- Optimistic locking of complaints (Complaint.version): every update checks and increments it
+ALTER TABLE complaints ADD COLUMN version bigint DEFAULT 0 NOT NULL;
@@ -0,0 +1,144 @@
+package com.example.demo;
+
+import com.example.demo.model.Complaint;
+import com.example.demo.model.ComplaintStatusUpdate;
+import com.example.demo.model.User;
+import com.example.demo.monitoring.QueryStatsFilter;
+import com.example.demo.repository.ComplaintStatusUpdateRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.TokenRevocationList;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.ComplaintService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Base of the tests that need the application and a database: one embedded Postgres per test JVM (real
+ * binaries started in-process, no Docker), migrated by Flyway when the shared application context starts.
+ *
+ * The tests share that database, so each creates its own users and complaints (unique emails) and only
+ * makes assertions about those. Statement counts come from QueryStats, through the X-Query-Count header
+ * (enabled here as in the dev profile).
+ */
+// A real server (random port) rather than a mock environment: starting Tomcat also registers its classpath: URL
+// handler, which hibernate.javax.cache.uri relies on
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "monitoring.queries.response-header.enabled=true",
+        "complaints.archive.enabled=false",
+        "spring.datasource.hikari.minimum-idle=2",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+public abstract class IntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    protected MockMvc mockMvc;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected ComplaintService complaintService;
+    @Autowired
+    protected ComplaintStatusUpdateRepository statusUpdateRepository;
+    @Autowired
+    protected CategoryService categoryService;
+    @Autowired
+    protected JwtUtil jwtUtil;
+    @Autowired
+    protected TokenRevocationList revocationList;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> jdbcUrl());
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    protected static String jdbcUrl() {
+        return "jdbc:postgresql://localhost:" + POSTGRES.getPort() + "/postgres?currentSchema=ucomplaint";
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().setPort(0).start();
+            try (Connection c = postgres.getPostgresDatabase().getConnection(); Statement st = c.createStatement()) {
+                st.execute("CREATE SCHEMA IF NOT EXISTS ucomplaint");
+            }
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected User createUser(User.Role role) {
+        int n = USERS.incrementAndGet();
+        return userRepository.save(User.builder()
+                .name(role + " " + n)
+                .email(role.name().toLowerCase() + n + "-" + System.nanoTime() + "@test.example")
+                .password("not-used")
+                .role(role)
+                .build());
+    }
+
+    protected String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user, revocationList.currentVersion(user.getEmail()));
+    }
+
+    protected Complaint createComplaint(User owner, String category) {
+        return complaintService.createComplaint(Complaint.builder()
+                .title("Complaint " + System.nanoTime())
+                .description("Description of complaint " + System.nanoTime())
+                .category(categoryService.resolve(category))
+                .location("Block " + System.nanoTime())
+                .contactNumber("0123456789")
+                .status(Complaint.Status.NEW)
+                .priority(Complaint.Priority.MEDIUM)
+                .user(owner)
+                .build());
+    }
+
+    protected void addStatusUpdate(Complaint complaint, Complaint.Status status, User by) {
+        complaintService.applyStatusChanges(List.of(ComplaintStatusUpdate.builder()
+                .complaint(complaint)
+                .status(status)
+                .message("Status " + status)
+                .updatedByUser(by)
+                .updatedAt(LocalDate.now())
+                .build()));
+    }
+
+    // Statements the request executed, from its X-Query-Count header (QueryStats of the request)
+    protected int statements(RequestBuilder request) throws Exception {
+        return statements(mockMvc.perform(request).andReturn());
+    }
+
+    protected static int statements(MvcResult result) {
+        assertThat(result.getResponse().getStatus()).as("status of %s", result.getRequest().getRequestURI()).isLessThan(400);
+        String count = result.getResponse().getHeader(QueryStatsFilter.QUERY_COUNT_HEADER);
+        assertThat(count).as("%s header", QueryStatsFilter.QUERY_COUNT_HEADER).isNotNull();
+        return Integer.parseInt(count);
+    }
+}
@@ -1,10 +1,8 @@
 package com.example.demo;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class UComplaintApplicationTests {
+class UComplaintApplicationTests extends IntegrationTest {
 
 	@Test
 	void contextLoads() {
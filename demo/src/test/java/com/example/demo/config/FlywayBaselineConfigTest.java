@@ -0,0 +1,143 @@
+package com.example.demo.config;
+
+import com.example.demo.IntegrationTest;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * baseline-on-migrate on schemas without Flyway history, each in a schema of its own next to the tests'
+ * one: a V1 schema with data, as Hibernate's schema update created it, is baselined and migrated forward
+ * (category names mapped to categories ignoring case and surrounding spaces, missing creation times filled
+ * in); one that is not in the V1 layout is refused before anything is written.
+ */
+class FlywayBaselineConfigTest extends IntegrationTest {
+
+    private final FlywayMigrationStrategy migration = new FlywayBaselineConfig().baselineCheckedMigration();
+
+    @Test
+    void baselinesAndMigratesAV1Schema() {
+        Flyway flyway = flyway("baseline_v1_" + System.nanoTime());
+        // V1 as a database created before the migrations has it: the tables and rows, but no history
+        Flyway.configure().configuration(flyway.getConfiguration()).target(MigrationVersion.fromVersion("1"))
+                .load().migrate();
+        JdbcTemplate jdbc = jdbc(flyway);
+        jdbc.execute("DROP TABLE flyway_schema_history");
+        jdbc.update("INSERT INTO users (email, password, role) VALUES ('s@test.example', 'x', 'STUDENT')");
+        jdbc.update("INSERT INTO complaints (title, description, category, subcategory, location, contact_number, "
+                + "status, priority, created_at, updated_at, user_id) SELECT 'Leaking tap', 'Water everywhere', "
+                + "'Maintenance', 'Plumber', 'Block A', '0123456789', 'IN_PROGRESS', 'HIGH', now(), now(), id "
+                + "FROM users");
+        jdbc.update("INSERT INTO complaint_status_updates (complaint_id, new_status, updated_by_user_id, updated_at) "
+                + "SELECT c.id, 'IN_PROGRESS', c.user_id, current_date FROM complaints c");
+        // One without created_at, updated since its first status change three days ago
+        jdbc.update("INSERT INTO complaints (title, description, category, subcategory, location, contact_number, "
+                + "status, priority, updated_at, user_id) SELECT 'Broken window', 'Glass on the floor', 'Hostel', "
+                + "'Room Issues', 'Block B', '0123456789', 'NEW', 'LOW', now(), id FROM users");
+        jdbc.update("INSERT INTO complaint_status_updates (complaint_id, new_status, updated_by_user_id, updated_at) "
+                + "SELECT c.id, 'NEW', c.user_id, current_date - 3 FROM complaints c WHERE c.title = 'Broken window'");
+        long historyId = jdbc.queryForObject("SELECT max(id) FROM complaint_status_updates", Long.class);
+
+        migration.migrate(flyway);
+
+        assertThat(flyway.info().pending()).as("pending migrations").isEmpty();
+        assertThat(jdbc.queryForObject("SELECT version FROM flyway_schema_history WHERE installed_rank = 1",
+                String.class)).as("baseline").isEqualTo("1");
+        assertThat(jdbc.queryForMap("SELECT k.name AS category, s.name AS subcategory, c.version, "
+                + "c.search_vector @@ to_tsquery('english', 'plumber') AS found FROM complaints c "
+                + "JOIN categories k ON k.id = c.category_id JOIN subcategories s ON s.id = c.subcategory_id "
+                + "WHERE c.title = 'Leaking tap'"))
+                .containsEntry("category", "Maintenance")
+                .containsEntry("subcategory", "Plumber")
+                .containsEntry("version", 0L)
+                .containsEntry("found", true);
+        assertThat(jdbc.queryForObject("SELECT complaint_count FROM complaint_counters k JOIN categories c "
+                + "ON c.id = k.category_id WHERE c.name = 'Maintenance' AND status = 'IN_PROGRESS' AND priority = 'HIGH'",
+                Long.class)).as("counted complaints").isEqualTo(1L);
+        assertThat(jdbc.queryForObject("SELECT created_at = (current_date - 3)::timestamp FROM complaints "
+                + "WHERE title = 'Broken window'", Boolean.class)).as("created_at from the first history row").isTrue();
+        assertThat(jdbc.queryForObject("SELECT nextval('complaint_status_updates_seq')", Long.class))
+                .as("next history id").isGreaterThan(historyId);
+    }
+
+    @Test
+    void backfillsCategoriesIgnoringCaseAndSpaces() {
+        Flyway flyway = flyway("baseline_categories_" + System.nanoTime());
+        Flyway.configure().configuration(flyway.getConfiguration()).target(MigrationVersion.fromVersion("1"))
+                .load().migrate();
+        JdbcTemplate jdbc = jdbc(flyway);
+        jdbc.execute("DROP TABLE flyway_schema_history");
+        jdbc.update("INSERT INTO users (email, password, role) VALUES ('s@test.example', 'x', 'STUDENT')");
+        // Names as typed: form names in other spellings, and names the form never had
+        String[][] names = {{"hostel", "room issues"}, {" HOSTEL ", "Room Issues "}, {"Maintenance", "PLUMBER"},
+                {"Sports", "Gym"}, {"sports", "gym"}, {"SPORTS ", "Gym"}, {"Sports", "Pool"}, {"Other", ""}};
+        for (String[] name : names) {
+            jdbc.update("INSERT INTO complaints (title, description, category, subcategory, location, contact_number, "
+                    + "status, priority, created_at, user_id) SELECT ?, 'd', ?, ?, 'l', 'c', 'NEW', 'LOW', now(), id "
+                    + "FROM users", name[0] + "/" + name[1], name[0], name[1]);
+        }
+
+        migration.migrate(flyway);
+
+        Map<String, String> mapped = new TreeMap<>();
+        jdbc.queryForList("SELECT c.title, k.name || '/' || COALESCE(s.name, '-') AS mapped FROM complaints c "
+                + "JOIN categories k ON k.id = c.category_id LEFT JOIN subcategories s ON s.id = c.subcategory_id")
+                .forEach(row -> mapped.put((String) row.get("title"), (String) row.get("mapped")));
+        assertThat(mapped).containsOnly(
+                Map.entry("hostel/room issues", "Hostel/Room Issues"),
+                Map.entry(" HOSTEL /Room Issues ", "Hostel/Room Issues"),
+                Map.entry("Maintenance/PLUMBER", "Maintenance/Plumber"),
+                Map.entry("Sports/Gym", "Sports/Gym"),
+                Map.entry("sports/gym", "Sports/Gym"),
+                Map.entry("SPORTS /Gym", "Sports/Gym"),
+                Map.entry("Sports/Pool", "Sports/Pool"),
+                Map.entry("Other/", "Other/-"));
+        assertThat(jdbc.queryForList("SELECT name FROM categories WHERE lower(name) = 'sports'", String.class))
+                .as("one row per name, in its most frequent spelling").containsExactly("Sports");
+    }
+
+    @Test
+    void refusesASchemaNotInTheV1Layout() {
+        Flyway flyway = flyway("baseline_other_" + System.nanoTime());
+        // Complaints with category ids already, as a build between releases left them
+        jdbc(flyway).execute("CREATE TABLE users (id bigserial PRIMARY KEY, email varchar(255) NOT NULL)");
+        jdbc(flyway).execute("CREATE TABLE complaints (id bigserial PRIMARY KEY, title varchar(255) NOT NULL, "
+                + "category_id smallint NOT NULL, status varchar(255), priority varchar(255), created_at timestamp(6), "
+                + "user_id bigint REFERENCES users)");
+
+        assertThatThrownBy(() -> migration.migrate(flyway))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("table complaint_status_updates")
+                .hasMessageContaining("column complaints.category,")
+                .hasMessageContaining("column complaints.subcategory");
+        assertThat(jdbc(flyway).queryForList("SELECT table_name FROM information_schema.tables "
+                + "WHERE table_schema = current_schema() ORDER BY 1", String.class))
+                .as("tables after the refused migration").containsExactly("complaints", "users");
+    }
+
+    // Flyway as the application configures it (spring.flyway.*), on a new schema
+    private static Flyway flyway(String schema) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                jdbcUrl().replace("currentSchema=ucomplaint", "currentSchema=" + schema), "postgres", "");
+        new JdbcTemplate(dataSource).execute("CREATE SCHEMA " + schema);
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load();
+    }
+
+    private static JdbcTemplate jdbc(Flyway flyway) {
+        return new JdbcTemplate(flyway.getConfiguration().getDataSource());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.controller;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * List endpoints return ComplaintSummary rows read by constructor-expression queries: the statements a
+ * request runs must not grow with the number of complaints it lists (no per-row user, status history or
+ * category loads while serializing), and rows carry a description preview but no description or history,
+ * which only the detail endpoint returns.
+ *
+ * Each request is measured on its second run, once the principal and second-level caches are warm.
+ */
+class ComplaintListQueryCountTest extends IntegrationTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Test
+    void listsRunAsManyStatementsForManyComplaintsAsForFew() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        User warden = createUser(User.Role.WARDEN);
+        User admin = createUser(User.Role.ADMIN);
+        addComplaints(student, warden, 2);
+
+        int studentFew = steadyStatements(get("/api/complaints"), student);
+        int byUserFew = steadyStatements(get("/api/complaints/user/" + student.getId()), admin);
+        int wardenFew = steadyStatements(get("/api/complaints"), warden);
+        int adminFew = steadyStatements(get("/api/complaints"), admin);
+        int pageFew = steadyStatements(get("/api/complaints/page").param("size", "50"), warden);
+
+        addComplaints(student, warden, 20);
+
+        assertThat(steadyStatements(get("/api/complaints"), student)).as("student list").isEqualTo(studentFew);
+        assertThat(steadyStatements(get("/api/complaints/user/" + student.getId()), admin)).as("list by user").isEqualTo(byUserFew);
+        assertThat(steadyStatements(get("/api/complaints"), warden)).as("warden list").isEqualTo(wardenFew);
+        assertThat(steadyStatements(get("/api/complaints"), admin)).as("admin list").isEqualTo(adminFew);
+        assertThat(steadyStatements(get("/api/complaints/page").param("size", "50"), warden)).as("page").isEqualTo(pageFew);
+    }
+
+    @Test
+    void listRowsAreSummariesAndTheDetailCarriesTheHistory() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        User warden = createUser(User.Role.WARDEN);
+        addComplaints(student, warden, 3);
+
+        JsonNode rows = body(mockMvc.perform(get("/api/complaints").header(HttpHeaders.AUTHORIZATION, bearer(student))).andReturn());
+        assertThat(rows).hasSize(3);
+        for (JsonNode row : rows) {
+            assertThat(row.has("descriptionPreview")).isTrue();
+            assertThat(row.has("description")).isFalse();
+            assertThat(row.has("statusUpdates")).isFalse();
+        }
+
+        long id = rows.get(0).path("id").asLong();
+        JsonNode detail = body(mockMvc.perform(get("/api/complaints/" + id).header(HttpHeaders.AUTHORIZATION, bearer(student))).andReturn());
+        assertThat(detail.path("description").asText()).isNotEmpty();
+        assertThat(detail.path("statusUpdates")).hasSize(1);
+    }
+
+    // One Hostel complaint with a status change per iteration: the student owns it, the warden handles Hostel
+    private void addComplaints(User student, User warden, int count) {
+        for (int i = 0; i < count; i++) {
+            Complaint complaint = createComplaint(student, "Hostel");
+            addStatusUpdate(complaint, Complaint.Status.IN_PROGRESS, warden);
+        }
+    }
+
+    private int steadyStatements(MockHttpServletRequestBuilder request, User user) throws Exception {
+        request.header(HttpHeaders.AUTHORIZATION, bearer(user));
+        statements(request);
+        return statements(request);
+    }
+
+    private static JsonNode body(MvcResult result) throws Exception {
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        return JSON.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.controller;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * N+1 regression check for ComplaintController and FeedbackController: every endpoint has a budget of
+ * JDBC statements per request (what it runs today, once the principal and second-level caches are warm),
+ * read from the request's QueryStats and checked against the db.queries.per.request meter of its handler.
+ * Endpoints that return or change many complaints are also measured with ten times as many, and must not
+ * run more statements for them. Status changes get one statement more than they usually run: the next
+ * block of 50 status history ids (complaint_status_updates_seq) is fetched whenever the current one runs out.
+ *
+ * A failing budget names the handler: find the new statements with the X-Query-Count header in the dev
+ * profile or the "Possible N+1" warning, then fix the query or, for a deliberate change, the budget.
+ */
+class ControllerQueryBudgetTest extends IntegrationTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void complaintControllerStaysWithinItsBudgets() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        User warden = createUser(User.Role.WARDEN);
+        User admin = createUser(User.Role.ADMIN);
+        List<Complaint> complaints = addComplaints(student, warden, 3);
+        long id = complaints.get(0).getId();
+
+        assertBudget("ComplaintController.getComplaints", 1, get("/api/complaints"), student);
+        assertBudget("ComplaintController.getComplaints", 1, get("/api/complaints"), warden);
+        assertBudget("ComplaintController.getComplaintPage", 1, get("/api/complaints/page"), warden);
+        assertBudget("ComplaintController.searchComplaints", 2, get("/api/complaints/search").param("q", "complaint"), warden);
+        assertBudget("ComplaintController.getComplaintStats", 1, get("/api/complaints/stats"), warden);
+        assertBudget("ComplaintController.getComplaintsByUser", 1, get("/api/complaints/user/" + student.getId()), admin);
+        assertBudget("ComplaintController.getResolvedComplaints", 1, get("/api/complaints/resolved"), student);
+        assertBudget("ComplaintController.getComplaint", 1, get("/api/complaints/" + id), student);
+        assertBudget("ComplaintController.getDuplicates", 1, get("/api/complaints/" + id + "/duplicates"), student);
+        assertBudget("ComplaintController.getComplaintStatusHistory", 1, get("/api/complaints/" + id + "/status-history"), student);
+        assertBudget("ComplaintController.updateComplaintStatus", 5, put("/api/complaints/" + id + "/update-status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\": \"IN_PROGRESS\", \"comments\": \"On it\"}"), warden);
+        assertBudget("ComplaintController.bulkUpdateComplaintStatus", 5, bulkUpdate(complaints), warden);
+
+        List<Complaint> more = new ArrayList<>(complaints);
+        more.addAll(addComplaints(student, warden, 27));
+        assertBudget("ComplaintController.getComplaints", 1, get("/api/complaints"), student);
+        assertBudget("ComplaintController.getResolvedComplaints", 1, get("/api/complaints/resolved"), student);
+        assertBudget("ComplaintController.bulkUpdateComplaintStatus", 5, bulkUpdate(more), warden);
+    }
+
+    @Test
+    void feedbackControllerStaysWithinItsBudgets() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        User warden = createUser(User.Role.WARDEN);
+        User admin = createUser(User.Role.ADMIN);
+        List<Complaint> complaints = addComplaints(student, warden, 3);
+        long id = complaints.get(0).getId();
+        addStatusUpdate(complaints.get(0), Complaint.Status.RESOLVED, warden);
+        statements(post("/api/feedback/complaint/" + id)
+                .header(HttpHeaders.AUTHORIZATION, bearer(student))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"isFullySolved\": true, \"satisfactionRating\": 4, \"feedback\": \"Fixed\", \"wouldRecommend\": true}"));
+
+        assertBudget("FeedbackController.getComplaintFeedback", 1, get("/api/feedback/complaint/" + id), student);
+        assertBudget("FeedbackController.checkFeedbackStatus", 1, get("/api/feedback/complaint/" + id + "/status"), student);
+        assertBudget("FeedbackController.checkFeedbackStatusBulk", 1, feedbackStatus(complaints), student);
+        assertBudget("FeedbackController.getFeedbackAnalytics", 1, get("/api/feedback/analytics"), admin);
+
+        List<Complaint> more = new ArrayList<>(complaints);
+        more.addAll(addComplaints(student, warden, 27));
+        assertBudget("FeedbackController.checkFeedbackStatusBulk", 1, feedbackStatus(more), student);
+    }
+
+    private List<Complaint> addComplaints(User student, User warden, int count) {
+        List<Complaint> complaints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Complaint complaint = createComplaint(student, "Hostel");
+            addStatusUpdate(complaint, Complaint.Status.IN_PROGRESS, warden);
+            complaints.add(complaint);
+        }
+        return complaints;
+    }
+
+    private static MockHttpServletRequestBuilder bulkUpdate(List<Complaint> complaints) {
+        return put("/api/complaints/bulk-update-status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"complaintIds\": [" + ids(complaints) + "], \"status\": \"IN_PROGRESS\", \"comments\": \"Batch\"}");
+    }
+
+    private static MockHttpServletRequestBuilder feedbackStatus(List<Complaint> complaints) {
+        return get("/api/feedback/status").param("complaintIds", ids(complaints));
+    }
+
+    private static String ids(List<Complaint> complaints) {
+        return complaints.stream().map(c -> String.valueOf(c.getId())).collect(Collectors.joining(","));
+    }
+
+    // Second run of the request (caches warm): its statements, which its handler's meter recorded too
+    private void assertBudget(String handler, int budget, MockHttpServletRequestBuilder request, User user) throws Exception {
+        request.header(HttpHeaders.AUTHORIZATION, bearer(user));
+        statements(request);
+
+        DistributionSummary meter = meterRegistry.find("db.queries.per.request").tag("handler", handler).summary();
+        assertThat(meter).as("db.queries.per.request{handler=%s}", handler).isNotNull();
+        long countBefore = meter.count();
+        double totalBefore = meter.totalAmount();
+
+        MvcResult result = mockMvc.perform(request).andReturn();
+        int statements = statements(result);
+
+        assertThat(meter.count()).as("requests recorded for %s", handler).isEqualTo(countBefore + 1);
+        assertThat(meter.totalAmount() - totalBefore).as("statements recorded for %s", handler).isEqualTo(statements);
+        assertThat(statements).as("statements of %s", handler).isLessThanOrEqualTo(budget);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.controller;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Feedback is taken once per resolved complaint, text or not: of 16 concurrent submissions one is stored and
+ * counted in the rollups, the others are refused; a later one is refused too, also when the stored one has no text.
+ */
+class FeedbackSubmissionTest extends IntegrationTest {
+
+    private static final int SUBMITTERS = 16;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void concurrentSubmissionsAreCountedOnce() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        User warden = createUser(User.Role.WARDEN);
+        Complaint complaint = createComplaint(student, "Hostel");
+        addStatusUpdate(complaint, Complaint.Status.RESOLVED, warden);
+        String authorization = bearer(student);
+
+        List<Integer> statuses = new ArrayList<>();
+        ExecutorService submitters = Executors.newFixedThreadPool(SUBMITTERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> done = new ArrayList<>();
+            for (int i = 0; i < SUBMITTERS; i++) {
+                done.add(submitters.submit(() -> {
+                    start.await();
+                    return submit(complaint, authorization, "{\"satisfactionRating\": 5, \"feedback\": \"Fixed\"}");
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> status : done) {
+                statuses.add(status.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            submitters.shutdownNow();
+        }
+
+        assertThat(statuses).as("responses").filteredOn(status -> status == 200).hasSize(1);
+        assertThat(statuses).as("responses").filteredOn(status -> status == 400).hasSize(SUBMITTERS - 1);
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT feedback_count FROM feedback_rollups "
+                + "WHERE dimension = 'RESOLVER' AND dimension_key = ?", Long.class, warden.getId().toString()))
+                .as("feedback counted for the resolver").isEqualTo(1L);
+    }
+
+    @Test
+    void feedbackWithoutTextIsTakenOnce() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        User warden = createUser(User.Role.WARDEN);
+        Complaint complaint = createComplaint(student, "Hostel");
+        addStatusUpdate(complaint, Complaint.Status.RESOLVED, warden);
+        String authorization = bearer(student);
+
+        assertThat(submit(complaint, authorization, "{\"satisfactionRating\": 3}")).isEqualTo(200);
+        assertThat(submit(complaint, authorization, "{\"satisfactionRating\": 1, \"feedback\": \"Again\"}"))
+                .as("second submission").isEqualTo(400);
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT rating_sum FROM feedback_rollups "
+                + "WHERE dimension = 'RESOLVER' AND dimension_key = ?", Long.class, warden.getId().toString()))
+                .as("ratings counted for the resolver").isEqualTo(3L);
+    }
+
+    private int submit(Complaint complaint, String authorization, String feedback) throws Exception {
+        return mockMvc.perform(post("/api/feedback/complaint/" + complaint.getId())
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(feedback))
+                .andReturn().getResponse().getStatus();
+    }
+}
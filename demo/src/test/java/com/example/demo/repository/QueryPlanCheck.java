@@ -0,0 +1,394 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ComplaintCursor;
+import com.example.demo.dto.ComplaintFilter;
+import com.example.demo.dto.ComplaintSearchCursor;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.FeedbackRollup;
+import com.example.demo.model.User;
+import com.example.demo.service.CategoryRoutingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * EXPLAINs every query the repositories send and fails on a sequential scan of a large table (at least
+ * largeTableRows rows). Each repository query method is called once the way the application calls it (as
+ * a student, a warden and a faculty member, with and without filters and cursors). A listener on the
+ * application's DataSource proxy captures the statement with its parameters and stops it before it runs,
+ * so unbounded lists cost nothing here; the statement is then EXPLAINed with the same parameters.
+ *
+ * Run on the load test's seeded data (LoadTestMain) and on the smaller dataset QueryPlanTest seeds; the
+ * data has to be large enough (and ANALYZEd) for the planner to prefer an index where one fits.
+ *
+ * Methods marked as full reads are the unbounded lists that return a large share of a table (admin and
+ * scope lists): a sequential scan is the right plan for them, so theirs are reported, not failed. Writes
+ * are not probed (they go through the primary key or ON CONFLICT on a unique key).
+ */
+public final class QueryPlanCheck {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final ApplicationContext app;
+    private final User student;
+    private final User warden;
+    private final User faculty;
+    private final long largeTableRows;
+
+    // Probes run as these users; they need complaints (one resolved) for the ids and cursors the probes use
+    public QueryPlanCheck(ApplicationContext app, User student, User warden, User faculty, long largeTableRows) {
+        this.app = app;
+        this.student = student;
+        this.warden = warden;
+        this.faculty = faculty;
+        this.largeTableRows = largeTableRows;
+    }
+
+    // Returns the report; throws IllegalStateException (with the report) when a plan scans a large table
+    public String run() throws Exception {
+        List<Probe> probes = probes();
+        Capture capture = new Capture();
+        DataSource appDataSource = app.getBean(DataSource.class);
+        ProxyDataSource dataSource = proxyDataSource(appDataSource);
+        SessionFactory sessionFactory = app.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class);
+        dataSource.addListener(capture);
+        try {
+            for (Probe probe : probes) {
+                // Nothing may come from the second-level cache (natural ids included): every probe has to reach
+                // the database
+                sessionFactory.getCache().evictAllRegions();
+                probe.statements = capture.statementsOf(probe.call);
+            }
+        } finally {
+            dataSource.getProxyConfig().getQueryListener().getListeners().remove(capture);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        List<String> failures = new ArrayList<>();
+        try (Connection connection = appDataSource.getConnection()) {
+            Set<String> largeTables = largeTables(connection);
+            sb.append(String.format("Query plan check: %d repository queries EXPLAINed; large tables (>= %,d rows): %s%n",
+                    probes.size(), largeTableRows, String.join(", ", largeTables)));
+            for (Probe probe : probes) {
+                if (probe.statements.isEmpty()) {
+                    failures.add(probe.name);
+                    sb.append(String.format("  FAIL  %s: sent no statement%n", probe.name));
+                    continue;
+                }
+                for (Statement statement : probe.statements) {
+                    Set<String> scans = new LinkedHashSet<>();
+                    Set<String> seqScanned = new TreeSet<>();
+                    walk(explain(connection, statement), Double.MAX_VALUE, scans, seqScanned);
+                    seqScanned.retainAll(largeTables);
+                    String verdict = seqScanned.isEmpty() ? "ok" : probe.fullRead ? "full" : "FAIL";
+                    if ("FAIL".equals(verdict)) {
+                        failures.add(probe.name + " (seq scan on " + String.join(", ", seqScanned) + ")");
+                    }
+                    sb.append(String.format("  %-4s  %s%s: %s%n", verdict, probe.name,
+                            probe.fullRead ? " [full read]" : "", String.join(", ", scans)));
+                }
+            }
+        }
+        sb.append(failures.isEmpty()
+                ? "  no sequential scans of large tables outside full reads\n"
+                : "  SEQUENTIAL SCANS:\n    " + String.join("\n    ", failures) + "\n");
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(sb.toString());
+        }
+        return sb.toString();
+    }
+
+    // Every repository query method, with arguments taken from the data
+    private List<Probe> probes() throws SQLException {
+        ComplaintRepository complaints = app.getBean(ComplaintRepository.class);
+        ComplaintStatusUpdateRepository statusUpdates = app.getBean(ComplaintStatusUpdateRepository.class);
+        ComplaintCounterRepository counters = app.getBean(ComplaintCounterRepository.class);
+        UserRepository users = app.getBean(UserRepository.class);
+        String studentEmail = student.getEmail();
+        CategoryRepository categories = app.getBean(CategoryRepository.class);
+        SubcategoryRepository subcategories = app.getBean(SubcategoryRepository.class);
+        CategoryRouteRepository routes = app.getBean(CategoryRouteRepository.class);
+        FeedbackRollupRepository rollups = app.getBean(FeedbackRollupRepository.class);
+        CategoryRoutingService routing = app.getBean(CategoryRoutingService.class);
+
+        List<Short> wardenScope = routing.categoryIdsFor(warden);
+        List<Short> facultyScope = routing.categoryIdsFor(faculty);
+
+        long complaintId;
+        List<Long> pageIds = new ArrayList<>();
+        ComplaintCursor cursor;
+        long resolvedId;
+        LocalDate resolvedCreated;
+        long archivedId;
+        try (Connection connection = app.getBean(DataSource.class).getConnection()) {
+            try (PreparedStatement st = connection.prepareStatement(
+                    "SELECT id, created_at FROM complaints ORDER BY created_at DESC, id DESC LIMIT 500");
+                 ResultSet rs = st.executeQuery()) {
+                LocalDateTime createdAt = null;
+                long id = 0;
+                while (rs.next()) {
+                    id = rs.getLong(1);
+                    createdAt = rs.getTimestamp(2).toLocalDateTime();
+                    if (pageIds.size() < 20) {
+                        pageIds.add(id);
+                    }
+                }
+                complaintId = pageIds.get(0);
+                cursor = new ComplaintCursor(createdAt, id);
+            }
+            try (PreparedStatement st = connection.prepareStatement(
+                    "SELECT complaint_id FROM complaint_status_updates WHERE new_status = 'RESOLVED' LIMIT 1");
+                 ResultSet rs = st.executeQuery()) {
+                resolvedId = rs.next() ? rs.getLong(1) : complaintId;
+            }
+            // History reads start at the complaint's creation date (partition pruning), archived or not
+            try (PreparedStatement st = connection.prepareStatement("SELECT created_at FROM complaints_all WHERE id = ?")) {
+                st.setLong(1, resolvedId);
+                try (ResultSet rs = st.executeQuery()) {
+                    resolvedCreated = rs.next() ? rs.getTimestamp(1).toLocalDateTime().toLocalDate() : LocalDate.EPOCH;
+                }
+            }
+            try (PreparedStatement st = connection.prepareStatement("SELECT MIN(id) FROM complaints_archive");
+                 ResultSet rs = st.executeQuery()) {
+                rs.next();
+                archivedId = rs.getLong(1) != 0 ? rs.getLong(1) : complaintId;
+            }
+        }
+        Short categoryId = wardenScope.get(0);
+        ComplaintFilter none = new ComplaintFilter();
+        ComplaintFilter resolved = filter(Complaint.Status.RESOLVED, null, null, null);
+        ComplaintFilter newHigh = filter(Complaint.Status.NEW, Complaint.Priority.HIGH, null, null);
+        ComplaintFilter lastMonth = filter(null, null, categoryId, cursor.getCreatedAt().toLocalDate().minusDays(30));
+        List<Complaint.Status> open = List.of(Complaint.Status.NEW, Complaint.Status.IN_PROGRESS);
+        ComplaintSearchCursor relevanceCursor = ComplaintSearchCursor.byRelevance(0.1f, complaintId);
+        ComplaintSearchCursor recencyCursor = ComplaintSearchCursor.byRecency(cursor.getCreatedAt(), cursor.getId());
+
+        String c = "ComplaintRepository.";
+        String s = "ComplaintStatusUpdateRepository.";
+        return List.of(
+                new Probe(c + "findById", false, () -> complaints.findById(complaintId)),
+                new Probe(c + "findAllById", false, () -> complaints.findAllById(pageIds)),
+                new Probe(c + "loadAllById", false, () -> complaints.loadAllById(pageIds)),
+                new Probe(c + "findByUser_Id", false, () -> complaints.findByUser_Id(student.getId())),
+                new Probe(c + "findByCategory_IdIn (faculty)", true, () -> complaints.findByCategory_IdIn(facultyScope)),
+                new Probe(c + "findSummariesByUserId", false, () -> complaints.findSummariesByUserId(student.getId())),
+                new Probe(c + "findSummariesByUserIdAndStatusIn", false,
+                        () -> complaints.findSummariesByUserIdAndStatusIn(student.getId(), open)),
+                new Probe(c + "findSummariesByCategoryIdIn (warden)", true,
+                        () -> complaints.findSummariesByCategoryIdIn(wardenScope)),
+                new Probe(c + "findSummariesByCategoryIdInAndStatusIn (faculty, resolved)", true,
+                        () -> complaints.findSummariesByCategoryIdInAndStatusIn(facultyScope, List.of(Complaint.Status.RESOLVED))),
+                new Probe(c + "findAllSummaries", true, complaints::findAllSummaries),
+                new Probe(c + "findSummariesByStatusIn (resolved)", true,
+                        () -> complaints.findSummariesByStatusIn(List.of(Complaint.Status.RESOLVED))),
+                new Probe(c + "findSummariesByDuplicateOfId", false, () -> complaints.findSummariesByDuplicateOfId(complaintId)),
+                new Probe(c + "countByUserId", false, () -> complaints.countByUserId(student.getId())),
+                new Probe(c + "findScopeByIdIn", false, () -> complaints.findScopeByIdIn(pageIds)),
+                new Probe(c + "findArchivedById", false, () -> complaints.findArchivedById(archivedId)),
+                new Probe(c + "existsArchivedById", false, () -> complaints.existsArchivedById(archivedId)),
+                new Probe(c + "findPage (student)", false, () -> complaints.findPage(student.getId(), null, none, null, 21)),
+                new Probe(c + "findPage (warden, next page)", false, () -> complaints.findPage(null, wardenScope, none, cursor, 21)),
+                new Probe(c + "findPage (faculty, resolved)", false, () -> complaints.findPage(null, facultyScope, resolved, null, 21)),
+                new Probe(c + "findPage (admin, new + high)", false, () -> complaints.findPage(null, null, newHigh, cursor, 21)),
+                new Probe(c + "findPage (admin, category + last 30 days)", false,
+                        () -> complaints.findPage(null, null, lastMonth, null, 21)),
+                new Probe(c + "countRecentSearchMatches (warden)", false,
+                        () -> complaints.countRecentSearchMatches("water", null, wardenScope, none, 5000, 21)),
+                new Probe(c + "searchByRelevance (faculty)", false,
+                        () -> complaints.searchByRelevance("projector lab", null, facultyScope, none, null, 21)),
+                new Probe(c + "searchByRelevance (admin, next page)", false,
+                        () -> complaints.searchByRelevance("water leak", null, null, none, relevanceCursor, 21)),
+                new Probe(c + "searchByRecency (student)", false,
+                        () -> complaints.searchByRecency("water", student.getId(), null, none, null, 21)),
+                new Probe(c + "searchByRecency (admin, next page)", false,
+                        () -> complaints.searchByRecency("water", null, null, none, recencyCursor, 21)),
+                new Probe(s + "findByComplaintIdAndUpdatedAtGreaterThanEqualOrderByUpdatedAtDesc", false,
+                        () -> statusUpdates.findByComplaintIdAndUpdatedAtGreaterThanEqualOrderByUpdatedAtDesc(
+                                resolvedId, resolvedCreated)),
+                new Probe(s + "findResolvedStatusUpdateByComplaintId", false,
+                        () -> statusUpdates.findResolvedStatusUpdateByComplaintId(resolvedId)),
+                new Probe(s + "findComplaintIdsWithFeedback", false, () -> statusUpdates.findComplaintIdsWithFeedback(pageIds)),
+                new Probe(s + "existsByFeedbackSubmittedAtIsNotNull", false, statusUpdates::existsByFeedbackSubmittedAtIsNotNull),
+                new Probe("UserRepository.findById", false, () -> users.findById(student.getId())),
+                new Probe("UserRepository.findByEmail", false, () -> users.findByEmail(studentEmail)),
+                new Probe("UserRepository.existsByEmail", false, () -> users.existsByEmail(studentEmail)),
+                new Probe("ComplaintCounterRepository.findCountsByCategoryIdIn", false,
+                        () -> counters.findCountsByCategoryIdIn(wardenScope)),
+                new Probe("ComplaintCounterRepository.findAllCounts", false, counters::findAllCounts),
+                new Probe("CategoryRepository.findAll", false, categories::findAll),
+                new Probe("SubcategoryRepository.findByCategoryIdAndNameIgnoreCase", false,
+                        () -> subcategories.findByCategoryIdAndNameIgnoreCase(categoryId, "general")),
+                new Probe("CategoryRouteRepository.findAll", false, routes::findAll),
+                new Probe("FeedbackRollupRepository.findByDimension", false,
+                        () -> rollups.findByDimension(FeedbackRollup.Dimension.CATEGORY)));
+    }
+
+    private static ComplaintFilter filter(Complaint.Status status, Complaint.Priority priority, Short categoryId,
+                                          LocalDate from) {
+        ComplaintFilter filter = new ComplaintFilter();
+        filter.setStatus(status);
+        filter.setPriority(priority);
+        filter.setCategoryId(categoryId);
+        filter.setFrom(from);
+        return filter;
+    }
+
+    // The datasource-proxy wrapper that QueryMetricsConfig puts around the pool (possibly itself wrapped,
+    // e.g. by the concurrency limit)
+    private static ProxyDataSource proxyDataSource(DataSource dataSource) {
+        DataSource current = dataSource;
+        while (!(current instanceof ProxyDataSource) && current instanceof DelegatingDataSource delegating) {
+            current = delegating.getTargetDataSource();
+        }
+        if (!(current instanceof ProxyDataSource proxy)) {
+            throw new IllegalStateException("No datasource-proxy around " + dataSource);
+        }
+        return proxy;
+    }
+
+    // Tables the planner estimates at largeTableRows rows or more (the seeders ANALYZE what they load)
+    private Set<String> largeTables(Connection connection) throws SQLException {
+        Set<String> tables = new TreeSet<>();
+        try (PreparedStatement st = connection.prepareStatement("SELECT relname FROM pg_class "
+                + "WHERE relkind = 'r' AND relnamespace = current_schema()::regnamespace AND reltuples >= ?")) {
+            st.setLong(1, largeTableRows);
+            try (ResultSet rs = st.executeQuery()) {
+                while (rs.next()) {
+                    tables.add(rs.getString(1));
+                }
+            }
+        }
+        return tables;
+    }
+
+    // EXPLAIN (no ANALYZE: nothing is run) with the captured parameters set the same way
+    private static JsonNode explain(Connection connection, Statement statement) throws Exception {
+        try (PreparedStatement st = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            for (ParameterSetOperation operation : statement.parameters()) {
+                operation.getMethod().invoke(st, operation.getArgs());
+            }
+            try (ResultSet rs = st.executeQuery()) {
+                rs.next();
+                return JSON.readTree(rs.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    // Scan nodes as "Index Scan Backward idx_x on t" / "Seq Scan on t"; tables read by a Seq Scan. A Seq Scan
+    // under a Limit that the planner expects to stop within 1% of its cost (e.g. EXISTS-style queries with
+    // many matching rows) reads a few pages, not the table, and is shown as "stops early" instead.
+    private static void walk(JsonNode plan, double limitCost, Set<String> scans, Set<String> seqScanned) {
+        String nodeType = plan.path("Node Type").asText();
+        String relation = plan.path("Relation Name").asText(null);
+        String index = plan.path("Index Name").asText(null);
+        double cost = plan.path("Total Cost").asDouble();
+        boolean stopsEarly = "Seq Scan".equals(nodeType) && limitCost < cost / 100;
+        if (relation != null || index != null) {
+            String direction = "Backward".equals(plan.path("Scan Direction").asText()) ? " Backward" : "";
+            scans.add(nodeType + direction + (stopsEarly ? " (stops early)" : "") + (index != null ? " " + index : "")
+                    + (relation != null ? " on " + relation : ""));
+        }
+        if ("Seq Scan".equals(nodeType) && relation != null && !stopsEarly) {
+            seqScanned.add(relation);
+        }
+        double childLimitCost = "Limit".equals(nodeType) ? Math.min(limitCost, cost) : limitCost;
+        for (JsonNode child : plan.path("Plans")) {
+            walk(child, childLimitCost, scans, seqScanned);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object call();
+    }
+
+    private static final class Probe {
+        final String name;
+        final boolean fullRead;
+        final Call call;
+        List<Statement> statements = List.of();
+
+        Probe(String name, boolean fullRead, Call call) {
+            this.name = name;
+            this.fullRead = fullRead;
+            this.call = call;
+        }
+    }
+
+    private record Statement(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    // Thrown from beforeQuery to keep a captured statement from running
+    private static final class Captured extends RuntimeException {
+        Captured() {
+            super("statement captured by QueryPlanCheck", null, false, false);
+        }
+    }
+
+    // Captures statements sent by the calling thread while statementsOf runs; other threads pass through
+    private static final class Capture implements QueryExecutionListener {
+        private final ThreadLocal<List<Statement>> target = new ThreadLocal<>();
+
+        List<Statement> statementsOf(Call call) {
+            List<Statement> statements = new ArrayList<>();
+            target.set(statements);
+            try {
+                call.call();
+            } catch (RuntimeException e) {
+                if (!hasCause(e, Captured.class)) {
+                    throw e;
+                }
+            } finally {
+                target.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<Statement> statements = target.get();
+            if (statements == null) {
+                return;
+            }
+            for (QueryInfo query : queryInfoList) {
+                List<List<ParameterSetOperation>> parameters = query.getParametersList();
+                statements.add(new Statement(query.getQuery(), parameters.isEmpty() ? List.of() : parameters.get(0)));
+            }
+            throw new Captured();
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (type.isInstance(t)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
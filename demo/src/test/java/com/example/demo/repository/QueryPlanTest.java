@@ -0,0 +1,88 @@
+package com.example.demo.repository;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every repository query that is not a full read goes through an index (QueryPlanCheck), on a seeded
+ * dataset just large enough for the planner to prefer one: 20,000 complaints of 2,000 students over the
+ * last few hours, most with a history row. The seeded rows are removed again afterwards, as the other
+ * tests share the database.
+ */
+class QueryPlanTest extends IntegrationTest {
+
+    private static final int STUDENTS = 2_000;
+    private static final int COMPLAINTS = 20_000;
+    private static final long LARGE_TABLE_ROWS = 10_000;
+
+    @Autowired
+    private ApplicationContext app;
+    @Autowired
+    private DataSource dataSource;
+
+    private final String seed = "plan" + System.nanoTime();
+
+    @Test
+    void repositoryQueriesUseAnIndex() throws Exception {
+        User warden = createUser(User.Role.WARDEN);
+        User faculty = createUser(User.Role.FACULTY);
+        faculty.setDepartment("Computer Science");
+        faculty = userRepository.save(faculty);
+        seed(new JdbcTemplate(dataSource), warden);
+        User student = userRepository.findByEmail(email(1)).orElseThrow();
+
+        String report = new QueryPlanCheck(app, student, warden, faculty, LARGE_TABLE_ROWS).run();
+        // Passing on tables too small to count would prove nothing
+        assertThat(report).as("seeded tables checked").containsPattern("large tables \\(.*\\): .*\\bcomplaints\\b");
+    }
+
+    @AfterEach
+    void removeSeededData() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        String seeded = "SELECT c.id FROM complaints c JOIN users u ON u.id = c.user_id WHERE u.email LIKE ?";
+        jdbc.update("DELETE FROM complaint_status_updates WHERE complaint_id IN (" + seeded + ")", email("%"));
+        jdbc.update("DELETE FROM complaints WHERE id IN (" + seeded + ")", email("%"));
+        jdbc.update("DELETE FROM users WHERE email LIKE ?", email("%"));
+    }
+
+    // Students, their complaints (statuses, priorities and categories spread evenly, one a second back from
+    // now, the words the probes search for in one in 50) and one history row per complaint that is not NEW (by `by`), some
+    // with feedback
+    private void seed(JdbcTemplate jdbc, User by) {
+        jdbc.update("INSERT INTO users (name, email, password, role) "
+                + "SELECT 'Student ' || g, ? || g || ?, 'not-used', 'STUDENT' FROM generate_series(1, ?) g",
+                seed + "-", "@test.example", STUDENTS);
+        jdbc.update("WITH u AS (SELECT array_agg(id ORDER BY id) AS ids FROM users WHERE email LIKE ?), "
+                + "k AS (SELECT array_agg(id ORDER BY id) AS ids FROM categories) "
+                + "INSERT INTO complaints (title, description, category_id, location, contact_number, status, priority, "
+                + "created_at, updated_at, user_id) "
+                + "SELECT 'Complaint ' || g, CASE g % 50 WHEN 0 THEN 'Water leak in the bathroom' "
+                + "WHEN 1 THEN 'Projector in the lab is broken' ELSE 'Issue number ' || g END, "
+                + "k.ids[1 + g % cardinality(k.ids)], 'Block ' || g % 50, '0123456789', "
+                + "(ARRAY['NEW', 'IN_PROGRESS', 'RESOLVED', 'REJECTED'])[1 + g % 4], "
+                + "(ARRAY['LOW', 'MEDIUM', 'HIGH'])[1 + g % 3], "
+                + "localtimestamp - g * interval '1 second', localtimestamp - g * interval '1 second', "
+                + "u.ids[1 + g % cardinality(u.ids)] "
+                + "FROM generate_series(1, ?) g, u, k", email("%"), COMPLAINTS);
+        jdbc.update("INSERT INTO complaint_status_updates (id, complaint_id, new_status, message, updated_by_user_id, "
+                + "updated_at, feedback_submitted_at) "
+                + "SELECT nextval('complaint_status_updates_seq'), c.id, c.status, 'Seeded', ?, c.updated_at::date, "
+                + "CASE WHEN c.status = 'RESOLVED' AND c.id % 10 = 0 THEN c.updated_at END "
+                + "FROM complaints c JOIN users u ON u.id = c.user_id WHERE u.email LIKE ? AND c.status <> 'NEW'",
+                by.getId(), email("%"));
+        jdbc.execute("VACUUM ANALYZE"); // also moves the new rows out of the GIN pending lists
+    }
+
+    private String email(Object n) {
+        return seed + "-" + n + "@test.example";
+    }
+}
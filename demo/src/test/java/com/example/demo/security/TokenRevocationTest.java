@@ -0,0 +1,130 @@
+package com.example.demo.security;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.model.User;
+import com.example.demo.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Revoked tokens stay revoked where the in-memory state of this instance does not reach: a TokenRevocationList
+ * of its own, as after a restart or on another instance, refuses them too, and event streams opened with them
+ * are closed. A handler's current user that no longer exists is a 401, not a failure of the handler.
+ */
+class TokenRevocationTest extends IntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void logoutRevokesTheUsersTokens() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        String token = bearer(student);
+        String otherSession = bearer(student);
+        assertThat(status(token)).isEqualTo(200);
+
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, token));
+
+        assertThat(status(token)).as("after logout").isEqualTo(403);
+        assertThat(status(otherSession)).as("the user's other token").isEqualTo(403);
+        assertThat(restarted().isRevoked(claims(token))).as("revoked after a restart").isTrue();
+        assertThat(status(bearer(student))).as("a token issued after logout").isEqualTo(200);
+    }
+
+    @Test
+    void logoutClosesTheUsersEventStreams() throws Exception {
+        User warden = createUser(User.Role.WARDEN);
+        String token = bearer(warden);
+        Gauge streams = meterRegistry.get("complaints.events.subscribers").gauge();
+        double before = streams.value();
+
+        MvcResult stream = mockMvc.perform(get("/api/complaints/events").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(streams.value()).as("open streams").isEqualTo(before + 1);
+
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, token));
+
+        assertThat(streams.value()).as("open streams after logout").isEqualTo(before);
+        stream.getAsyncResult(5_000); // the stream completed; throws while it is still open
+    }
+
+    @Test
+    void roleChangeAndDeletionRevokeTheUsersTokens() throws Exception {
+        User warden = createUser(User.Role.WARDEN);
+        String token = bearer(warden);
+        userService.updateUser(warden.getId(), User.builder()
+                .name(warden.getName())
+                .email(warden.getEmail())
+                .role(User.Role.STUDENT)
+                .build());
+
+        assertThat(status(token)).as("after the role change").isEqualTo(403);
+        assertThat(restarted().isRevoked(claims(token))).as("revoked after a restart").isTrue();
+
+        User deleted = createUser(User.Role.ADMIN);
+        String deletedToken = bearer(deleted);
+        userService.deleteUser(deleted.getId());
+        User sameEmail = createUser(User.Role.ADMIN);
+        sameEmail.setEmail(deleted.getEmail());
+        userRepository.save(sameEmail);
+
+        assertThat(restarted().isRevoked(claims(deletedToken)))
+                .as("token of a deleted user, once another has the email").isTrue();
+    }
+
+    @Test
+    void currentUserOfADeletedAccountIsAnAuthenticationFailure() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        String token = bearer(student);
+        assertThat(status(get("/api/auth/me"), token)).isEqualTo(200);
+
+        // Deleted by another instance: the token is still accepted here (its version is cached) while the
+        // user is looked up again
+        new JdbcTemplate(dataSource).update("DELETE FROM users WHERE id = ?", student.getId());
+        principalCache.evict(student.getEmail());
+        entityManagerFactory.getCache().evict(User.class);
+
+        assertThat(status(get("/api/auth/me"), token)).isEqualTo(401);
+    }
+
+    private int status(String authorization) throws Exception {
+        return status(get("/api/complaints"), authorization);
+    }
+
+    private int status(MockHttpServletRequestBuilder request, String authorization) throws Exception {
+        return mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, authorization))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private TokenRevocationList restarted() {
+        return new TokenRevocationList(new JdbcTemplate(dataSource), event -> { }, 30, 100);
+    }
+
+    private Claims claims(String authorization) {
+        return jwtUtil.parseAndValidate(authorization.substring("Bearer ".length()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.dto.ComplaintFilter;
+import com.example.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Export permits: taken when an export is accepted, given back once whether the body was written or the
+ * request ended without it, so complaints.export.max-concurrent never leaks.
+ */
+class ComplaintExportServiceTest extends IntegrationTest {
+
+    @Autowired
+    private ComplaintExportService exportService;
+
+    @Value("${complaints.export.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Test
+    void acceptsAtMostMaxConcurrentUntilReleased() {
+        List<ComplaintExportService.Export> accepted = new ArrayList<>();
+        for (int i = 0; i < maxConcurrent; i++) {
+            accepted.add(export());
+        }
+        assertThatThrownBy(this::export).isInstanceOf(IllegalStateException.class);
+
+        // Released twice (request ended, then again): one permit back, not two
+        accepted.get(0).release();
+        accepted.get(0).release();
+        accepted.add(export());
+        assertThatThrownBy(this::export).isInstanceOf(IllegalStateException.class);
+
+        // A released body is not written any more
+        assertThatThrownBy(() -> accepted.get(0).writeTo(OutputStream.nullOutputStream()))
+                .isInstanceOf(IllegalStateException.class);
+        accepted.subList(1, accepted.size()).forEach(ComplaintExportService.Export::release);
+    }
+
+    @Test
+    void completedDownloadsGiveTheirPermitBack() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        createComplaint(student, "Hostel");
+        for (int i = 0; i < maxConcurrent * 2; i++) {
+            MvcResult started = mockMvc.perform(get("/api/complaints/export")
+                            .param("format", "csv")
+                            .header(HttpHeaders.AUTHORIZATION, bearer(student)))
+                    .andReturn();
+            assertThat(started.getResponse().getStatus()).as("export %d", i + 1).isEqualTo(200);
+            MvcResult done = mockMvc.perform(asyncDispatch(started)).andReturn();
+            assertThat(done.getResponse().getContentAsString()).startsWith("id,title,");
+        }
+    }
+
+    private ComplaintExportService.Export export() {
+        return exportService.export(-1L, null, new ComplaintFilter(), ComplaintExportService.Format.CSV, false);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.dto.BulkStatusUpdateResult;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.ComplaintStatusUpdate;
+import com.example.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent bulk status updates of different complaints: each batch locks its complaint rows in id
+ * order, but the complaint_counters rows their trigger adjusts in whatever order the categories come.
+ * Batches that take Hostel before Mess race batches that take Mess before Hostel, so Postgres aborts one
+ * of two deadlocked transactions now and then; every batch must still go through (retried), and the
+ * counters must match the complaints afterwards.
+ */
+class ConcurrentBulkUpdateTest extends IntegrationTest {
+
+    private static final int WRITERS_PER_ORDER = 2;
+    private static final int ROUNDS = 25;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void crossingBatchesAllCommitAndKeepTheCountersRight() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        User admin = createUser(User.Role.ADMIN);
+
+        // Created in this order, so each batch below is in id order: Hostel then Mess, or Mess then Hostel
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < WRITERS_PER_ORDER; i++) {
+            Complaint hostelFirst = createComplaint(student, "Hostel");
+            Complaint messFirst = createComplaint(student, "Mess");
+            Complaint messSecond = createComplaint(student, "Mess");
+            Complaint hostelSecond = createComplaint(student, "Hostel");
+            batches.add(List.of(hostelFirst.getId(), messSecond.getId()));
+            batches.add(List.of(messFirst.getId(), hostelSecond.getId()));
+        }
+
+        ExecutorService writers = Executors.newFixedThreadPool(batches.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (List<Long> batch : batches) {
+                done.add(writers.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        Complaint.Status status = round % 2 == 0 ? Complaint.Status.RESOLVED : Complaint.Status.IN_PROGRESS;
+                        List<BulkStatusUpdateResult> results = complaintService.bulkUpdateStatus(batch, status,
+                                ComplaintStatusUpdate.builder()
+                                        .message("Round " + round)
+                                        .updatedByUser(admin)
+                                        .updatedAt(LocalDate.now())
+                                        .build(), admin);
+                        assertThat(results).allMatch(r -> r.getOutcome() == BulkStatusUpdateResult.Outcome.UPDATED);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : done) {
+                writer.get(2, TimeUnit.MINUTES); // rethrows a give-up or any other failure
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<String> drift = jdbc.queryForList("SELECT k.category_id || '/' || k.status || '/' || k.priority "
+                + "|| ': ' || k.complaint_count || ' counted, ' || coalesce(a.n, 0) || ' stored' "
+                + "FROM complaint_counters k LEFT JOIN (SELECT category_id, status, priority, COUNT(*) AS n "
+                + "FROM complaints_all GROUP BY 1, 2, 3) a USING (category_id, status, priority) "
+                + "WHERE k.complaint_count <> coalesce(a.n, 0)", String.class);
+        assertThat(drift).as("complaint_counters rows that differ from complaints_all").isEmpty();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.ComplaintStatusUpdate;
+import com.example.demo.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lost-update check on one hot complaint: 64 writers change it at the same time, half its status
+ * (status + history row), half its priority. Every write must commit (none given up after retries),
+ * each with a version of its own; the row's version grows by exactly their number, the final status and
+ * priority are those of the status / priority write with the highest version, and there is one history
+ * row per status write.
+ */
+class ConcurrentUpdateTest extends IntegrationTest {
+
+    private static final int WRITERS = 64;
+    private static final int UPDATES_PER_WRITER = 5;
+    private static final Complaint.Status[] STATUSES = Complaint.Status.values();
+    private static final Complaint.Priority[] PRIORITIES = Complaint.Priority.values();
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void everyConcurrentWriteCommitsAndNoneIsLost() throws Exception {
+        User student = createUser(User.Role.STUDENT);
+        User admin = createUser(User.Role.ADMIN);
+        Complaint complaint = createComplaint(student, "Hostel");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        long versionBefore = version(jdbc, complaint.getId());
+        double gaveUpBefore = meterRegistry.counter("complaints.update.conflicts", "outcome", "gave_up").count();
+
+        // version -> the write that committed it
+        Map<Long, Object> writes = new TreeMap<>();
+        List<String> duplicates = new ArrayList<>();
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                done.add(writers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                        Object value;
+                        Complaint saved;
+                        if (writer % 2 == 0) {
+                            Complaint.Status status = STATUSES[(writer + i) % STATUSES.length];
+                            saved = complaintService.applyStatusChanges(List.of(ComplaintStatusUpdate.builder()
+                                    .complaint(complaint)
+                                    .status(status)
+                                    .message("Concurrent update " + writer + "/" + i)
+                                    .updatedByUser(admin)
+                                    .updatedAt(LocalDate.now())
+                                    .build())).get(0);
+                            value = status;
+                        } else {
+                            Complaint.Priority priority = PRIORITIES[(writer + i) % PRIORITIES.length];
+                            saved = complaintService.updateComplaintPriority(complaint.getId(), priority);
+                            value = priority;
+                        }
+                        synchronized (writes) {
+                            Object other = writes.putIfAbsent(saved.getVersion(), value);
+                            if (other != null) {
+                                duplicates.add("version " + saved.getVersion() + ": " + other + " and " + value);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : done) {
+                writer.get(2, TimeUnit.MINUTES); // rethrows a give-up or any other failure
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        Complaint.Status lastStatus = null;
+        Complaint.Priority lastPriority = null;
+        long statusWrites = 0;
+        for (Object write : writes.values()) {
+            if (write instanceof Complaint.Status status) {
+                lastStatus = status;
+                statusWrites++;
+            } else {
+                lastPriority = (Complaint.Priority) write;
+            }
+        }
+
+        assertThat(duplicates).as("versions committed by more than one write").isEmpty();
+        assertThat(writes).hasSize(WRITERS * UPDATES_PER_WRITER);
+        assertThat(meterRegistry.counter("complaints.update.conflicts", "outcome", "gave_up").count())
+                .as("writes given up").isEqualTo(gaveUpBefore);
+        assertThat(version(jdbc, complaint.getId()) - versionBefore).isEqualTo(writes.size());
+        assertThat(jdbc.queryForObject("SELECT status FROM complaints WHERE id = ?", String.class, complaint.getId()))
+                .isEqualTo(lastStatus.name());
+        assertThat(jdbc.queryForObject("SELECT priority FROM complaints WHERE id = ?", String.class, complaint.getId()))
+                .isEqualTo(lastPriority.name());
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM complaint_status_updates WHERE complaint_id = ?",
+                Long.class, complaint.getId())).isEqualTo(statusWrites);
+    }
+
+    private static long version(JdbcTemplate jdbc, Long complaintId) {
+        return jdbc.queryForObject("SELECT version FROM complaints WHERE id = ?", Long.class, complaintId);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import com.example.demo.IntegrationTest;
+import com.example.demo.model.Complaint;
+import com.example.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The duplicate index follows committed writes only: a status change that rolls back leaves it as it was.
+ */
+class DuplicateComplaintIndexTest extends IntegrationTest {
+
+    @Autowired
+    private DuplicateComplaintIndex duplicateIndex;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void statusChangesReachTheIndexOnCommitOnly() {
+        User student = createUser(User.Role.STUDENT);
+        User warden = createUser(User.Role.WARDEN);
+        Complaint complaint = createComplaint(student, "Hostel");
+        assertThat(duplicateIndex.contains(complaint.getId())).as("indexed when created").isTrue();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            addStatusUpdate(complaint, Complaint.Status.RESOLVED, warden);
+            status.setRollbackOnly();
+        });
+        assertThat(complaintService.getComplaintById(complaint.getId()).getStatus()).isEqualTo(Complaint.Status.NEW);
+        assertThat(duplicateIndex.contains(complaint.getId())).as("indexed after the rolled-back change").isTrue();
+
+        addStatusUpdate(complaint, Complaint.Status.RESOLVED, warden);
+        assertThat(duplicateIndex.contains(complaint.getId())).as("indexed after it was resolved").isFalse();
+
+        addStatusUpdate(complaint, Complaint.Status.IN_PROGRESS, warden);
+        assertThat(duplicateIndex.contains(complaint.getId())).as("indexed after it was reopened").isTrue();
+    }
+}